@@ -0,0 +1,112 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark of serializing product messages with Confluent's serializer and with {@link PinnedSchemaAvroSerializer}.
+ * Besides records per second, the counter "bytes" gives the bytes written per second.
+ * Confluent's serializer uses a mock registry, so its numbers are those of a warm client cache
+ * and leave out the registry round trips that pinning avoids at startup.
+ * Run it with "gradle jmh".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMessageSerializerBenchmark {
+
+    private static final String TOPIC = "products";
+    private static final int MESSAGES = 1024;
+
+    private final ProductMessage[] productMessages = new ProductMessage[MESSAGES];
+    private KafkaAvroSerializer confluentSerializer;
+    private PinnedSchemaAvroSerializer pinnedSerializer;
+    private PinnedSchemaAvroSerializer singleObjectSerializer;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < MESSAGES; i++) {
+            productMessages[i] = ProductMessage.newBuilder()
+                .setId(String.format("%032x", i))
+                .setName("product" + i)
+                .setPrice(i * 1.5)
+                .build();
+        }
+        confluentSerializer = new KafkaAvroSerializer(new MockSchemaRegistryClient(),
+            Map.of("schema.registry.url", "mock://benchmark"));
+        byte[] confluentBytes = confluentSerializer.serialize(TOPIC, productMessages[0]);
+
+        // Pin the ID the mock registry gave so both write the same bytes.
+        PinnedSchema pinnedSchema = new PinnedSchema(TOPIC + "-value", ProductMessage.getClassSchema());
+        pinnedSchema.pin(ByteBuffer.wrap(confluentBytes, 1, Integer.BYTES).getInt());
+        pinnedSerializer = new PinnedSchemaAvroSerializer(pinnedSchema);
+        if (!Arrays.equals(confluentBytes, pinnedSerializer.serialize(TOPIC, productMessages[0]))) {
+            throw new IllegalStateException("The pinned serializer doesn't write what Confluent's writes");
+        }
+
+        singleObjectSerializer = new PinnedSchemaAvroSerializer(
+            new PinnedSchema(TOPIC + "-value", ProductMessage.getClassSchema()));
+    }
+
+    @Benchmark
+    public byte[] confluent(Counters counters) {
+        return counters.count(confluentSerializer.serialize(TOPIC, productMessages[counters.next()]));
+    }
+
+    @Benchmark
+    public byte[] pinned(Counters counters) {
+        return counters.count(pinnedSerializer.serialize(TOPIC, productMessages[counters.next()]));
+    }
+
+    @Benchmark
+    public byte[] singleObject(Counters counters) {
+        return counters.count(singleObjectSerializer.serialize(TOPIC, productMessages[counters.next()]));
+    }
+
+    /**
+     * Public fields of an {@link AuxCounters} state are reported as rates next to the benchmark's.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long bytes;
+        private int index;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+
+        int next() {
+            index = (index + 1) & (MESSAGES - 1);
+            return index;
+        }
+
+        byte[] count(byte[] serialized) {
+            bytes += serialized.length;
+            return serialized;
+        }
+    }
+}
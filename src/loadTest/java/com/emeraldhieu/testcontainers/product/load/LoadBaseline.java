@@ -0,0 +1,69 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The numbers a run must not exceed by more than {@link #tolerance()}, stored in "load/baseline.json".
+ * + Latencies are compared per operation at p99 and p99.9 so a regression of a rare operation isn't averaged away
+ * + Operations or limits left out of the file aren't compared
+ * Every run writes a baseline of its own numbers next to its report. Replace the stored one with it
+ * after a run on the machine that runs the load tests, and commit it with the change that made it necessary.
+ */
+record LoadBaseline(String source, double tolerance, Map<Operation, OperationBaseline> operations,
+                    Double maxErrorRate, Double maxGcTimeRatio, Integer maxThreadsAwaitingConnection,
+                    Long maxLiveHeapGrowthBytes) {
+
+    static final String RESOURCE = "load/baseline.json";
+
+    static LoadBaseline of(LoadReport report, double tolerance, String source) {
+        Map<Operation, OperationBaseline> operations = new EnumMap<>(Operation.class);
+        report.operations().forEach((operation, stats) ->
+            operations.put(operation, new OperationBaseline(stats.p99Millis(), stats.p999Millis())));
+        return new LoadBaseline(source, tolerance, operations, report.errorRate(),
+            report.resources().gcTimeRatio(), report.resources().maxThreadsAwaitingConnection(),
+            report.liveHeapGrowthBytes());
+    }
+
+    /**
+     * Describe every number of the report that's worse than the baseline allows. It's empty if there's none.
+     */
+    List<String> regressionsOf(LoadReport report) {
+        List<String> regressions = new ArrayList<>();
+        if (operations != null) {
+            operations.forEach((operation, baseline) -> {
+                LoadReport.OperationStats stats = report.operations().get(operation);
+                if (stats == null || stats.count() == 0) {
+                    return;
+                }
+                check(regressions, operation + " p99 (ms)", stats.p99Millis(), baseline.p99Millis());
+                check(regressions, operation + " p99.9 (ms)", stats.p999Millis(), baseline.p999Millis());
+            });
+        }
+        check(regressions, "error rate", report.errorRate(), maxErrorRate);
+        check(regressions, "GC time ratio", report.resources().gcTimeRatio(), maxGcTimeRatio);
+        check(regressions, "threads awaiting a connection", report.resources().maxThreadsAwaitingConnection(),
+            maxThreadsAwaitingConnection != null ? maxThreadsAwaitingConnection.doubleValue() : null);
+        if (report.liveHeapGrowthBytes() != null) {
+            check(regressions, "live heap growth (bytes)", report.liveHeapGrowthBytes(),
+                maxLiveHeapGrowthBytes != null ? maxLiveHeapGrowthBytes.doubleValue() : null);
+        }
+        return regressions;
+    }
+
+    private void check(List<String> regressions, String name, double actual, Double baseline) {
+        if (baseline == null) {
+            return;
+        }
+        double limit = baseline * (1 + tolerance);
+        if (actual > limit) {
+            regressions.add(String.format("%s is %.4f, the baseline is %.4f and allows up to %.4f",
+                name, actual, baseline, limit));
+        }
+    }
+
+    record OperationBaseline(Double p99Millis, Double p999Millis) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * How a load test drives the app.
+ * + Requests arrive at a fixed rate whatever the app's latency, so a slow response doesn't slow the load down
+ * + The warm-up runs at the same rate and isn't recorded
+ * + Operations are picked at random by weight
+ * The rate and the durations can be set with the system properties "load.rate", "load.duration" and "load.soak".
+ */
+record LoadProfile(int rate, Duration warmUp, Duration duration, Duration soak, int maxOutstanding,
+                   Map<Operation, Integer> weights) {
+
+    static LoadProfile fromSystemProperties() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        weights.put(Operation.GET, 60);
+        weights.put(Operation.LIST, 15);
+        weights.put(Operation.CREATE, 10);
+        weights.put(Operation.UPDATE, 10);
+        weights.put(Operation.DELETE, 5);
+        return new LoadProfile(
+            Integer.getInteger("load.rate", 200),
+            Duration.ofSeconds(30),
+            Duration.parse(System.getProperty("load.duration", "PT2M")),
+            Duration.parse(System.getProperty("load.soak", "PT0S")),
+            1000,
+            weights
+        );
+    }
+
+    LoadProfile withDuration(Duration duration) {
+        return new LoadProfile(rate, warmUp, duration, soak, maxOutstanding, weights);
+    }
+}
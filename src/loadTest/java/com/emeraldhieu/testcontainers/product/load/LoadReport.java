@@ -0,0 +1,87 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The numbers of a run that are compared with the {@link LoadBaseline}. Latencies are in milliseconds.
+ * The live heap growth is only known for a soak, otherwise it's null.
+ */
+record LoadReport(String name, int rate, double throughput, long sent, long failed, double errorRate,
+                  Map<Operation, OperationStats> operations, ResourceSampler.ResourceStats resources,
+                  Long liveHeapGrowthBytes) {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    static LoadReport of(String name, LoadProfile profile, OpenLoadGenerator.LoadRun run,
+                         ResourceSampler.ResourceStats resources, Long liveHeapGrowthBytes) {
+        Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+        long failed = run.dropped();
+        long completed = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram latencies = run.latencies(operation);
+            long errors = run.errors(operation);
+            failed += errors;
+            completed += latencies.getTotalCount();
+            operations.put(operation, new OperationStats(
+                latencies.getTotalCount(),
+                errors,
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue())
+            ));
+        }
+        double seconds = run.elapsedNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        return new LoadReport(name, profile.rate(), completed / seconds, run.sent(), failed,
+            run.sent() > 0 ? (double) failed / run.sent() : 0, operations, resources, liveHeapGrowthBytes);
+    }
+
+    /**
+     * Write the full latency distribution of each operation in HdrHistogram's percentile format,
+     * which can be plotted with https://hdrhistogram.github.io/HdrHistogram/plotFiles.html
+     */
+    static void writeHistograms(Path directory, String name, OpenLoadGenerator.LoadRun run) throws IOException {
+        Files.createDirectories(directory);
+        for (Operation operation : Operation.values()) {
+            Path file = directory.resolve(name + "-" + operation.name().toLowerCase() + ".hgrm");
+            try (PrintStream printStream = new PrintStream(Files.newOutputStream(file))) {
+                run.latencies(operation).outputPercentileDistribution(printStream, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    String format() {
+        StringBuilder builder = new StringBuilder()
+            .append("Load test ").append(name).append(" at ").append(rate).append(" requests/s: ")
+            .append(String.format("%.1f", throughput)).append(" completed/s, ")
+            .append(failed).append(" of ").append(sent).append(" failed or dropped\n");
+        operations.forEach((operation, stats) -> builder.append(String.format(
+            "  %-6s count=%d errors=%d p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+            operation, stats.count(), stats.errors(), stats.p50Millis(), stats.p99Millis(), stats.p999Millis(),
+            stats.maxMillis())));
+        builder.append(String.format("  GC: %d collections, %d ms (%.2f%% of the run)%n",
+            resources.gcCount(), resources.gcMillis(), resources.gcTimeRatio() * 100));
+        builder.append(String.format("  Pool: at most %d active connections, %d threads awaiting one%n",
+            resources.maxActiveConnections(), resources.maxThreadsAwaitingConnection()));
+        if (liveHeapGrowthBytes != null) {
+            builder.append(String.format("  Live heap grew by %d MB%n", liveHeapGrowthBytes >> 20));
+        }
+        return builder.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    record OperationStats(long count, long errors, double p50Millis, double p99Millis, double p999Millis,
+                          double maxMillis) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A generator of an open workload: requests are sent at their scheduled time whether earlier ones have completed or not.
+ * Latency is measured from the scheduled time rather than from the send,
+ * so a stall is charged to every request that should have been sent during it. Otherwise the stall would hide
+ * the requests it delayed, which is known as coordinated omission.
+ * Requests beyond {@link LoadProfile#maxOutstanding()} in flight are dropped and counted as errors.
+ * See https://github.com/HdrHistogram/HdrHistogram#corrected-vs-raw-value-recording-calls
+ */
+class OpenLoadGenerator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient httpClient;
+    private final ProductWorkload workload;
+
+    OpenLoadGenerator(HttpClient httpClient, ProductWorkload workload) {
+        this.httpClient = httpClient;
+        this.workload = workload;
+    }
+
+    LoadRun run(LoadProfile profile, Duration duration) throws InterruptedException {
+        LoadRun run = new LoadRun();
+        Semaphore outstanding = new Semaphore(profile.maxOutstanding());
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ProductWorkload.Call call = workload.call(pick(profile.weights()));
+            run.sent.increment();
+            if (!outstanding.tryAcquire()) {
+                run.dropped.increment();
+                continue;
+            }
+            httpClient.sendAsync(call.request(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                    outstanding.release();
+                    if (error != null || response.statusCode() >= 400) {
+                        run.errors.get(call.operation()).increment();
+                        return;
+                    }
+                    run.latencies.get(call.operation()).recordValue(latencyMicros);
+                    workload.onResponse(call, response);
+                });
+        }
+        // Wait for the requests in flight so they're recorded in this run.
+        outstanding.tryAcquire(profile.maxOutstanding(), 30, TimeUnit.SECONDS);
+        run.elapsedNanos = System.nanoTime() - start;
+        return run;
+    }
+
+    private static Operation pick(Map<Operation, Integer> weights) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int value = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            value -= weight.getValue();
+            if (value < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking an operation");
+    }
+
+    /**
+     * What a run recorded. Latencies are in microseconds.
+     */
+    static class LoadRun {
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private long elapsedNanos;
+
+        LoadRun() {
+            for (Operation operation : Operation.values()) {
+                // Auto-resizing so no latency is clamped.
+                latencies.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        Histogram latencies(Operation operation) {
+            return latencies.get(operation);
+        }
+
+        long errors(Operation operation) {
+            return errors.get(operation).sum();
+        }
+
+        long sent() {
+            return sent.sum();
+        }
+
+        long dropped() {
+            return dropped.sum();
+        }
+
+        long elapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+/**
+ * An operation of the mixed workload. Each is recorded in its own histogram.
+ */
+enum Operation {
+    GET,
+    LIST,
+    CREATE,
+    UPDATE,
+    DELETE
+}
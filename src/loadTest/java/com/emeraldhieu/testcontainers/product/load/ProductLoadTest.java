@@ -0,0 +1,231 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.bloom.ProductIdFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A load test that boots the app against Postgres, Kafka and Schema Registry containers
+ * and drives it through HTTP with a mixed workload at a fixed arrival rate.
+ * It fails when latencies, errors, GC or pool waits are worse than the stored {@link LoadBaseline}.
+ * Run it with "gradle loadTest", see build.gradle for its options.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        // Don't run with the "local" profile, which logs every statement.
+        "spring.profiles.active=load",
+        // The load comes from one client.
+        "application.rate-limit.enabled=false",
+        "application.kafka.journal.directory=build/load-test/journal"
+    }
+)
+@Testcontainers
+public class ProductLoadTest {
+
+    private static final int SEEDED_PRODUCTS = 10_000;
+    private static final double BASELINE_TOLERANCE = 0.25;
+
+    private static Logger logger = LoggerFactory.getLogger(ProductLoadTest.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    static Network network = Network.newNetwork();
+
+    // Cluster ID is created by "kafka-storage random-uuid"
+    private static String clusterId = "qYoMEZXcS_SKP2PzAl8-WA";
+
+    @Container
+    private static KafkaContainer kafka =
+        new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.4.0"))
+            .withNetwork(network)
+            .withKraft()
+            .withClusterId(clusterId)
+            .withLogConsumer(logConsumer);
+
+    @Container
+    private static GenericContainer schemaRegistry =
+        new GenericContainer(DockerImageName.parse("confluentinc/cp-schema-registry:7.4.0"))
+            .withNetwork(network)
+            .withExposedPorts(8081)
+            .withEnv("SCHEMA_REGISTRY_HOST_NAME", "schema-registry")
+            .withEnv("SCHEMA_REGISTRY_LISTENERS", "http://0.0.0.0:8081")
+            .withEnv("SCHEMA_REGISTRY_KAFKASTORE_BOOTSTRAP_SERVERS",
+                "PLAINTEXT://" + kafka.getNetworkAliases().get(0) + ":9092")
+            .dependsOn(kafka)
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        registry.add("spring.kafka.properties.schema.registry.url",
+            () -> "http://" + schemaRegistry.getHost() + ":" + schemaRegistry.getFirstMappedPort());
+    }
+
+    private static LoadProfile profile;
+    private static LoadBaseline baseline;
+    private static Path outputDirectory;
+    private static ObjectWriter jsonWriter;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductIdFilter productIdFilter;
+
+    private OpenLoadGenerator generator;
+
+    @BeforeAll
+    static void setUpAll() throws IOException {
+        profile = LoadProfile.fromSystemProperties();
+        outputDirectory = Path.of(System.getProperty("load.outputDirectory", "build/load-test"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        jsonWriter = objectMapper.writerWithDefaultPrettyPrinter();
+        try (InputStream inputStream = ProductLoadTest.class.getClassLoader()
+            .getResourceAsStream(LoadBaseline.RESOURCE)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("The baseline " + LoadBaseline.RESOURCE + " is missing");
+            }
+            baseline = objectMapper.readValue(inputStream, LoadBaseline.class);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM product", Integer.class);
+        if (count == null || count < SEEDED_PRODUCTS) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("""
+                INSERT INTO product (external_id, name, price)
+                SELECT 'seeded' || i, 'product' || i, i % 1000
+                FROM generate_series(1, ?) AS i
+                ON CONFLICT (external_id) DO NOTHING""", SEEDED_PRODUCTS));
+            // Products inserted behind the app's back are unknown to the filter until it's rebuilt.
+            productIdFilter.rebuild();
+        }
+        List<String> seededIds = jdbcTemplate.queryForList(
+            "SELECT external_id FROM product WHERE external_id LIKE 'seeded%'", String.class);
+        // Virtual threads aren't there in Java 17, so the client gets a pool as large as the requests in flight.
+        HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(64))
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        generator = new OpenLoadGenerator(httpClient,
+            new ProductWorkload(URI.create("http://localhost:" + port), seededIds));
+    }
+
+    @Test
+    public void givenMixedWorkload_whenDriveAtFixedRate_thenWithinBaseline() throws Exception {
+        // GIVEN
+        generator.run(profile, profile.warmUp());
+
+        // WHEN
+        LoadReport report = measure("mixed", profile.duration(), false);
+
+        // THEN
+        assertWithinBaseline(report);
+    }
+
+    /**
+     * Hold the rate long enough for a leak to show. The live heap is measured after a full GC at both ends.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "load.soak", matches = "PT.+")
+    public void givenSoak_whenDriveForLong_thenLiveHeapDoesNotGrow() throws Exception {
+        // GIVEN
+        generator.run(profile, profile.warmUp());
+
+        // WHEN
+        LoadReport report = measure("soak", profile.soak(), true);
+
+        // THEN
+        assertWithinBaseline(report);
+    }
+
+    private LoadReport measure(String name, Duration duration, boolean measureLiveHeap) throws Exception {
+        long liveHeapBefore = measureLiveHeap ? ResourceSampler.liveHeapBytes() : 0;
+        OpenLoadGenerator.LoadRun run;
+        ResourceSampler.ResourceStats resources;
+        try (ResourceSampler sampler = new ResourceSampler(pool())) {
+            sampler.start();
+            run = generator.run(profile, duration);
+            resources = sampler.stop();
+        }
+        Long liveHeapGrowth = measureLiveHeap ? ResourceSampler.liveHeapBytes() - liveHeapBefore : null;
+        LoadReport report = LoadReport.of(name, profile, run, resources, liveHeapGrowth);
+        logger.info(report.format());
+
+        LoadReport.writeHistograms(outputDirectory, name, run);
+        jsonWriter.writeValue(outputDirectory.resolve(name + "-report.json").toFile(), report);
+        jsonWriter.writeValue(outputDirectory.resolve(name + "-baseline.json").toFile(),
+            LoadBaseline.of(report, BASELINE_TOLERANCE, "Run \"" + name + "\" at " + profile.rate() + " requests/s"));
+        return report;
+    }
+
+    private void assertWithinBaseline(LoadReport report) throws IOException {
+        List<String> regressions = baseline.regressionsOf(report);
+        if (!regressions.isEmpty()) {
+            Files.write(outputDirectory.resolve(report.name() + "-regressions.txt"), regressions);
+        }
+        assertTrue(regressions.isEmpty(), "Worse than the baseline (" + baseline.source() + "):\n"
+            + String.join("\n", regressions));
+    }
+
+    private HikariPoolMXBean pool() throws SQLException {
+        return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+    }
+}
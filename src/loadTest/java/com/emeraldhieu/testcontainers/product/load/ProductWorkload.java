@@ -0,0 +1,85 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The requests of the mixed workload.
+ * + Reads and updates go to the seeded products, so they're found and the cache sees a realistic hit rate
+ * + Deletes go to products the load itself created, so the seeded products stay readable
+ * A delete with nothing to delete reads a product instead.
+ */
+class ProductWorkload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String PRODUCT_PATH = "/products/";
+
+    private final URI baseUri;
+    private final List<String> seededIds;
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+
+    ProductWorkload(URI baseUri, List<String> seededIds) {
+        this.baseUri = baseUri;
+        this.seededIds = List.copyOf(seededIds);
+    }
+
+    Call call(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case GET -> get(randomSeededId(random));
+            case LIST -> new Call(operation, request("/products?offset=" + random.nextInt(100) + "&limit=10").GET().build());
+            case CREATE -> new Call(operation, request("/products")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(productJson(random)))
+                .build());
+            case UPDATE -> new Call(operation, request(PRODUCT_PATH + randomSeededId(random))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"price\":" + random.nextInt(1, 1000) + "}"))
+                .build());
+            case DELETE -> {
+                String id = createdIds.poll();
+                yield id != null
+                    ? new Call(operation, request(PRODUCT_PATH + id).DELETE().build())
+                    : get(randomSeededId(random));
+            }
+        };
+    }
+
+    /**
+     * Remember created products so they can be deleted. The ID is the last segment of "Location".
+     */
+    void onResponse(Call call, HttpResponse<?> response) {
+        if (call.operation() != Operation.CREATE || response.statusCode() != 201) {
+            return;
+        }
+        response.headers().firstValue("Location")
+            .map(location -> location.substring(location.lastIndexOf('/') + 1))
+            .ifPresent(createdIds::add);
+    }
+
+    static String productJson(ThreadLocalRandom random) {
+        return "{\"name\":\"load" + random.nextInt(1_000_000) + "\",\"price\":" + random.nextInt(1, 1000) + "}";
+    }
+
+    private Call get(String id) {
+        return new Call(Operation.GET, request(PRODUCT_PATH + id).GET().build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(TIMEOUT);
+    }
+
+    private String randomSeededId(ThreadLocalRandom random) {
+        return seededIds.get(random.nextInt(seededIds.size()));
+    }
+
+    record Call(Operation operation, HttpRequest request) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.emeraldhieu.testcontainers.product.load;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sampler of what a run costs besides latency.
+ * + GC counts and pause times are the difference of the collectors' totals between start and stop
+ * + The pool is sampled every 100 ms for its busiest moment
+ * The app and the load share the JVM, so the GC numbers include the load's own garbage.
+ * It's the same in every run so runs can still be compared with each other.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 100;
+
+    private final HikariPoolMXBean pool;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile int maxActiveConnections;
+    private volatile int maxThreadsAwaitingConnection;
+    private long startGcCount;
+    private long startGcMillis;
+    private long startNanos;
+
+    ResourceSampler(HikariPoolMXBean pool) {
+        this.pool = pool;
+    }
+
+    void start() {
+        startGcCount = gcCount();
+        startGcMillis = gcMillis();
+        startNanos = System.nanoTime();
+        scheduler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    ResourceStats stop() {
+        scheduler.shutdownNow();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        long gcMillis = gcMillis() - startGcMillis;
+        return new ResourceStats(
+            gcCount() - startGcCount,
+            gcMillis,
+            elapsedMillis > 0 ? (double) gcMillis / elapsedMillis : 0,
+            maxActiveConnections,
+            maxThreadsAwaitingConnection
+        );
+    }
+
+    /**
+     * The heap still used after a full collection, which is what a leak grows.
+     */
+    static long liveHeapBytes() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sample() {
+        maxActiveConnections = Math.max(maxActiveConnections, pool.getActiveConnections());
+        maxThreadsAwaitingConnection = Math.max(maxThreadsAwaitingConnection, pool.getThreadsAwaitingConnection());
+    }
+
+    private static long gcCount() {
+        return collectors().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+            .sum();
+    }
+
+    private static long gcMillis() {
+        return collectors().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+            .sum();
+    }
+
+    private static List<GarbageCollectorMXBean> collectors() {
+        return ManagementFactory.getGarbageCollectorMXBeans();
+    }
+
+    record ResourceStats(long gcCount, long gcMillis, double gcTimeRatio,
+                         int maxActiveConnections, int maxThreadsAwaitingConnection) {
+    }
+}
@@ -2,6 +2,7 @@ package com.emeraldhieu.testcontainers.product;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
@@ -13,7 +14,16 @@ import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 @SpringBootApplication
 public class ProductApp {
 
+    /**
+     * Enough for every step of a startup. Steps beyond it aren't recorded.
+     */
+    private static final int STARTUP_STEPS_CAPACITY = 8192;
+
     public static void main(String[] args) {
-        SpringApplication.run(ProductApp.class, args);
+        SpringApplication application = new SpringApplication(ProductApp.class);
+        // Record startup steps for the startup report and "/actuator/startup".
+        // See https://docs.spring.io/spring-boot/docs/3.0.0/reference/html/features.html#features.spring-application.startup-tracking
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+/**
+ * A schema of a registry subject whose ID is resolved once and then used for every record.
+ * The ID is {@link #UNRESOLVED} until the registry or the local cache gives it.
+ */
+public class PinnedSchema {
+
+    public static final int UNRESOLVED = -1;
+
+    private final String subject;
+    private final Schema schema;
+    private final long fingerprint;
+    private volatile int id = UNRESOLVED;
+
+    public PinnedSchema(String subject, Schema schema) {
+        this.subject = subject;
+        this.schema = schema;
+        // The same fingerprint identifies the schema in Avro single-object encoding.
+        this.fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isResolved() {
+        return id != UNRESOLVED;
+    }
+
+    public void pin(int id) {
+        this.id = id;
+    }
+}
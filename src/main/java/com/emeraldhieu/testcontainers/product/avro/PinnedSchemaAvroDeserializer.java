@@ -0,0 +1,95 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+
+/**
+ * A deserializer of what {@link PinnedSchemaAvroSerializer} writes.
+ * + Confluent's wire format with the pinned ID, and single-object encoding with the pinned fingerprint,
+ *   are read with the pinned schema without asking the registry
+ * + Confluent's wire format with another ID, written by another version of the app, goes to the registry deserializer
+ */
+public class PinnedSchemaAvroDeserializer implements Deserializer<Object> {
+
+    private final PinnedSchema pinnedSchema;
+    private final Deserializer<Object> registryDeserializer;
+
+    /**
+     * Datum readers are thread-safe and expensive to create so it's shared.
+     */
+    private final DatumReader<Object> reader;
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    public PinnedSchemaAvroDeserializer(PinnedSchema pinnedSchema, Deserializer<Object> registryDeserializer) {
+        this.pinnedSchema = pinnedSchema;
+        this.registryDeserializer = registryDeserializer;
+        this.reader = new SpecificDatumReader<>(pinnedSchema.getSchema());
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (registryDeserializer != null) {
+            registryDeserializer.configure(configs, isKey);
+        }
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (isSingleObject(data)) {
+            buffer.position(PinnedSchemaAvroSerializer.SINGLE_OBJECT_MAGIC.length);
+            long fingerprint = buffer.order(ByteOrder.LITTLE_ENDIAN).getLong();
+            if (fingerprint != pinnedSchema.getFingerprint()) {
+                throw new SerializationException("Unknown schema fingerprint " + fingerprint
+                    + " of a single-object encoded record of " + pinnedSchema.getSubject());
+            }
+            return read(data, buffer.position());
+        }
+        if (data.length > Integer.BYTES && buffer.get() == PinnedSchemaAvroSerializer.CONFLUENT_MAGIC_BYTE) {
+            int id = buffer.getInt();
+            if (pinnedSchema.isResolved() && id == pinnedSchema.getId()) {
+                return read(data, buffer.position());
+            }
+            if (registryDeserializer != null) {
+                return registryDeserializer.deserialize(topic, data);
+            }
+            throw new SerializationException("Schema ID " + id + " isn't the pinned one of "
+                + pinnedSchema.getSubject() + " and there's no registry to look it up");
+        }
+        throw new SerializationException("Unknown magic byte of a record of " + pinnedSchema.getSubject());
+    }
+
+    @Override
+    public void close() {
+        if (registryDeserializer != null) {
+            registryDeserializer.close();
+        }
+    }
+
+    private Object read(byte[] data, int offset) {
+        try {
+            BinaryDecoder decoder = DecoderFactory.get()
+                .binaryDecoder(data, offset, data.length - offset, decoders.get());
+            decoders.set(decoder);
+            return reader.read(null, decoder);
+        } catch (Exception e) {
+            throw new SerializationException("Unable to deserialize a record of " + pinnedSchema.getSubject(), e);
+        }
+    }
+
+    private static boolean isSingleObject(byte[] data) {
+        byte[] magic = PinnedSchemaAvroSerializer.SINGLE_OBJECT_MAGIC;
+        return data.length >= magic.length + Long.BYTES && data[0] == magic[0] && data[1] == magic[1];
+    }
+}
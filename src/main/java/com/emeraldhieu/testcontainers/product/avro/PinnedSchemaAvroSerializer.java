@@ -0,0 +1,87 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * A serializer that writes records of one {@link PinnedSchema} without asking the registry.
+ * + Once the schema's ID is pinned, records are in Confluent's wire format "[0][int schema ID][Avro binary]",
+ *   byte for byte what "KafkaAvroSerializer" writes, so any Confluent deserializer reads them
+ * + Until then, records are in Avro single-object encoding "[0xC3 0x01][long fingerprint][Avro binary]",
+ *   which {@link PinnedSchemaAvroDeserializer} and the generated classes' "fromByteBuffer" read
+ * The buffer and the encoder are reused per thread because Kafka serializes on the sending threads.
+ * See https://docs.confluent.io/platform/current/schema-registry/fundamentals/serdes-develop/index.html#wire-format
+ * See https://avro.apache.org/docs/1.11.0/specification/#single-object-encoding
+ */
+public class PinnedSchemaAvroSerializer implements Serializer<Object> {
+
+    static final byte CONFLUENT_MAGIC_BYTE = 0;
+    static final byte[] SINGLE_OBJECT_MAGIC = {(byte) 0xC3, (byte) 0x01};
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final PinnedSchema pinnedSchema;
+
+    /**
+     * Datum writers are thread-safe and expensive to create so it's shared.
+     */
+    private final DatumWriter<Object> writer;
+    private final ThreadLocal<Encoding> encodings = ThreadLocal.withInitial(Encoding::new);
+
+    public PinnedSchemaAvroSerializer(PinnedSchema pinnedSchema) {
+        this.pinnedSchema = pinnedSchema;
+        this.writer = new SpecificDatumWriter<>(pinnedSchema.getSchema());
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        Encoding encoding = encodings.get();
+        ByteArrayOutputStream buffer = encoding.buffer;
+        // The array is kept so it only grows to the largest record.
+        buffer.reset();
+        int id = pinnedSchema.getId();
+        if (id != PinnedSchema.UNRESOLVED) {
+            buffer.write(CONFLUENT_MAGIC_BYTE);
+            writeBigEndian(buffer, id);
+        } else {
+            buffer.write(SINGLE_OBJECT_MAGIC, 0, SINGLE_OBJECT_MAGIC.length);
+            writeLittleEndian(buffer, pinnedSchema.getFingerprint());
+        }
+        try {
+            encoding.encoder = EncoderFactory.get().binaryEncoder(buffer, encoding.encoder);
+            writer.write(data, encoding.encoder);
+            encoding.encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Unable to serialize a record of " + pinnedSchema.getSubject(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void writeBigEndian(ByteArrayOutputStream buffer, int value) {
+        buffer.write(value >>> 24);
+        buffer.write(value >>> 16);
+        buffer.write(value >>> 8);
+        buffer.write(value);
+    }
+
+    private static void writeLittleEndian(ByteArrayOutputStream buffer, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            buffer.write((int) (value >>> (8 * i)));
+        }
+    }
+
+    private static class Encoding {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private BinaryEncoder encoder;
+    }
+}
@@ -0,0 +1,7 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+/**
+ * The pinned schemas of the keys and the values of the products topic.
+ */
+public record ProductSchemas(PinnedSchema key, PinnedSchema value) {
+}
@@ -0,0 +1,174 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+import com.emeraldhieu.testcontainers.product.config.AvroSerializationProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A resolver of the registry IDs of {@link PinnedSchema}s, so records don't need the registry afterwards.
+ * + The local cache is read first. An entry is keyed by the subject and the schema's fingerprint,
+ *   so a changed schema misses it, and it's only used for the registry it came from.
+ * + Otherwise the schema is registered, which returns the existing ID if it's already there,
+ *   like "KafkaAvroSerializer" does with "auto.register.schemas". The ID is then cached.
+ * + If neither answers, the schema stays unresolved and is tried again every "retry-interval".
+ * Delete the cache when the registry is replaced by one with other IDs.
+ * See https://docs.confluent.io/platform/current/schema-registry/develop/api.html#post--subjects-(string-%20subject)-versions
+ */
+@Slf4j
+public class SchemaIdResolver {
+
+    private static final String CONTENT_TYPE = "application/vnd.schemaregistry.v1+json";
+
+    private final AvroSerializationProperties properties;
+    private final String registryUrl;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<PinnedSchema> pinnedSchemas = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param registryUrl "schema.registry.url" of Kafka's properties. Only the first of a list is used.
+     */
+    public SchemaIdResolver(AvroSerializationProperties properties, String registryUrl, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.registryUrl = registryUrl != null ? registryUrl.split(",")[0].trim() : null;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(properties.getRegistryTimeout())
+            .build();
+    }
+
+    /**
+     * Pin the schema of a subject and try to resolve its ID now.
+     */
+    public PinnedSchema pin(String subject, Schema schema) {
+        PinnedSchema pinnedSchema = new PinnedSchema(subject, schema);
+        resolve(pinnedSchema);
+        pinnedSchemas.add(pinnedSchema);
+        Gauge.builder("product.avro.schema.pinned", pinnedSchema, pinned -> pinned.isResolved() ? 1 : 0)
+            .description("Whether the schema ID is pinned; records are single-object encoded until it is")
+            .tag("subject", subject)
+            .register(meterRegistry);
+        return pinnedSchema;
+    }
+
+    @Scheduled(fixedDelayString = "${application.avro-serialization.retry-interval:PT30S}")
+    public void resolveUnresolved() {
+        for (PinnedSchema pinnedSchema : pinnedSchemas) {
+            if (!pinnedSchema.isResolved()) {
+                resolve(pinnedSchema);
+            }
+        }
+    }
+
+    boolean resolve(PinnedSchema pinnedSchema) {
+        Integer id = readCache(pinnedSchema);
+        String source = "the local cache";
+        if (id == null) {
+            id = register(pinnedSchema);
+            source = "the registry";
+            if (id != null) {
+                writeCache(pinnedSchema, id);
+            }
+        }
+        if (id == null) {
+            log.warn("The schema ID of {} is unknown, its records are single-object encoded until the registry answers",
+                pinnedSchema.getSubject());
+            return false;
+        }
+        pinnedSchema.pin(id);
+        log.info("Pinned schema ID {} of {} from {}", id, pinnedSchema.getSubject(), source);
+        return true;
+    }
+
+    private Integer readCache(PinnedSchema pinnedSchema) {
+        Path file = cacheFile(pinnedSchema);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            CachedSchemaId cached = objectMapper.readValue(file.toFile(), CachedSchemaId.class);
+            return cached.fingerprint() == pinnedSchema.getFingerprint()
+                && Objects.equals(cached.registryUrl(), registryUrl)
+                ? cached.id()
+                : null;
+        } catch (IOException e) {
+            log.warn("Unable to read the cached schema ID {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCache(PinnedSchema pinnedSchema, int id) {
+        Path file = cacheFile(pinnedSchema);
+        try {
+            Files.createDirectories(file.getParent());
+            // Written aside and moved so a crash doesn't leave half a file.
+            Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temporaryFile.toFile(), new CachedSchemaId(registryUrl, pinnedSchema.getSubject(),
+                pinnedSchema.getFingerprint(), id));
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The ID is still pinned, the next startup asks the registry again.
+            log.warn("Unable to cache the schema ID of {}: {}", pinnedSchema.getSubject(), e.getMessage());
+        }
+    }
+
+    private Integer register(PinnedSchema pinnedSchema) {
+        if (registryUrl == null) {
+            return null;
+        }
+        try {
+            String body = objectMapper.writeValueAsString(Map.of("schema", pinnedSchema.getSchema().toString()));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(registryUrl + "/subjects/"
+                    + URLEncoder.encode(pinnedSchema.getSubject(), StandardCharsets.UTF_8) + "/versions"))
+                .timeout(properties.getRegistryTimeout())
+                .header("Content-Type", CONTENT_TYPE)
+                .header("Accept", CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("The registry answered {} to the schema of {}: {}", response.statusCode(),
+                    pinnedSchema.getSubject(), response.body());
+                return null;
+            }
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            return id != null ? id.asInt() : null;
+        } catch (IOException e) {
+            log.warn("Unable to reach the registry for the schema of {}: {}", pinnedSchema.getSubject(), e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Path cacheFile(PinnedSchema pinnedSchema) {
+        return Path.of(properties.getSchemaCacheDirectory(),
+            pinnedSchema.getSubject() + "-" + Long.toHexString(pinnedSchema.getFingerprint()) + ".json");
+    }
+
+    public record CachedSchemaId(String registryUrl, String subject, long fingerprint, int id) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.emeraldhieu.testcontainers.product.bloom;
+
+import com.emeraldhieu.testcontainers.product.config.ProductIdFilterProperties;
+import com.emeraldhieu.testcontainers.product.sharding.ShardDataSources;
+import com.emeraldhieu.testcontainers.product.web.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * A Bloom filter over the external IDs of all products, so a lookup of an ID that doesn't exist is answered
+ * without a query. It's rebuilt from the database at startup and periodically in one streaming pass,
+ * and kept current by the writes of the app:
+ * + An ID is put before the transaction creating it commits, so a created product is never reported absent
+ * + A deleted ID stays in the filter until the next rebuild; its lookups are false positives meanwhile
+ * Until the first rebuild completes, or if the filter is disabled, every ID might exist.
+ * IDs written by other instances or outside the app are only picked up by the rebuild, so a few misses per second
+ * are still let through to the database, and an ID found that way is put into the filter.
+ */
+@Slf4j
+@Component
+public class ProductIdFilter {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final ProductIdFilterProperties properties;
+    private final DataSource dataSource;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+
+    /**
+     * Writes during a rebuild go to both filters. See {@link #put(String)} for the order of reads.
+     */
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    private final TokenBucket missChecks;
+
+    private final Counter rejectedLookups;
+    private final Counter checkedMisses;
+    private final Counter learnedIds;
+    private final Counter falsePositives;
+    private final Timer rebuildTimer;
+
+    public ProductIdFilter(ProductIdFilterProperties properties,
+                           DataSource dataSource,
+                           ObjectProvider<ShardDataSources> shardDataSources,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.shardDataSources = shardDataSources;
+        missChecks = new TokenBucket((int) Math.ceil(properties.getMissChecksPerSecond()),
+            properties.getMissChecksPerSecond(), System.nanoTime());
+        rejectedLookups = Counter.builder("product.id-filter.rejected")
+            .description("Lookups answered as not found without a query")
+            .register(meterRegistry);
+        checkedMisses = Counter.builder("product.id-filter.checked-misses")
+            .description("Misses of the filter let through to the database")
+            .register(meterRegistry);
+        learnedIds = Counter.builder("product.id-filter.learned")
+            .description("IDs the filter missed that were found in the database")
+            .register(meterRegistry);
+        falsePositives = Counter.builder("product.id-filter.false-positives")
+            .description("Lookups the filter let through that found no product")
+            .register(meterRegistry);
+        Gauge.builder("product.id-filter.expected-false-positive-rate", this,
+                filter -> filter.current != null ? filter.current.expectedFalsePositiveRate() : Double.NaN)
+            .description("False-positive rate at the filter's current fill")
+            .register(meterRegistry);
+        rebuildTimer = Timer.builder("product.id-filter.rebuild")
+            .description("Duration of rebuilding the filter from the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return false if no product has the external ID as of the last rebuild and the miss isn't checked
+     */
+    public boolean mightContain(String externalId) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(externalId)) {
+            return true;
+        }
+        if (missChecks.tryAcquire(System.nanoTime()) == 0) {
+            checkedMisses.increment();
+            return true;
+        }
+        rejectedLookups.increment();
+        return false;
+    }
+
+    /**
+     * Record a lookup that found the product, so an ID the filter missed is let through from now on.
+     */
+    public void recordFound(String externalId) {
+        BloomFilter filter = current;
+        if (filter != null && !filter.mightContain(externalId)) {
+            put(externalId);
+            learnedIds.increment();
+        }
+    }
+
+    /**
+     * "building" is read before "current": if the rebuild has already cleared "building",
+     * it has already published the new filter as "current", so the ID can't miss the new filter.
+     */
+    public void put(String externalId) {
+        BloomFilter buildingFilter = building;
+        BloomFilter currentFilter = current;
+        if (currentFilter != null) {
+            currentFilter.put(externalId);
+        }
+        if (buildingFilter != null && buildingFilter != currentFilter) {
+            buildingFilter.put(externalId);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Record a lookup the filter let through that found no product.
+     */
+    public void recordFalsePositive() {
+        if (current != null) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * It runs right after startup, then every "rebuild-interval".
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${application.product-id-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            rebuildTimer.recordCallable(() -> {
+                List<DataSource> sources = sources();
+                long estimatedRows = 0;
+                for (DataSource source : sources) {
+                    estimatedRows += estimateRows(source);
+                }
+                long capacity = Math.max(properties.getMinCapacity(),
+                    (long) (estimatedRows * properties.getCapacityHeadroom()));
+                BloomFilter filter = new BloomFilter(capacity, properties.getFalsePositiveRate());
+                building = filter;
+                // A put that read "building" before it was published went only to the old filter.
+                // Its transaction commits within the settle time, so the load below sees its row.
+                Thread.sleep(properties.getSettleTime().toMillis());
+                long rows = 0;
+                for (DataSource source : sources) {
+                    rows += load(source, filter);
+                }
+                current = filter;
+                building = null;
+                log.info("Rebuilt the product ID filter with {} IDs, {} bits and {} hashes",
+                    rows, filter.getBitCount(), filter.getHashCount());
+                return rows;
+            });
+        } catch (Exception e) {
+            building = null;
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Unable to rebuild the product ID filter", e);
+        }
+    }
+
+    private List<DataSource> sources() {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null) {
+            return List.of(dataSource);
+        }
+        return shards.getNames().stream()
+            .map(shards::get)
+            .toList();
+    }
+
+    /**
+     * The planner's estimate is enough to size the filter and doesn't scan the table.
+     */
+    private static long estimateRows(DataSource source) throws SQLException {
+        try (Connection connection = source.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                 "SELECT greatest(reltuples, 0)::bigint FROM pg_class WHERE oid = 'product'::regclass")) {
+            long rows = resultSet.next() ? resultSet.getLong(1) : 0;
+            connection.commit();
+            return rows;
+        }
+    }
+
+    /**
+     * PgJDBC streams with a cursor only if the fetch size is set and auto-commit is off, which the pool ensures.
+     */
+    private static long load(DataSource source, BloomFilter filter) throws SQLException {
+        long rows = 0;
+        try (Connection connection = source.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setFetchSize(FETCH_SIZE);
+            try (ResultSet resultSet = statement.executeQuery("SELECT external_id FROM product WHERE NOT deleted")) {
+                while (resultSet.next()) {
+                    filter.put(resultSet.getString(1));
+                    rows++;
+                }
+            }
+            connection.commit();
+        }
+        return rows;
+    }
+}
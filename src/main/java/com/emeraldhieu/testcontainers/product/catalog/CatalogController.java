@@ -0,0 +1,61 @@
+package com.emeraldhieu.testcontainers.product.catalog;
+
+import com.emeraldhieu.testcontainers.product.config.CatalogProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Admin endpoints of bulk catalog import and export.
+ * The request body of an import is streamed into COPY rather than read into memory.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CatalogController {
+
+    private final CatalogImporter catalogImporter;
+    private final CatalogExporter catalogExporter;
+    private final CatalogProperties catalogProperties;
+
+    @RequestMapping(
+        method = RequestMethod.POST,
+        value = "/admin/catalog/import",
+        produces = "application/json"
+    )
+    public ResponseEntity<CatalogImportResult> importCatalog(
+        HttpServletRequest request,
+        @RequestParam(value = "format", required = false) CatalogFormat format,
+        @RequestParam(value = "emitEvents", required = false) Boolean emitEvents
+    ) throws IOException {
+        try (InputStream inputStream = request.getInputStream()) {
+            CatalogImportResult result = catalogImporter.importCatalog(inputStream,
+                format != null ? format : catalogProperties.getFormat(),
+                emitEvents != null ? emitEvents : catalogProperties.isEmitEvents());
+            // The products are merged either way, but not every change reached the topic.
+            return ResponseEntity.status(result.getFailedEvents() > 0 ? HttpStatus.BAD_GATEWAY : HttpStatus.OK)
+                .body(result);
+        }
+    }
+
+    @RequestMapping(
+        method = RequestMethod.GET,
+        value = "/admin/catalog/export"
+    )
+    public ResponseEntity<StreamingResponseBody> exportCatalog(
+        @RequestParam(value = "format", required = false) CatalogFormat format
+    ) {
+        CatalogFormat exportFormat = format != null ? format : catalogProperties.getFormat();
+        return ResponseEntity.ok()
+            .contentType(exportFormat.getMediaType())
+            .body(outputStream -> catalogExporter.exportCatalog(outputStream, exportFormat));
+    }
+}
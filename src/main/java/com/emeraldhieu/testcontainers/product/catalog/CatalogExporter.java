@@ -0,0 +1,45 @@
+package com.emeraldhieu.testcontainers.product.catalog;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * An exporter that streams the catalog with "COPY TO STDOUT" in the same columns {@link CatalogImporter} reads,
+ * so an export can be imported as is. Nothing is buffered: rows are written as Postgres sends them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogExporter {
+
+    private final DataSource dataSource;
+
+    /**
+     * @return number of exported rows
+     */
+    public long exportCatalog(OutputStream outputStream, CatalogFormat format) {
+        long start = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            long exportedRows = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyOut(("COPY (SELECT external_id, name, price FROM product WHERE NOT deleted ORDER BY id)"
+                    + " TO STDOUT WITH (%s)").formatted(format.getCopyOptions()), outputStream);
+            // The pool doesn't auto-commit.
+            connection.commit();
+            log.info("Exported {} products in {} ms", exportedRows, System.currentTimeMillis() - start);
+            return exportedRows;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to export the catalog", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the catalog", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.emeraldhieu.testcontainers.product.catalog;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of Postgres COPY.
+ * See https://www.postgresql.org/docs/15/sql-copy.html
+ */
+public enum CatalogFormat {
+
+    /**
+     * CSV with a header line "external_id,name,price".
+     */
+    CSV("FORMAT csv, HEADER true", MediaType.valueOf("text/csv")),
+
+    /**
+     * Postgres' binary COPY format. It's the fastest but only Postgres tools read it.
+     */
+    BINARY("FORMAT binary", MediaType.APPLICATION_OCTET_STREAM);
+
+    private final String copyOptions;
+    private final MediaType mediaType;
+
+    CatalogFormat(String copyOptions, MediaType mediaType) {
+        this.copyOptions = copyOptions;
+        this.mediaType = mediaType;
+    }
+
+    String getCopyOptions() {
+        return copyOptions;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
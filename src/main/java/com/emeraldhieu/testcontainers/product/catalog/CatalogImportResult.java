@@ -0,0 +1,43 @@
+package com.emeraldhieu.testcontainers.product.catalog;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+@Builder(toBuilder = true)
+@Getter
+@Jacksonized
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class CatalogImportResult {
+
+    /**
+     * Rows read from the input.
+     */
+    @JsonProperty("copiedRows")
+    private final long copiedRows;
+
+    /**
+     * Products inserted or updated. Rows with the same external ID are merged into one.
+     */
+    @JsonProperty("mergedRows")
+    private final long mergedRows;
+
+    /**
+     * Events Kafka acknowledged.
+     */
+    @JsonProperty("publishedEvents")
+    private final long publishedEvents;
+
+    /**
+     * Events Kafka didn't take. Their products are merged anyway.
+     */
+    @JsonProperty("failedEvents")
+    private final long failedEvents;
+
+    @JsonProperty("durationMillis")
+    private final long durationMillis;
+}
@@ -0,0 +1,270 @@
+package com.emeraldhieu.testcontainers.product.catalog;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.bloom.ProductIdFilter;
+import com.emeraldhieu.testcontainers.product.config.CatalogProperties;
+import com.emeraldhieu.testcontainers.product.config.KafkaProperties;
+import com.emeraldhieu.testcontainers.product.logic.ProductCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An importer that loads a whole catalog with Postgres COPY rather than row-by-row inserts.
+ * + The input is streamed with "COPY FROM STDIN" into a temporary staging table
+ * + Rows without an external ID get one generated the same way as {@code Product#preInsert}
+ * + The staging table is merged into "product" with one upsert by external ID, the last duplicate wins.
+ *   A deleted product that's imported again is restored.
+ *   "updated_at" is the time each row is written rather than the start of the transaction, which is before the COPY;
+ *   a merge that takes longer than "application.changes.settle-window" can still commit behind a client's token
+ * + Imported external IDs are put into the {@link ProductIdFilter} before the merge commits
+ * + Cached products are evicted after the merge commits
+ * + Optionally, every merged row is published after the merge commits, and those Kafka didn't take are counted
+ * See https://jdbc.postgresql.org/documentation/publicapi/org/postgresql/copy/CopyManager.html
+ */
+@Slf4j
+@Component
+public class CatalogImporter {
+
+    private static final String CREATE_STAGING_TABLE = """
+        CREATE TEMPORARY TABLE product_staging (
+            external_id varchar(32),
+            name varchar(32) NOT NULL,
+            price double precision NOT NULL,
+            line bigserial
+        )""";
+
+    private static final String GENERATE_EXTERNAL_IDS = """
+        UPDATE product_staging
+        SET external_id = replace(gen_random_uuid()::text, '-', '')
+        WHERE external_id IS NULL OR external_id = ''""";
+
+    private static final String MERGE = """
+        INSERT INTO product (external_id, name, price)
+        SELECT DISTINCT ON (external_id) external_id, name, price
+        FROM product_staging
+        ORDER BY external_id, line DESC
+        ON CONFLICT (external_id) DO UPDATE
+        SET name = EXCLUDED.name, price = EXCLUDED.price, deleted = false, updated_at = clock_timestamp(),
+            version = product.version + 1""";
+
+    /**
+     * Keep the merged rows so they can be published after the merge commits.
+     */
+    private static final String MERGE_AND_KEEP = """
+        CREATE TEMPORARY TABLE product_merged AS
+        WITH merged AS (%s RETURNING external_id, name, price)
+        SELECT * FROM merged""".formatted(MERGE);
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    private static final long PROGRESS_BYTES = DataSize.ofMegabytes(64).toBytes();
+
+    private final DataSource dataSource;
+    private final CatalogProperties catalogProperties;
+    private final KafkaProperties kafkaProperties;
+    private final ObjectProvider<ProducerFactory<String, ProductMessage>> producerFactory;
+    private final ProductIdFilter productIdFilter;
+    private final ProductCache productCache;
+    private final AtomicReference<KafkaTemplate<String, ProductMessage>> batchingKafkaTemplate = new AtomicReference<>();
+
+    public CatalogImporter(DataSource dataSource,
+                           CatalogProperties catalogProperties,
+                           KafkaProperties kafkaProperties,
+                           ObjectProvider<ProducerFactory<String, ProductMessage>> producerFactory,
+                           ProductIdFilter productIdFilter,
+                           ProductCache productCache) {
+        this.dataSource = dataSource;
+        this.catalogProperties = catalogProperties;
+        this.kafkaProperties = kafkaProperties;
+        this.producerFactory = producerFactory;
+        this.productIdFilter = productIdFilter;
+        this.productCache = productCache;
+    }
+
+    public CatalogImportResult importCatalog(InputStream inputStream, CatalogFormat format, boolean emitEvents) {
+        long start = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            long copiedRows;
+            long mergedRows;
+            PublishedEvents publishedEvents = new PublishedEvents(0, 0);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+                copiedRows = copyManager.copyIn("COPY product_staging (external_id, name, price) FROM STDIN WITH (%s)"
+                    .formatted(format.getCopyOptions()), new ProgressInputStream(inputStream), COPY_BUFFER_SIZE);
+                log.info("Copied {} rows into the staging table", copiedRows);
+
+                statement.executeUpdate(GENERATE_EXTERNAL_IDS);
+                mergedRows = statement.executeUpdate(emitEvents ? MERGE_AND_KEEP : MERGE);
+                if (productIdFilter.isEnabled()) {
+                    putStagedIds(connection);
+                }
+                // The pool doesn't auto-commit.
+                connection.commit();
+                // The merge may touch any product so the whole region goes.
+                productCache.evictAll();
+                log.info("Merged {} products", mergedRows);
+
+                if (emitEvents) {
+                    publishedEvents = publishMergedRows(connection);
+                }
+            } finally {
+                dropTemporaryTables(connection);
+            }
+            return CatalogImportResult.builder()
+                .copiedRows(copiedRows)
+                .mergedRows(mergedRows)
+                .publishedEvents(publishedEvents.published())
+                .failedEvents(publishedEvents.failed())
+                .durationMillis(System.currentTimeMillis() - start)
+                .build();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to import the catalog", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the catalog", e);
+        }
+    }
+
+    private void putStagedIds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(10_000);
+            try (ResultSet resultSet = statement.executeQuery("SELECT external_id FROM product_staging")) {
+                while (resultSet.next()) {
+                    productIdFilter.put(resultSet.getString(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream the merged rows with a cursor and publish them through a producer tuned for large batches.
+     */
+    private PublishedEvents publishMergedRows(Connection connection) throws SQLException {
+        KafkaTemplate<String, ProductMessage> kafkaTemplate = getBatchingKafkaTemplate();
+        long sentEvents = 0;
+        // Counted in callbacks rather than by keeping a future per row, as there may be millions of rows.
+        LongAdder failedEvents = new LongAdder();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        try (Statement statement = connection.createStatement()) {
+            // A cursor is used only when the fetch size is set and auto-commit is off.
+            statement.setFetchSize(10_000);
+            try (ResultSet resultSet = statement.executeQuery("SELECT external_id, name, price FROM product_merged")) {
+                while (resultSet.next()) {
+                    ProductMessage productMessage = ProductMessage.newBuilder()
+                        .setId(resultSet.getString(1))
+                        .setName(resultSet.getString(2))
+                        .setPrice(resultSet.getDouble(3))
+                        .build();
+                    kafkaTemplate.send(new ProducerRecord<>(kafkaProperties.getTopic(),
+                            productMessage.getId(), productMessage))
+                        .whenComplete((result, e) -> {
+                            if (e != null) {
+                                failedEvents.increment();
+                                firstFailure.compareAndSet(null, e);
+                            }
+                        });
+                    if (++sentEvents % catalogProperties.getProgressInterval() == 0) {
+                        log.info("Sent {} import events", sentEvents);
+                    }
+                }
+            }
+        }
+        // Every record sent before the flush has completed, callbacks included, when it returns.
+        kafkaTemplate.flush();
+        long failed = failedEvents.sum();
+        if (failed > 0) {
+            log.error("Unable to publish {} of {} import events", failed, sentEvents, firstFailure.get());
+        }
+        log.info("Published {} import events", sentEvents - failed);
+        return new PublishedEvents(sentEvents - failed, failed);
+    }
+
+    private record PublishedEvents(long published, long failed) {
+    }
+
+    private KafkaTemplate<String, ProductMessage> getBatchingKafkaTemplate() {
+        return batchingKafkaTemplate.updateAndGet(existing -> {
+            if (existing != null) {
+                return existing;
+            }
+            ProducerFactory<String, ProductMessage> factory = producerFactory.getIfAvailable();
+            if (factory == null) {
+                throw new IllegalStateException("Kafka isn't configured so import events can't be published");
+            }
+            return new KafkaTemplate<>(factory, Map.of(
+                ProducerConfig.BATCH_SIZE_CONFIG, (int) catalogProperties.getEventBatchSize().toBytes(),
+                ProducerConfig.LINGER_MS_CONFIG, catalogProperties.getEventLingerMs()
+            ));
+        });
+    }
+
+    /**
+     * Temporary tables live as long as the session, which outlives this import because connections are pooled.
+     */
+    private void dropTemporaryTables(Connection connection) throws SQLException {
+        connection.rollback();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS product_staging, product_merged");
+        }
+        connection.commit();
+    }
+
+    /**
+     * COPY reports nothing until it ends so progress is logged from the bytes it has read.
+     */
+    private static class ProgressInputStream extends FilterInputStream {
+
+        private long readBytes;
+        private long nextProgress = PROGRESS_BYTES;
+
+        ProgressInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int bytes) {
+            readBytes += bytes;
+            if (readBytes >= nextProgress) {
+                log.info("Copied {} of the catalog", DataSize.ofBytes(readBytes));
+                nextProgress += PROGRESS_BYTES;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.emeraldhieu.testcontainers.product.catalog;
+
+import com.emeraldhieu.testcontainers.product.config.CatalogProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Import or export the catalog from the command line, then exit. For example
+ * "java -jar product.jar --application.catalog.import-file=products.csv --application.catalog.emit-events=true".
+ * Nothing happens if neither file is set. It exits with 1 if some import events couldn't be published.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogRunner implements CommandLineRunner {
+
+    private final CatalogProperties catalogProperties;
+    private final CatalogImporter catalogImporter;
+    private final CatalogExporter catalogExporter;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(String... args) throws Exception {
+        boolean importing = StringUtils.hasText(catalogProperties.getImportFile());
+        boolean exporting = StringUtils.hasText(catalogProperties.getExportFile());
+        if (!importing && !exporting) {
+            return;
+        }
+        boolean failed = false;
+        if (importing) {
+            try (InputStream inputStream = new BufferedInputStream(
+                Files.newInputStream(Paths.get(catalogProperties.getImportFile())))) {
+                CatalogImportResult result = catalogImporter.importCatalog(inputStream,
+                    catalogProperties.getFormat(), catalogProperties.isEmitEvents());
+                log.info("Imported {}: copiedRows={}, mergedRows={}, publishedEvents={}, failedEvents={}, durationMillis={}",
+                    catalogProperties.getImportFile(), result.getCopiedRows(), result.getMergedRows(),
+                    result.getPublishedEvents(), result.getFailedEvents(), result.getDurationMillis());
+                failed = result.getFailedEvents() > 0;
+            }
+        }
+        if (exporting) {
+            try (OutputStream outputStream = new BufferedOutputStream(
+                Files.newOutputStream(Paths.get(catalogProperties.getExportFile())))) {
+                catalogExporter.exportCatalog(outputStream, catalogProperties.getFormat());
+            }
+        }
+        int exitCode = failed ? 1 : 0;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+}
@@ -0,0 +1,165 @@
+package com.emeraldhieu.testcontainers.product.cdc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A decoder of the "pgoutput" logical replication protocol, version 1.
+ * It keeps the relations announced by the stream and decodes row changes of one table into {@link ProductChange}s.
+ * Columns are sent in their text representation.
+ * See https://www.postgresql.org/docs/15/protocol-logicalrep-message-formats.html
+ */
+class PgOutputDecoder {
+
+    private static final char BEGIN = 'B';
+    private static final char COMMIT = 'C';
+    private static final char RELATION = 'R';
+    private static final char INSERT = 'I';
+    private static final char UPDATE = 'U';
+    private static final char DELETE = 'D';
+
+    private static final char NEW_TUPLE = 'N';
+    private static final char KEY_TUPLE = 'K';
+    private static final char OLD_TUPLE = 'O';
+
+    private static final char NULL_VALUE = 'n';
+    private static final char UNCHANGED_TOAST_VALUE = 'u';
+    private static final char TEXT_VALUE = 't';
+
+    private final String tableName;
+    private final Map<Integer, Relation> relations = new HashMap<>();
+
+    PgOutputDecoder(String tableName) {
+        this.tableName = tableName;
+    }
+
+    Decoded decode(ByteBuffer buffer) {
+        char type = (char) buffer.get();
+        return switch (type) {
+            case BEGIN -> Decoded.of(Decoded.Type.BEGIN);
+            case COMMIT -> Decoded.of(Decoded.Type.COMMIT);
+            case RELATION -> {
+                decodeRelation(buffer);
+                yield Decoded.of(Decoded.Type.OTHER);
+            }
+            case INSERT -> decodeInsert(buffer);
+            case UPDATE -> decodeUpdate(buffer);
+            case DELETE -> decodeDelete(buffer);
+            // Origin, Type, Truncate and logical decoding messages aren't needed.
+            default -> Decoded.of(Decoded.Type.OTHER);
+        };
+    }
+
+    private void decodeRelation(ByteBuffer buffer) {
+        int relationId = buffer.getInt();
+        String namespace = readString(buffer);
+        String name = readString(buffer);
+        buffer.get(); // Replica identity setting
+        short columnCount = buffer.getShort();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            buffer.get(); // Flags
+            columns.add(readString(buffer));
+            buffer.getInt(); // Type OID
+            buffer.getInt(); // Type modifier
+        }
+        relations.put(relationId, new Relation(namespace, name, columns));
+    }
+
+    private Decoded decodeInsert(ByteBuffer buffer) {
+        Relation relation = relations.get(buffer.getInt());
+        buffer.get(); // 'N'
+        Map<String, String> row = readTuple(buffer, relation);
+        return toChange(relation, row, false);
+    }
+
+    private Decoded decodeUpdate(ByteBuffer buffer) {
+        Relation relation = relations.get(buffer.getInt());
+        char tupleType = (char) buffer.get();
+        if (tupleType == KEY_TUPLE || tupleType == OLD_TUPLE) {
+            readTuple(buffer, relation);
+            tupleType = (char) buffer.get();
+        }
+        if (tupleType != NEW_TUPLE) {
+            throw new IllegalStateException("Unexpected tuple type " + tupleType + " in update message");
+        }
+        Map<String, String> row = readTuple(buffer, relation);
+        return toChange(relation, row, false);
+    }
+
+    /**
+     * The old row carries "external_id" only if the table's replica identity is FULL.
+     */
+    private Decoded decodeDelete(ByteBuffer buffer) {
+        Relation relation = relations.get(buffer.getInt());
+        buffer.get(); // 'K' or 'O'
+        Map<String, String> row = readTuple(buffer, relation);
+        return toChange(relation, row, true);
+    }
+
+    private Decoded toChange(Relation relation, Map<String, String> row, boolean deleted) {
+        if (relation == null || !tableName.equals(relation.name())) {
+            return Decoded.of(Decoded.Type.OTHER);
+        }
+        String externalId = row.get("external_id");
+        if (externalId == null) {
+            throw new IllegalStateException("Column external_id is missing, is the replica identity of "
+                + relation.namespace() + "." + relation.name() + " FULL?");
+        }
+        String price = row.get("price");
+        // A soft delete is an update that sets "deleted".
+        deleted = deleted || "t".equals(row.get("deleted"));
+        ProductChange change = deleted
+            ? new ProductChange(externalId, null, null, true)
+            : new ProductChange(externalId, row.get("name"), price != null ? Double.valueOf(price) : null, false);
+        return new Decoded(Decoded.Type.CHANGE, change);
+    }
+
+    private Map<String, String> readTuple(ByteBuffer buffer, Relation relation) {
+        short columnCount = buffer.getShort();
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            char kind = (char) buffer.get();
+            String value = null;
+            if (kind == TEXT_VALUE) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            } else if (kind != NULL_VALUE && kind != UNCHANGED_TOAST_VALUE) {
+                throw new IllegalStateException("Unsupported column kind " + kind);
+            }
+            if (relation != null && value != null) {
+                row.put(relation.columns().get(i), value);
+            }
+        }
+        return row;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // Strings are null-terminated.
+        }
+        byte[] bytes = new byte[buffer.position() - start - 1];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Relation(String namespace, String name, List<String> columns) {
+    }
+
+    record Decoded(Type type, ProductChange change) {
+
+        static Decoded of(Type type) {
+            return new Decoded(type, null);
+        }
+
+        enum Type {
+            BEGIN, COMMIT, CHANGE, OTHER
+        }
+    }
+}
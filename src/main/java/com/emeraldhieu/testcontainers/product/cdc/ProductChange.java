@@ -0,0 +1,12 @@
+package com.emeraldhieu.testcontainers.product.cdc;
+
+/**
+ * A row change of the table "product" decoded from the replication stream.
+ *
+ * @param externalId the external ID of the product
+ * @param name       null if the row was deleted
+ * @param price      null if the row was deleted
+ * @param deleted    true if the row was deleted
+ */
+public record ProductChange(String externalId, String name, Double price, boolean deleted) {
+}
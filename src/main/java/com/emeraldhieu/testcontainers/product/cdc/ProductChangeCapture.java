@@ -0,0 +1,288 @@
+package com.emeraldhieu.testcontainers.product.cdc;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.CdcProperties;
+import com.emeraldhieu.testcontainers.product.config.KafkaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change data capture of the table "product".
+ * It streams the table's changes from a Postgres logical replication slot with the "pgoutput" plugin
+ * and publishes them to the products topic, keyed by external ID:
+ * + An insert or update is published as a {@link ProductMessage}
+ * + A delete is published as a tombstone
+ * ---
+ * Publishing is off the request path and covers writes made outside the app.
+ * Changes are sent in batches at transaction boundaries and the slot is confirmed only after Kafka acknowledges them,
+ * so delivery is at-least-once: after a failure the stream restarts from the last confirmed transaction.
+ * See https://jdbc.postgresql.org/documentation/server-prepare/#logical-replication
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.cdc", name = "enabled")
+public class ProductChangeCapture implements SmartLifecycle {
+
+    private static final String TABLE_NAME = "product";
+
+    private final CdcProperties cdcProperties;
+    private final KafkaProperties kafkaProperties;
+    private final DataSourceProperties dataSourceProperties;
+    private final DataSource dataSource;
+    private final KafkaTemplate<String, ProductMessage> kafkaTemplate;
+
+    private final Counter capturedChanges;
+    private final AtomicLong slotLagBytes = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread streamingThread;
+
+    public ProductChangeCapture(CdcProperties cdcProperties,
+                                KafkaProperties kafkaProperties,
+                                DataSourceProperties dataSourceProperties,
+                                DataSource dataSource,
+                                KafkaTemplate<String, ProductMessage> kafkaTemplate,
+                                MeterRegistry meterRegistry) {
+        this.cdcProperties = cdcProperties;
+        this.kafkaProperties = kafkaProperties;
+        this.dataSourceProperties = dataSourceProperties;
+        this.dataSource = dataSource;
+        this.kafkaTemplate = kafkaTemplate;
+        capturedChanges = Counter.builder("product.cdc.changes")
+            .description("Product changes published from the replication slot")
+            .register(meterRegistry);
+        meterRegistry.gauge("product.cdc.slot.lag.bytes", slotLagBytes);
+    }
+
+    @Override
+    public void start() {
+        // The slot is created before startup completes so no write made after startup is missed.
+        try (Connection connection = openReplicationConnection()) {
+            preparePublication();
+            createSlotIfAbsent(connection.unwrap(PGConnection.class));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to prepare logical replication", e);
+        }
+        running = true;
+        streamingThread = new Thread(this::streamUntilStopped, "product-cdc");
+        streamingThread.setDaemon(true);
+        streamingThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (streamingThread != null) {
+            streamingThread.interrupt();
+            try {
+                streamingThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Create the publication and make deletes carry the whole old row so their external ID is known.
+     */
+    private void preparePublication() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT 1 FROM pg_publication WHERE pubname = ?")) {
+                statement.setString(1, cdcProperties.getPublicationName());
+                try (ResultSet resultSet = statement.executeQuery();
+                     Statement ddl = connection.createStatement()) {
+                    if (!resultSet.next()) {
+                        ddl.execute("CREATE PUBLICATION %s FOR TABLE %s"
+                            .formatted(cdcProperties.getPublicationName(), TABLE_NAME));
+                    }
+                    ddl.execute("ALTER TABLE %s REPLICA IDENTITY FULL".formatted(TABLE_NAME));
+                }
+            }
+            // The pool doesn't auto-commit.
+            connection.commit();
+        }
+    }
+
+    private void streamUntilStopped() {
+        while (running) {
+            try (Connection connection = openReplicationConnection()) {
+                stream(connection.unwrap(PGConnection.class));
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Change capture failed, restarting in {}", cdcProperties.getRestartBackoff(), e);
+                try {
+                    Thread.sleep(cdcProperties.getRestartBackoff().toMillis());
+                } catch (InterruptedException interruptedException) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection openReplicationConnection() throws SQLException {
+        Properties properties = new Properties();
+        PGProperty.USER.set(properties, dataSourceProperties.determineUsername());
+        PGProperty.PASSWORD.set(properties, dataSourceProperties.determinePassword());
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, "10");
+        PGProperty.REPLICATION.set(properties, "database");
+        PGProperty.PREFER_QUERY_MODE.set(properties, "simple");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void stream(PGConnection connection) throws Exception {
+        StreamState state = new StreamState(new PgOutputDecoder(TABLE_NAME));
+        try (PGReplicationStream stream = connection.getReplicationAPI()
+            .replicationStream()
+            .logical()
+            .withSlotName(cdcProperties.getSlotName())
+            .withSlotOption("proto_version", 1)
+            .withSlotOption("publication_names", cdcProperties.getPublicationName())
+            .withStatusInterval(10, TimeUnit.SECONDS)
+            .start()) {
+            while (running) {
+                ByteBuffer message = stream.readPending();
+                if (message == null) {
+                    // Idle: send what's complete rather than waiting for a full batch.
+                    if (!state.inTransaction) {
+                        send(stream, state);
+                    }
+                    TimeUnit.MILLISECONDS.sleep(cdcProperties.getPollInterval().toMillis());
+                    continue;
+                }
+                PgOutputDecoder.Decoded decoded = state.decoder.decode(message);
+                switch (decoded.type()) {
+                    case BEGIN -> state.inTransaction = true;
+                    case CHANGE -> state.pendingChanges.add(decoded.change());
+                    case COMMIT -> {
+                        state.inTransaction = false;
+                        state.committedLsn = stream.getLastReceiveLSN();
+                        if (state.pendingChanges.size() >= cdcProperties.getBatchSize()) {
+                            send(stream, state);
+                        }
+                    }
+                    default -> {
+                        // Nothing to do
+                    }
+                }
+            }
+        }
+    }
+
+    private void createSlotIfAbsent(PGConnection connection) throws SQLException {
+        try (Connection regularConnection = dataSource.getConnection();
+             PreparedStatement statement = regularConnection.prepareStatement(
+                 "SELECT 1 FROM pg_replication_slots WHERE slot_name = ?")) {
+            statement.setString(1, cdcProperties.getSlotName());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return;
+                }
+            }
+        }
+        connection.getReplicationAPI()
+            .createReplicationSlot()
+            .logical()
+            .withSlotName(cdcProperties.getSlotName())
+            .withOutputPlugin("pgoutput")
+            .make();
+        log.info("Created replication slot {}", cdcProperties.getSlotName());
+    }
+
+    /**
+     * Send the pending changes of committed transactions and confirm them to the slot once Kafka has them.
+     */
+    private void send(PGReplicationStream stream, StreamState state) throws Exception {
+        if (state.committedLsn == null) {
+            return;
+        }
+        List<CompletableFuture<?>> futures = new ArrayList<>(state.pendingChanges.size());
+        for (ProductChange change : state.pendingChanges) {
+            ProductMessage productMessage = change.deleted()
+                ? null
+                : ProductMessage.newBuilder()
+                    .setId(change.externalId())
+                    .setName(change.name())
+                    .setPrice(change.price())
+                    .build();
+            futures.add(kafkaTemplate.send(new ProducerRecord<>(kafkaProperties.getTopic(),
+                change.externalId(), productMessage)));
+        }
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .get(cdcProperties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        capturedChanges.increment(state.pendingChanges.size());
+        state.pendingChanges.clear();
+
+        stream.setAppliedLSN(state.committedLsn);
+        stream.setFlushedLSN(state.committedLsn);
+        stream.forceUpdateStatus();
+        state.committedLsn = null;
+    }
+
+    /**
+     * Read how many bytes of WAL the slot hasn't confirmed yet.
+     */
+    @Scheduled(fixedDelayString = "${application.cdc.lag-refresh-interval:PT10S}")
+    public void refreshSlotLag() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), confirmed_flush_lsn)"
+                     + " FROM pg_replication_slots WHERE slot_name = ?")) {
+            statement.setString(1, cdcProperties.getSlotName());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    slotLagBytes.set(resultSet.getLong(1));
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to read the lag of slot {}: {}", cdcProperties.getSlotName(), e.getMessage());
+        }
+    }
+
+    private static class StreamState {
+
+        private final PgOutputDecoder decoder;
+        private final List<ProductChange> pendingChanges = new ArrayList<>();
+        private boolean inTransaction;
+        private LogSequenceNumber committedLsn;
+
+        StreamState(PgOutputDecoder decoder) {
+            this.decoder = decoder;
+        }
+    }
+}
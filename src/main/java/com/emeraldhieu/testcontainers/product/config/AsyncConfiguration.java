@@ -0,0 +1,48 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.web.HandlerExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Asynchronous handlers return a {@code CompletableFuture} that runs on the {@link HandlerExecutor}.
+ * A request that times out gets 503 from Spring MVC's handling of {@code AsyncRequestTimeoutException}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfiguration implements WebMvcConfigurer {
+
+    private final AsyncProperties asyncProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Bean
+    public HandlerExecutor handlerExecutor() {
+        return new HandlerExecutor(asyncProperties, meterRegistry);
+    }
+
+    /**
+     * A {@code CompletableFuture} is adapted to a {@link DeferredResult} so its timeouts go through the interceptor.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncProperties.getTimeout().toMillis());
+        Counter timedOutRequests = Counter.builder("product.async.timeouts")
+            .description("Asynchronous requests that timed out")
+            .register(meterRegistry);
+        configurer.registerDeferredResultInterceptors(new DeferredResultProcessingInterceptor() {
+            @Override
+            public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> deferredResult) {
+                timedOutRequests.increment();
+                return true;
+            }
+        });
+    }
+}
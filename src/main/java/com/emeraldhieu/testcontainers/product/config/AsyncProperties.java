@@ -0,0 +1,33 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of the executor that runs the work of asynchronous handlers.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.async")
+@Data
+public class AsyncProperties {
+
+    /**
+     * Threads of the executor. Work beyond them waits in the queue.
+     * More threads than database connections only adds waiting for a connection.
+     */
+    private int poolSize = 32;
+
+    /**
+     * Work submitted when the queue is full is rejected with 503.
+     */
+    private int queueCapacity = 500;
+
+    /**
+     * A request whose work hasn't completed by then gets 503.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,63 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.avro.PinnedSchemaAvroSerializer;
+import com.emeraldhieu.testcontainers.product.avro.ProductSchemas;
+import com.emeraldhieu.testcontainers.product.avro.SchemaIdResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+/**
+ * Serialize product messages with their schema IDs pinned at startup rather than through the registry.
+ * Spring Boot's producer factory gets {@link PinnedSchemaAvroSerializer}s instead of the serializers
+ * of "spring.kafka.producer", so it must only send to the products topic, which is all the app does.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.avro-serialization", name = "mode", havingValue = "PINNED")
+public class AvroSerializationConfiguration {
+
+    private static final String SCHEMA_REGISTRY_URL = "schema.registry.url";
+
+    private final AvroSerializationProperties avroSerializationProperties;
+    private final KafkaProperties kafkaProperties;
+
+    @Bean
+    public SchemaIdResolver schemaIdResolver(
+        org.springframework.boot.autoconfigure.kafka.KafkaProperties springKafkaProperties,
+        MeterRegistry meterRegistry
+    ) {
+        return new SchemaIdResolver(avroSerializationProperties,
+            springKafkaProperties.getProperties().get(SCHEMA_REGISTRY_URL), meterRegistry);
+    }
+
+    /**
+     * The subjects are those of "TopicNameStrategy", the default of Confluent's serializers,
+     * so the IDs are the ones they would use.
+     */
+    @Bean
+    public ProductSchemas productSchemas(SchemaIdResolver schemaIdResolver) {
+        String topic = kafkaProperties.getTopic();
+        return new ProductSchemas(
+            schemaIdResolver.pin(topic + "-key", Schema.create(Schema.Type.STRING)),
+            schemaIdResolver.pin(topic + "-value", ProductMessage.getClassSchema())
+        );
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer pinnedAvroSerializerCustomizer(ProductSchemas productSchemas) {
+        return producerFactory -> {
+            DefaultKafkaProducerFactory<Object, Object> factory =
+                (DefaultKafkaProducerFactory<Object, Object>) producerFactory;
+            factory.setKeySerializer(new PinnedSchemaAvroSerializer(productSchemas.key()));
+            factory.setValueSerializer(new PinnedSchemaAvroSerializer(productSchemas.value()));
+        };
+    }
+}
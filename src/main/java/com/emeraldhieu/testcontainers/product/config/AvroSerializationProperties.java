@@ -0,0 +1,44 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of how product messages are serialized for Kafka.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.avro-serialization")
+@Data
+public class AvroSerializationProperties {
+    private Mode mode = Mode.REGISTRY;
+
+    /**
+     * Where resolved schema IDs are kept so a restart doesn't need the registry.
+     */
+    private String schemaCacheDirectory = "schema-cache";
+
+    private Duration registryTimeout = Duration.ofSeconds(2);
+
+    /**
+     * How often a schema the registry couldn't resolve at startup is tried again.
+     * It's read by {@code @Scheduled} so it's an ISO-8601 duration.
+     */
+    private Duration retryInterval = Duration.ofSeconds(30);
+
+    public enum Mode {
+        /**
+         * Confluent's serializer, which looks the schema up in the registry.
+         */
+        REGISTRY,
+
+        /**
+         * The schema ID is resolved once at startup and pinned.
+         * Until it's resolved, messages are written with Avro single-object encoding.
+         */
+        PINNED
+    }
+}
@@ -0,0 +1,22 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * Properties of "PATCH /products:batch".
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.batch-update")
+@Data
+public class BatchUpdateProperties {
+
+    /**
+     * Products updated by one statement in one transaction. Bigger chunks hold their row locks longer.
+     */
+    private int chunkSize = 1000;
+
+    private int maxItems = 100_000;
+}
@@ -0,0 +1,45 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.catalog.CatalogFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Properties of bulk catalog import and export.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.catalog")
+@Data
+public class CatalogProperties {
+    /**
+     * A file to import at startup, after which the app exits. For example "--application.catalog.import-file=products.csv".
+     */
+    private String importFile;
+
+    /**
+     * A file to export to at startup, after which the app exits.
+     */
+    private String exportFile;
+
+    private CatalogFormat format = CatalogFormat.CSV;
+
+    /**
+     * Publish a product message for every imported row.
+     */
+    private boolean emitEvents;
+
+    /**
+     * Progress is logged every time this many rows are published.
+     */
+    private int progressInterval = 100_000;
+
+    /**
+     * Producer batch size of import events, much larger than the default 16KB.
+     */
+    private DataSize eventBatchSize = DataSize.ofMegabytes(1);
+
+    private int eventLingerMs = 50;
+}
@@ -0,0 +1,42 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of change data capture from Postgres logical replication.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.cdc")
+@Data
+public class CdcProperties {
+    /**
+     * Publish product changes from the replication slot instead of from the request path.
+     * The database user needs the REPLICATION attribute and the server needs "wal_level=logical".
+     */
+    private boolean enabled;
+
+    private String slotName = "product_slot";
+
+    private String publicationName = "product_publication";
+
+    /**
+     * Changes are sent once this many are pending or the stream is idle.
+     */
+    private int batchSize = 500;
+
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    private Duration restartBackoff = Duration.ofSeconds(5);
+
+    /**
+     * How often the slot lag is read. It's an ISO-8601 duration because it's read by {@code @Scheduled}.
+     */
+    private Duration lagRefreshInterval = Duration.ofSeconds(10);
+}
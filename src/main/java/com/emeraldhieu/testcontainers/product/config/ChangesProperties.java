@@ -0,0 +1,25 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of "GET /products/changes".
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.changes")
+@Data
+public class ChangesProperties {
+    /**
+     * Changes younger than this aren't returned yet.
+     * "updated_at" is set before its transaction commits, so a transaction that commits late would otherwise
+     * land behind a watermark a client has already passed. It must be longer than the longest write transaction.
+     */
+    private Duration settleWindow = Duration.ofSeconds(5);
+
+    private int maxLimit = 1000;
+}
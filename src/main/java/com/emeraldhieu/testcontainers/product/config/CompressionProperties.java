@@ -0,0 +1,23 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Properties of request decompression.
+ * Response compression is configured by Spring Boot's "server.compression".
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.compression.request")
+@Data
+public class CompressionProperties {
+    private boolean enabled = true;
+
+    /**
+     * Reject bodies that inflate beyond this size to guard against zip bombs.
+     */
+    private DataSize maxInflatedSize = DataSize.ofMegabytes(10);
+}
@@ -1,13 +1,138 @@
 package com.emeraldhieu.testcontainers.product.config;
 
+import com.emeraldhieu.testcontainers.product.logic.Product;
 import com.emeraldhieu.testcontainers.product.logic.ProductRepository;
+import com.emeraldhieu.testcontainers.product.sharding.ShardDataSources;
+import com.emeraldhieu.testcontainers.product.sharding.ShardRing;
+import com.emeraldhieu.testcontainers.product.sharding.ShardRouter;
+import com.emeraldhieu.testcontainers.product.sharding.ShardRoutingDataSource;
+import com.emeraldhieu.testcontainers.product.sharding.ShardedLiquibase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
 @Configuration
 @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
 @EnableTransactionManagement
+@RequiredArgsConstructor
 public class DatabaseConfiguration {
 
+    private final ShardingProperties shardingProperties;
+
+    /**
+     * Sharding replaces the auto-configured data source and Liquibase, which back off when these beans exist.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.sharding", name = "enabled")
+    public ShardDataSources shardDataSources() {
+        return new ShardDataSources(shardingProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.sharding", name = "enabled")
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new ShardRoutingDataSource(shardDataSources);
+    }
+
+    /**
+     * "spring.liquibase" isn't bound once the auto-configuration backs off so it's bound here.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.sharding", name = "enabled")
+    public ShardedLiquibase liquibase(ShardDataSources shardDataSources, Environment environment) {
+        LiquibaseProperties liquibaseProperties = Binder.get(environment)
+            .bind("spring.liquibase", LiquibaseProperties.class)
+            .orElseGet(LiquibaseProperties::new);
+        ShardedLiquibase liquibase = new ShardedLiquibase(shardDataSources);
+        liquibase.setChangeLog(liquibaseProperties.getChangeLog());
+        liquibase.setDropFirst(liquibaseProperties.isDropFirst());
+        liquibase.setClearCheckSums(liquibaseProperties.isClearChecksums());
+        liquibase.setShouldRun(liquibaseProperties.isEnabled());
+        return liquibase;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.sharding", name = "enabled")
+    public ShardRouter shardRouter(ShardDataSources shardDataSources) {
+        List<String> previousShards = shardingProperties.getPreviousShards();
+        if (!shardDataSources.getNames().containsAll(previousShards)) {
+            throw new IllegalArgumentException("Previous shards %s must still be configured".formatted(previousShards));
+        }
+        ShardRing ring = new ShardRing(shardDataSources.getNames(), shardingProperties.getVirtualNodes());
+        ShardRing previousRing = previousShards.isEmpty()
+            ? null
+            : new ShardRing(previousShards, shardingProperties.getVirtualNodes());
+        return new ShardRouter(ring, previousRing);
+    }
+
+    /**
+     * The regions of the second-level cache are created here so their sizes and expiry come from the properties.
+     * Every context gets its own cache manager, named uniquely, because the provider shares managers by name.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "application.second-level-cache", name = "enabled")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties secondLevelCacheProperties) {
+        CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+            .getCacheManager(URI.create("urn:product:second-level-cache:" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        Duration timeToLive = secondLevelCacheProperties.getTimeToLive();
+        cacheManager.createCache(Product.CACHE_REGION,
+            regionConfiguration(secondLevelCacheProperties.getEntityCapacity(), timeToLive));
+        cacheManager.createCache(Product.NATURAL_ID_CACHE_REGION,
+            regionConfiguration(secondLevelCacheProperties.getNaturalIdCapacity(), timeToLive));
+        return cacheManager;
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> regionConfiguration(long capacity,
+                                                                                               Duration timeToLive) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(capacity))
+            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive)));
+    }
+
+    /**
+     * Statistics are generated so Spring Boot exports them, per cache region, as "hibernate.*" metrics.
+     * A sharded catalog isn't cached: products of different shards can have the same ID.
+     * See https://docs.jboss.org/hibernate/orm/6.1/userguide/html_single/Hibernate_User_Guide.html#caching
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.second-level-cache", name = "enabled")
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            if (shardingProperties.isEnabled()) {
+                log.warn("The second-level cache is disabled because the catalog is sharded");
+                return;
+            }
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            // Regions are all created above so a missing one is a mistake.
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
 }
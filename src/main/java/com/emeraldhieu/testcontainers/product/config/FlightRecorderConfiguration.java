@@ -0,0 +1,20 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.web.ProductRequestEventInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Requests to "/products" are recorded as flight recorder events when a recording enables them.
+ */
+@Configuration
+public class FlightRecorderConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // "/products*" also matches "/products:batch".
+        registry.addInterceptor(new ProductRequestEventInterceptor())
+            .addPathPatterns("/products*", "/products/**");
+    }
+}
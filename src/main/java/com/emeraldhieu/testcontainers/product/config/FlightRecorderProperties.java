@@ -0,0 +1,49 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Properties of Java Flight Recorder recordings and the product events they record.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.flight-recorder")
+@Data
+public class FlightRecorderProperties {
+
+    /**
+     * Keep a recording running from startup so the minutes before an outlier can be dumped.
+     */
+    private boolean continuous;
+
+    /**
+     * A configuration of the JDK: "default" costs about 1% of CPU, "profile" samples more and costs about 2%.
+     */
+    private String settings = "default";
+
+    /**
+     * How much of the continuous recording is kept.
+     */
+    private Duration maxAge = Duration.ofMinutes(15);
+
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Requests, service operations and Kafka sends shorter than their threshold aren't recorded.
+     */
+    private Duration requestThreshold = Duration.ofMillis(100);
+
+    private Duration operationThreshold = Duration.ofMillis(50);
+
+    private Duration messageSendThreshold = Duration.ofMillis(50);
+
+    /**
+     * Where recordings are dumped.
+     */
+    private String dumpDirectory = System.getProperty("java.io.tmpdir");
+}
@@ -0,0 +1,37 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of the "Idempotency-Key" header of "POST /products".
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    /**
+     * How long a key is remembered. A retry after that creates another product.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How often expired keys are deleted. It's read by {@code @Scheduled} so it's an ISO-8601 duration.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+
+    /**
+     * Responses kept in memory so replays don't query the database.
+     */
+    private int memoryCapacity = 10_000;
+
+    /**
+     * How long a duplicate waits for the first request with its key before getting 409.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+}
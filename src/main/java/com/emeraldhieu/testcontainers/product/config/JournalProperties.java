@@ -0,0 +1,62 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Properties of the local journal that keeps product messages Kafka couldn't take.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.kafka.journal")
+@Data
+public class JournalProperties {
+    private boolean enabled;
+
+    private String directory = "journal";
+
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Messages are dropped and counted once the bytes written to the journal reach this size.
+     */
+    private DataSize maxSize = DataSize.ofGigabytes(1);
+
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+
+    /**
+     * How often the journal is forced to disk with {@link FsyncPolicy#INTERVAL}.
+     * It's read by {@code @Scheduled} so it's an ISO-8601 duration.
+     */
+    private Duration fsyncInterval = Duration.ofSeconds(1);
+
+    /**
+     * How often journaled messages are replayed.
+     */
+    private Duration replayInterval = Duration.ofSeconds(5);
+
+    private int replayBatchSize = 500;
+
+    private Duration replaySendTimeout = Duration.ofSeconds(30);
+
+    public enum FsyncPolicy {
+        /**
+         * Force every append to disk. Survives an OS crash but costs a disk flush per message.
+         */
+        ALWAYS,
+
+        /**
+         * Force periodically. Survives a process crash; an OS crash loses at most one interval.
+         */
+        INTERVAL,
+
+        /**
+         * Leave flushing to the OS.
+         */
+        NEVER
+    }
+}
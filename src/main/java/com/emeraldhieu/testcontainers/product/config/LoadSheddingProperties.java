@@ -0,0 +1,44 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of the adaptive concurrency limit in front of the product API.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.load-shedding")
+@Data
+public class LoadSheddingProperties {
+    private boolean enabled;
+
+    private int initialLimit = 50;
+    private int minLimit = 5;
+    private int maxLimit = 200;
+
+    /**
+     * The limit shrinks when the p99 latency of a window exceeds this.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * The limit shrinks when more threads than this wait for a Hikari connection.
+     */
+    private int maxThreadsAwaitingConnection = 5;
+
+    /**
+     * The number of requests sampled before the limit is recalculated.
+     */
+    private int windowSize = 200;
+
+    /**
+     * The factor the limit is multiplied by when the service is overloaded.
+     */
+    private double backoffRatio = 0.9;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
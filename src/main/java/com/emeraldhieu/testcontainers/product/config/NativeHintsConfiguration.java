@@ -0,0 +1,100 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.ProductRequestMessage;
+import com.emeraldhieu.testcontainers.product.avro.SchemaIdResolver;
+import com.emeraldhieu.testcontainers.product.catalog.CatalogImportResult;
+import com.emeraldhieu.testcontainers.product.jfr.FlightRecordings;
+import com.emeraldhieu.testcontainers.product.logic.ProductChangeResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductChangeView;
+import com.emeraldhieu.testcontainers.product.logic.ProductChangesResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductUpdateRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductUpdateResult;
+import com.emeraldhieu.testcontainers.product.logic.ProductView;
+import com.emeraldhieu.testcontainers.product.sharding.RebalanceResult;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hints of what a native image can't find by static analysis.
+ * Spring's AOT processing already covers beans, including the MapStruct mappers since they're plain
+ * {@code @Component}s, and JPA entities. Hibernate and Liquibase's own reflection comes from the
+ * GraalVM reachability metadata repository, see "graalvmNative" in build.gradle.
+ * See https://docs.spring.io/spring-boot/docs/3.0.0/reference/html/native-image.html#native-image.advanced.custom-hints
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfiguration.ProductRuntimeHints.class)
+public class NativeHintsConfiguration {
+
+    static class ProductRuntimeHints implements RuntimeHintsRegistrar {
+
+        /**
+         * Kafka instantiates serializers by class name, and the schema registry client maps its REST entities
+         * with Jackson. The serializer is a runtime-only dependency so classes are referenced by name.
+         */
+        private static final List<String> CONFLUENT_TYPES = List.of(
+            "io.confluent.kafka.serializers.KafkaAvroSerializer",
+            "io.confluent.kafka.serializers.KafkaAvroDeserializer",
+            "io.confluent.kafka.serializers.subject.TopicNameStrategy",
+            "io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider",
+            "io.confluent.kafka.schemaregistry.client.rest.entities.ErrorMessage",
+            "io.confluent.kafka.schemaregistry.client.rest.entities.Schema",
+            "io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference",
+            "io.confluent.kafka.schemaregistry.client.rest.entities.SchemaString",
+            "io.confluent.kafka.schemaregistry.client.rest.entities.requests.RegisterSchemaRequest",
+            "io.confluent.kafka.schemaregistry.client.rest.entities.requests.RegisterSchemaResponse"
+        );
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // DTOs built by Jackson through their Lombok builders (@Jacksonized).
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                ProductRequest.class, ProductResponse.class, ProductChangeResponse.class,
+                ProductChangesResponse.class, ProductUpdateRequest.class, ProductUpdateResult.class,
+                CatalogImportResult.class, RebalanceResult.class);
+            Stream.of(ProductRequest.class, ProductResponse.class, ProductChangeResponse.class,
+                    ProductChangesResponse.class, ProductUpdateRequest.class, ProductUpdateResult.class,
+                    CatalogImportResult.class, RebalanceResult.class)
+                .forEach(type -> hints.reflection().registerType(
+                    TypeReference.of(type.getName() + "$" + type.getSimpleName() + "Builder"),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS));
+
+            // Flight recordings listed by the "jfr" endpoint.
+            bindingRegistrar.registerReflectionHints(hints.reflection(), FlightRecordings.RecordingInfo.class);
+
+            // Schema IDs cached by the pinned Avro serialization.
+            bindingRegistrar.registerReflectionHints(hints.reflection(), SchemaIdResolver.CachedSchemaId.class);
+
+            // Hibernate instantiates the projections of JPQL constructor expressions reflectively.
+            Stream.of(ProductView.class, ProductChangeView.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+
+            // Avro reads "SCHEMA$" and creates specific records reflectively when deserializing.
+            Stream.of(ProductMessage.class, ProductRequestMessage.class,
+                    ProductMessage.Builder.class, ProductRequestMessage.Builder.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.values()));
+
+            CONFLUENT_TYPES.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS));
+
+            // Changelogs are listed in "liquibase/master.yml" because a native image can't list directories.
+            hints.resources().registerPattern("liquibase/*.yml");
+            hints.resources().registerPattern("liquibase/changelogs/*");
+            hints.resources().registerPattern("liquibase/data/*.csv");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.avro.PinnedSchema;
+import com.emeraldhieu.testcontainers.product.avro.PinnedSchemaAvroDeserializer;
+import com.emeraldhieu.testcontainers.product.avro.ProductSchemas;
+import com.emeraldhieu.testcontainers.product.consumer.ParallelProductConsumer;
+import com.emeraldhieu.testcontainers.product.consumer.ProductMessageHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.Map;
+
+/**
+ * The container of the {@link ParallelProductConsumer}.
+ * It has its own consumer factory because the app's Kafka configuration only produces.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.product-consumer", name = "enabled")
+public class ProductConsumerConfiguration {
+
+    private static final String AVRO_DESERIALIZER = "io.confluent.kafka.serializers.KafkaAvroDeserializer";
+
+    private final ProductConsumerProperties productConsumerProperties;
+
+    /**
+     * The batch is committed after the listener returns.
+     * When it throws at a record, the offsets before the record are committed and the rest is retried
+     * a few times before the record is logged and skipped.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, ProductMessage> productBatchListenerContainerFactory(
+        org.springframework.boot.autoconfigure.kafka.KafkaProperties springKafkaProperties,
+        ObjectProvider<ProductSchemas> productSchemas
+    ) {
+        Map<String, Object> configs = springKafkaProperties.buildConsumerProperties();
+        configs.put(ConsumerConfig.GROUP_ID_CONFIG, productConsumerProperties.getGroupId());
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, productConsumerProperties.getMaxPollRecords());
+        configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configs.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, AVRO_DESERIALIZER);
+        configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, AVRO_DESERIALIZER);
+        // Deserialize to the generated Avro class rather than a GenericRecord type
+        configs.put("specific.avro.reader", true);
+
+        ProductSchemas schemas = productSchemas.getIfAvailable();
+        DefaultKafkaConsumerFactory<Object, ProductMessage> consumerFactory = schemas != null
+            ? new DefaultKafkaConsumerFactory<>(configs, pinnedDeserializer(schemas.key()),
+                pinnedDeserializer(schemas.value()))
+            : new DefaultKafkaConsumerFactory<>(configs);
+
+        ConcurrentKafkaListenerContainerFactory<Object, ProductMessage> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(productConsumerProperties.getConcurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(1000, 9)));
+        return factory;
+    }
+
+    /**
+     * With pinned Avro serialization, records may be single-object encoded, which Confluent's deserializer can't read.
+     * It still reads records of other schema IDs. The factory configures both.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Deserializer<T> pinnedDeserializer(PinnedSchema pinnedSchema) {
+        Deserializer<Object> registryDeserializer = (Deserializer<Object>) BeanUtils.instantiateClass(
+            ClassUtils.resolveClassName(AVRO_DESERIALIZER, ProductConsumerConfiguration.class.getClassLoader()));
+        return (Deserializer<T>) new PinnedSchemaAvroDeserializer(pinnedSchema, registryDeserializer);
+    }
+
+    /**
+     * Replaced by an indexer's own handler.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ProductMessageHandler productMessageHandler() {
+        return (id, productMessage) -> log.debug("Consumed product {}", id);
+    }
+}
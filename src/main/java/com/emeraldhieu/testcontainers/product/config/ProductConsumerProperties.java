@@ -0,0 +1,31 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * Properties of the consumer of the products topic.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.product-consumer")
+@Data
+public class ProductConsumerProperties {
+
+    private boolean enabled;
+
+    private String groupId = "product-indexer";
+
+    /**
+     * Kafka consumers, each polling its own partitions. Consumers beyond the partitions sit idle.
+     */
+    private int concurrency = 2;
+
+    /**
+     * Keys of a batch processed at once by each consumer. Records of the same key are processed in order.
+     */
+    private int parallelism = 16;
+
+    private int maxPollRecords = 500;
+}
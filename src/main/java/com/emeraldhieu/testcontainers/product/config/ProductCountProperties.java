@@ -0,0 +1,46 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of the total count of products that "GET /products" returns on request.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.product-count")
+@Data
+public class ProductCountProperties {
+
+    private Strategy strategy = Strategy.CACHED;
+
+    /**
+     * How often a CACHED count is counted again.
+     * It's read by {@code @Scheduled} so it's an ISO-8601 duration.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * A CACHED count stops being refreshed when it hasn't been requested for this long,
+     * and the next request counts again.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    public enum Strategy {
+        /**
+         * "count(*)" on every request, a scan of the whole table.
+         */
+        EXACT,
+        /**
+         * The planner's estimate from the table statistics, without a scan.
+         */
+        APPROXIMATE,
+        /**
+         * "count(*)" every "refresh-interval" while counts are requested, requests read the last count.
+         */
+        CACHED
+    }
+}
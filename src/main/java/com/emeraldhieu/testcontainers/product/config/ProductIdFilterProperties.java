@@ -0,0 +1,49 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of the Bloom filter that answers lookups of unknown external IDs without a query.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.product-id-filter")
+@Data
+public class ProductIdFilterProperties {
+
+    private boolean enabled;
+
+    /**
+     * The false-positive rate the filter is sized for when it's full.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * The filter is sized for this many times the products it's rebuilt from so it stays accurate as they grow.
+     */
+    private double capacityHeadroom = 2;
+
+    private long minCapacity = 100_000;
+
+    /**
+     * Rebuilding drops IDs of deleted products and picks up rows written outside the app.
+     * It's read by {@code @Scheduled} so it's an ISO-8601 duration.
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    /**
+     * A rebuild waits this long after it starts taking writes before it reads the products,
+     * so it sees every product whose ID was put into the previous filter only. It's longer than a creating transaction.
+     */
+    private Duration settleTime = Duration.ofSeconds(5);
+
+    /**
+     * Misses let through to the database per second so IDs created by other instances or outside the app
+     * are found before the next rebuild. The rest are answered as not found.
+     */
+    private double missChecksPerSecond = 20;
+}
@@ -0,0 +1,68 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-client quotas of the product API.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.rate-limit")
+@Data
+public class RateLimitProperties {
+    private boolean enabled;
+
+    /**
+     * An authenticated client is identified by its principal. Otherwise it's identified by this header
+     * if the header holds one of {@link #clientKeys}, and by its IP address if not.
+     */
+    private String clientHeader = "X-API-Key";
+
+    /**
+     * The keys of known clients. A key that isn't listed is ignored, so a client can't get fresh buckets
+     * by sending a new key with every request.
+     */
+    private Set<String> clientKeys = new HashSet<>();
+
+    /**
+     * Buckets of idle clients are dropped, at most once a second, once there are this many buckets.
+     * A new client is rejected with 429 while none of them is idle.
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * The quota of routes that aren't listed in {@link #routes}.
+     */
+    private Quota defaultQuota = new Quota();
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Quota {
+        /**
+         * The number of requests a client can burst.
+         */
+        private int capacity = 100;
+
+        private double refillPerSecond = 50;
+    }
+
+    @Data
+    public static class Route {
+        private String method;
+
+        /**
+         * A path pattern such as "/products/{id}".
+         */
+        private String path;
+
+        private Quota quota = new Quota();
+    }
+}
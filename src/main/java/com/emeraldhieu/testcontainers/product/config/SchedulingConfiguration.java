@@ -0,0 +1,14 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Run methods annotated with {@code @Scheduled}.
+ * See https://docs.spring.io/spring-framework/docs/6.0.x/reference/html/integration.html#scheduling-annotation-support
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+
+}
@@ -0,0 +1,36 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of Hibernate's second-level cache of products.
+ * The cache is local to an instance: it's only safe to read from when there's a single instance,
+ * or when reads may lag the writes of other instances by {@link #timeToLive}.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.second-level-cache")
+@Data
+public class SecondLevelCacheProperties {
+
+    private boolean enabled;
+
+    /**
+     * Products kept on the heap.
+     */
+    private long entityCapacity = 100_000;
+
+    /**
+     * Mappings of external IDs to IDs kept on the heap.
+     */
+    private long naturalIdCapacity = 100_000;
+
+    /**
+     * Bounds how long a write made outside the app can go unseen.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
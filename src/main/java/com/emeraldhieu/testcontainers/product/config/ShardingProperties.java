@@ -0,0 +1,55 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Properties of application-level sharding of products.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.sharding")
+@Data
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Points of each shard on the hash ring. More points spread keys more evenly.
+     */
+    private int virtualNodes = 128;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Names of the shards before a resharding. While it's set, a product not found on its new shard
+     * is looked up on its previous shard until "POST /admin/shards/rebalance" has moved it.
+     */
+    private List<String> previousShards = new ArrayList<>();
+
+    /**
+     * Rows read from a shard at a time when rebalancing and when merging "GET /products".
+     */
+    private int batchSize = 500;
+
+    @Data
+    public static class Shard {
+
+        /**
+         * Never rename a shard: names are hashed onto the ring.
+         */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
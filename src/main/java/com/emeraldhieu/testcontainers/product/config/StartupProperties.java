@@ -0,0 +1,42 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * Properties of startup time. The profile "startup" turns them on.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.startup")
+@Data
+public class StartupProperties {
+
+    /**
+     * Create the topic after the app is ready instead of during the context refresh.
+     */
+    private boolean deferTopicCreation;
+
+    /**
+     * Create the producer and fetch the topic's metadata after the app is ready
+     * so the first request doesn't pay for it.
+     */
+    private boolean warmUpProducer;
+
+    /**
+     * Exit once the app is ready. Used to train the AppCDS archive and to benchmark startup.
+     */
+    private boolean exitWhenReady;
+
+    /**
+     * Log the slowest startup steps when the app is ready. Zero disables the report.
+     */
+    private int reportedSteps;
+
+    /**
+     * Release connections before a CRaC checkpoint and reopen them after restore.
+     * Requires a JDK with CRaC; on other JDKs it does nothing.
+     */
+    private boolean cracEnabled;
+}
@@ -0,0 +1,56 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.jdbc.StatementStatsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * The data source is wrapped in a proxy that counts the statements of each request to "/products",
+ * see {@link com.emeraldhieu.testcontainers.product.web.StatementBudgetFilter}.
+ * The proxy delegates "unwrap" so the Hikari pool stays reachable, and it wraps the router when sharding is enabled.
+ * See https://jdbc-observations.github.io/datasource-proxy/docs/current/user-guide/
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.statement-stats", name = "enabled", matchIfMissing = true)
+public class StatementStatsConfiguration {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final StatementStatsProperties statementStatsProperties;
+
+    /**
+     * Static so the post processor is registered without creating this configuration early.
+     * The listener is looked up only when the data source is created.
+     */
+    @Bean
+    public static BeanPostProcessor statementStatsDataSourcePostProcessor(
+        ObjectProvider<StatementStatsListener> statementStatsListener
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(DATA_SOURCE_BEAN)
+                        .listener(statementStatsListener.getObject())
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementStatsListener statementStatsListener(MeterRegistry meterRegistry) {
+        return new StatementStatsListener(statementStatsProperties, meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Properties of counting the JDBC statements of the requests to "/products".
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.statement-stats")
+@Data
+public class StatementStatsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * A statement that takes longer is logged, counted and listed with the request that ran it.
+     */
+    private Duration slowStatementThreshold = Duration.ofMillis(100);
+
+    /**
+     * The most statements a route should run per request, keyed by the method and the route's pattern
+     * such as "[GET /products/{id}]". A request that runs more is logged and counted.
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+}
@@ -0,0 +1,55 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of the warm-up that runs before the app reports itself ready.
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.warm-up")
+@Data
+public class WarmUpProperties {
+
+    private boolean enabled;
+
+    /**
+     * How many of the hottest products to read before taking traffic.
+     */
+    private int preloadSize = 1000;
+
+    /**
+     * The query that selects the hottest products' external IDs. Its only parameter is "preload-size".
+     * There are no access stats so the most recently updated products are taken by default.
+     */
+    private String preloadQuery = "SELECT external_id FROM product WHERE NOT deleted ORDER BY updated_at DESC LIMIT ?";
+
+    /**
+     * Synthetic requests per round. The JIT's compilation time is sampled after every round.
+     */
+    private int requestsPerRound = 500;
+
+    /**
+     * A round that adds less compilation time than this counts as stable.
+     */
+    private Duration stableCompilationTime = Duration.ofMillis(20);
+
+    /**
+     * Stop after this many stable rounds in a row.
+     */
+    private int stableRounds = 3;
+
+    /**
+     * Rounds to run when the JVM doesn't report compilation time, such as in a native image.
+     */
+    private int fallbackRounds = 5;
+
+    /**
+     * Readiness is never delayed longer than this.
+     */
+    private Duration maxDuration = Duration.ofSeconds(60);
+}
@@ -0,0 +1,127 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import com.emeraldhieu.testcontainers.product.web.AdaptiveConcurrencyLimiter;
+import com.emeraldhieu.testcontainers.product.web.LoadSheddingFilter;
+import com.emeraldhieu.testcontainers.product.web.ProductAvroHttpMessageConverter;
+import com.emeraldhieu.testcontainers.product.web.RateLimitFilter;
+import com.emeraldhieu.testcontainers.product.web.RequestDecompressionFilter;
+import com.emeraldhieu.testcontainers.product.web.StatementBudgetFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfiguration {
+
+    /**
+     * Servlet URL patterns match a suffix only after a slash, so "/products:batch" is listed on its own.
+     */
+    public static final List<String> PRODUCT_URL_PATTERNS = List.of("/products", "/products/*", "/products:batch");
+
+    private final CompressionProperties compressionProperties;
+    private final RateLimitProperties rateLimitProperties;
+    private final LoadSheddingProperties loadSheddingProperties;
+    private final StatementStatsProperties statementStatsProperties;
+
+    /**
+     * Spring Boot adds {@link HttpMessageConverter} beans in front of the default converters.
+     * See https://docs.spring.io/spring-boot/docs/3.0.0/reference/html/web.html#web.servlet.spring-mvc.message-converters
+     */
+    @Bean
+    public ProductAvroHttpMessageConverter productAvroHttpMessageConverter() {
+        return new ProductAvroHttpMessageConverter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.compression.request", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(MeterRegistry meterRegistry) {
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(
+            compressionProperties.getMaxInflatedSize().toBytes(), meterRegistry);
+        FilterRegistrationBean<RequestDecompressionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setUrlPatterns(PRODUCT_URL_PATTERNS);
+        return registration;
+    }
+
+    /**
+     * Rate limiting runs first so a misbehaving client is rejected before it takes a slot of the concurrency limit.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.rate-limit", name = "enabled")
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+            new FilterRegistrationBean<>(new RateLimitFilter(rateLimitProperties, meterRegistry));
+        registration.setUrlPatterns(PRODUCT_URL_PATTERNS);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.load-shedding", name = "enabled")
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(DataSource dataSource) {
+        return new AdaptiveConcurrencyLimiter(
+            loadSheddingProperties.getInitialLimit(),
+            loadSheddingProperties.getMinLimit(),
+            loadSheddingProperties.getMaxLimit(),
+            loadSheddingProperties.getLatencyThreshold().toNanos(),
+            loadSheddingProperties.getMaxThreadsAwaitingConnection(),
+            loadSheddingProperties.getBackoffRatio(),
+            loadSheddingProperties.getWindowSize(),
+            threadsAwaitingConnection(dataSource));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.load-shedding", name = "enabled")
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                          MeterRegistry meterRegistry) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+            new LoadSheddingFilter(limiter, loadSheddingProperties.getRetryAfter(), meterRegistry));
+        registration.setUrlPatterns(PRODUCT_URL_PATTERNS);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    /**
+     * Runs after rate limiting and load shedding so a rejected request isn't counted.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.statement-stats", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementBudgetFilter> registration = new FilterRegistrationBean<>(
+            new StatementBudgetFilter(statementStatsProperties.getBudgets(), meterRegistry));
+        registration.setUrlPatterns(PRODUCT_URL_PATTERNS);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+
+    /**
+     * Read Hikari's wait queue. The pool is created lazily so its MXBean can be null at first.
+     */
+    private static IntSupplier threadsAwaitingConnection(DataSource dataSource) {
+        HikariDataSource hikariDataSource;
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return () -> 0;
+            }
+            hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            return () -> 0;
+        }
+        return () -> {
+            HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+        };
+    }
+}
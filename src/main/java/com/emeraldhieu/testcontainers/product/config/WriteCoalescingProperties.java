@@ -0,0 +1,33 @@
+package com.emeraldhieu.testcontainers.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.time.Duration;
+
+/**
+ * Properties of coalescing "PATCH /products/{id}".
+ * ---
+ * {@link ConfigurationProperties} is scanned by {@link ConfigurationPropertiesScan}.
+ */
+@ConfigurationProperties(prefix = "application.write-coalescing")
+@Data
+public class WriteCoalescingProperties {
+
+    /**
+     * Off by default because a caller waits up to a window longer for its update.
+     */
+    private boolean enabled;
+
+    /**
+     * How long updates are gathered before they're written together.
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * Products gathered before they're written without waiting for the window to end.
+     * Not more than "application.batch-update.max-items".
+     */
+    private int maxProducts = 1000;
+}
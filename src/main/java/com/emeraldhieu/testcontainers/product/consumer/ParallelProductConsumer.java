@@ -0,0 +1,141 @@
+package com.emeraldhieu.testcontainers.product.consumer;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.ProductConsumerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A consumer of the products topic that processes the records of a batch in parallel by key
+ * rather than one at a time per partition.
+ * + The records of a batch are split into lanes by the hash of their key, in the order they came.
+ *   A lane runs on its own thread, so records of the same key are processed in order and different keys at once.
+ * + The batch is committed once every lane is done
+ * + When a record fails, its lane stops. The offsets before the first record that wasn't processed,
+ *   the low-water mark of the batch, are committed and the batch is polled again from it.
+ *   Records after the mark that were processed are processed again, so delivery is at-least-once.
+ * See https://docs.spring.io/spring-kafka/docs/3.0.x/reference/html/#batch-listeners
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.product-consumer", name = "enabled")
+public class ParallelProductConsumer implements DisposableBean {
+
+    private static final int NOT_FAILED = Integer.MAX_VALUE;
+
+    private final ProductConsumerProperties productConsumerProperties;
+    private final ProductMessageHandler productMessageHandler;
+    private final ExecutorService executorService;
+    private final Counter processedRecords;
+    private final Counter failedRecords;
+    private final Timer batchTimer;
+
+    public ParallelProductConsumer(ProductConsumerProperties productConsumerProperties,
+                                   ProductMessageHandler productMessageHandler,
+                                   MeterRegistry meterRegistry) {
+        this.productConsumerProperties = productConsumerProperties;
+        this.productMessageHandler = productMessageHandler;
+        // Every consumer runs one batch at a time.
+        AtomicInteger threadNumber = new AtomicInteger();
+        executorService = Executors.newFixedThreadPool(
+            productConsumerProperties.getConcurrency() * productConsumerProperties.getParallelism(),
+            runnable -> new Thread(runnable, "product-consumer-lane-" + threadNumber.incrementAndGet()));
+        processedRecords = Counter.builder("product.consumer.processed")
+            .description("Records of the products topic processed")
+            .register(meterRegistry);
+        failedRecords = Counter.builder("product.consumer.failed")
+            .description("Records of the products topic that failed")
+            .register(meterRegistry);
+        batchTimer = Timer.builder("product.consumer.batch")
+            .description("Time to process a batch of the products topic")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @throws BatchListenerFailedException with the index of the first record that wasn't processed
+     */
+    @KafkaListener(
+        id = "productConsumer",
+        idIsGroup = false,
+        topics = "${application.kafka.topic}",
+        containerFactory = "productBatchListenerContainerFactory"
+    )
+    public void consume(List<ConsumerRecord<Object, ProductMessage>> records) {
+        Timer.Sample sample = Timer.start();
+        Map<Integer, List<Integer>> lanes = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            lanes.computeIfAbsent(laneOf(records.get(i)), lane -> new ArrayList<>()).add(i);
+        }
+        List<CompletableFuture<LaneResult>> futures = lanes.values().stream()
+            .map(indexes -> CompletableFuture.supplyAsync(() -> process(records, indexes), executorService))
+            .toList();
+        Optional<LaneResult> firstFailure = futures.stream()
+            .map(CompletableFuture::join)
+            .filter(result -> result.failedIndex() != NOT_FAILED)
+            .min(Comparator.comparingInt(LaneResult::failedIndex));
+        sample.stop(batchTimer);
+
+        if (firstFailure.isPresent()) {
+            int failedIndex = firstFailure.get().failedIndex();
+            ConsumerRecord<Object, ProductMessage> failedRecord = records.get(failedIndex);
+            throw new BatchListenerFailedException("Unable to process the record at offset %d of %s-%d"
+                .formatted(failedRecord.offset(), failedRecord.topic(), failedRecord.partition()),
+                firstFailure.get().cause(), failedIndex);
+        }
+    }
+
+    /**
+     * Keys are compared by their text because the Avro deserializer may return a Utf8 rather than a String.
+     */
+    private int laneOf(ConsumerRecord<Object, ProductMessage> record) {
+        return Math.floorMod(idOf(record).hashCode(), productConsumerProperties.getParallelism());
+    }
+
+    private static String idOf(ConsumerRecord<Object, ProductMessage> record) {
+        return record.key() != null ? record.key().toString() : record.value().getId();
+    }
+
+    private LaneResult process(List<ConsumerRecord<Object, ProductMessage>> records, List<Integer> indexes) {
+        for (int index : indexes) {
+            try {
+                ConsumerRecord<Object, ProductMessage> record = records.get(index);
+                productMessageHandler.handle(idOf(record), record.value());
+                processedRecords.increment();
+            } catch (RuntimeException e) {
+                failedRecords.increment();
+                log.warn("Unable to process the record at offset {} of partition {}",
+                    records.get(index).offset(), records.get(index).partition(), e);
+                // The rest of the lane may have the same key so it waits for the retry.
+                return new LaneResult(index, e);
+            }
+        }
+        return new LaneResult(NOT_FAILED, null);
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdown();
+    }
+
+    private record LaneResult(int failedIndex, RuntimeException cause) {
+    }
+}
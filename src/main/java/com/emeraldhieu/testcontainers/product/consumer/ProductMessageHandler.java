@@ -0,0 +1,18 @@
+package com.emeraldhieu.testcontainers.product.consumer;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+
+/**
+ * What the {@link ParallelProductConsumer} does with a message, such as indexing the product.
+ * It's called from several threads at once but never for two messages of the same product at once.
+ * A message may be handled again after a failure, so handling should be idempotent.
+ */
+@FunctionalInterface
+public interface ProductMessageHandler {
+
+    /**
+     * @param id the record's key, which is the product's external ID
+     * @param productMessage null for a tombstone, which is published when the product is deleted
+     */
+    void handle(String id, ProductMessage productMessage);
+}
@@ -0,0 +1,281 @@
+package com.emeraldhieu.testcontainers.product.event;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.JournalProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Stream;
+
+/**
+ * A local, append-only journal of {@link ProductMessage}s that couldn't be sent to Kafka.
+ * Messages are appended to memory-mapped segment files so an append is a memory copy rather than a system call.
+ * A full segment is sealed and a new one is started; sealed segments are replayed in order by
+ * {@link ProductEventReplayer} and deleted once Kafka acknowledges them.
+ * A segment sealed before it's full is truncated to its records, and the size limit counts the bytes written
+ * rather than segments, so partly filled segments don't use up the journal.
+ * ---
+ * A segment is a sequence of records "[int length][Avro single-object encoded message]".
+ * A length of zero marks the end of the written part because mapped files are zero-filled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.kafka.journal", name = "enabled")
+public class ProductEventJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxBytes;
+    private final JournalProperties.FsyncPolicy fsyncPolicy;
+
+    private final ConcurrentLinkedDeque<Path> sealedSegments = new ConcurrentLinkedDeque<>();
+    private final Object lock = new Object();
+    private long nextSequence;
+    private ActiveSegment activeSegment;
+
+    /**
+     * The bytes of the sealed segments on disk.
+     */
+    private long sealedBytes;
+
+    private final Counter appendedMessages;
+    private final Counter droppedMessages;
+
+    public ProductEventJournal(JournalProperties journalProperties, MeterRegistry meterRegistry) {
+        directory = Paths.get(journalProperties.getDirectory());
+        segmentSize = Math.toIntExact(journalProperties.getSegmentSize().toBytes());
+        maxBytes = journalProperties.getMaxSize().toBytes();
+        fsyncPolicy = journalProperties.getFsyncPolicy();
+        recoverSegments();
+
+        appendedMessages = Counter.builder("product.journal.appended")
+            .description("Messages appended to the journal")
+            .register(meterRegistry);
+        droppedMessages = Counter.builder("product.journal.dropped")
+            .description("Messages dropped because the journal was full")
+            .register(meterRegistry);
+        meterRegistry.gauge("product.journal.segments", sealedSegments, ConcurrentLinkedDeque::size);
+        meterRegistry.gauge("product.journal.bytes", this, ProductEventJournal::usedBytes);
+    }
+
+    /**
+     * Segments left by a previous run are sealed so they are replayed before anything appended now.
+     */
+    private void recoverSegments() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .forEach(sealedSegments::addLast);
+            }
+            // A segment left active by a crash isn't truncated, so it counts as a full one.
+            for (Path segment : sealedSegments) {
+                sealedBytes += Files.size(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open journal at " + directory, e);
+        }
+        Path lastSegment = sealedSegments.peekLast();
+        if (lastSegment != null) {
+            nextSequence = sequenceOf(lastSegment) + 1;
+            log.info("Recovered {} journal segments from {}", sealedSegments.size(), directory);
+        }
+    }
+
+    /**
+     * @return false if the message was dropped because the journal is full
+     */
+    public boolean append(ProductMessage productMessage) {
+        byte[] record;
+        try {
+            ByteBuffer encoded = productMessage.toByteBuffer();
+            record = new byte[encoded.remaining()];
+            encoded.get(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode " + productMessage, e);
+        }
+        if (LENGTH_BYTES + record.length > segmentSize - LENGTH_BYTES) {
+            throw new IllegalArgumentException("Message of %d bytes doesn't fit a journal segment".formatted(record.length));
+        }
+
+        synchronized (lock) {
+            try {
+                if (activeSegment != null && activeSegment.remaining() < LENGTH_BYTES + record.length + LENGTH_BYTES) {
+                    sealActiveSegment();
+                }
+                if (usedBytes() + LENGTH_BYTES + record.length > maxBytes) {
+                    droppedMessages.increment();
+                    log.error("Journal is full, dropping message={}", productMessage);
+                    return false;
+                }
+                if (activeSegment == null) {
+                    activeSegment = new ActiveSegment(directory.resolve("%020d%s".formatted(nextSequence++, SEGMENT_SUFFIX)));
+                }
+                activeSegment.write(record);
+                if (fsyncPolicy == JournalProperties.FsyncPolicy.ALWAYS) {
+                    activeSegment.force();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to append to journal", e);
+            }
+        }
+        appendedMessages.increment();
+        return true;
+    }
+
+    /**
+     * Seal the active segment so its messages become visible to {@link #pendingSegments()}.
+     */
+    public void seal() {
+        synchronized (lock) {
+            try {
+                sealActiveSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to seal journal segment", e);
+            }
+        }
+    }
+
+    private void sealActiveSegment() throws IOException {
+        if (activeSegment == null) {
+            return;
+        }
+        activeSegment.force();
+        // The mapping isn't written after this so it doesn't matter that it outlives the truncated part.
+        int writtenBytes = activeSegment.position();
+        try (FileChannel channel = FileChannel.open(activeSegment.path, StandardOpenOption.WRITE)) {
+            channel.truncate(writtenBytes);
+        }
+        sealedSegments.addLast(activeSegment.path);
+        sealedBytes += writtenBytes;
+        activeSegment = null;
+    }
+
+    /**
+     * @return the bytes of the sealed segments and the written part of the active one
+     */
+    public long usedBytes() {
+        synchronized (lock) {
+            return sealedBytes + (activeSegment != null ? activeSegment.position() : 0);
+        }
+    }
+
+    /**
+     * @return sealed segments from the oldest to the newest
+     */
+    public List<Path> pendingSegments() {
+        return new ArrayList<>(sealedSegments);
+    }
+
+    public List<ProductMessage> read(Path segment) {
+        List<ProductMessage> productMessages = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= LENGTH_BYTES) {
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                productMessages.add(ProductMessage.fromByteBuffer(record));
+                buffer.position(buffer.position() + length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read journal segment " + segment, e);
+        }
+        return productMessages;
+    }
+
+    public void delete(Path segment) {
+        synchronized (lock) {
+            try {
+                long bytes = Files.size(segment);
+                Files.delete(segment);
+                sealedBytes -= bytes;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to delete journal segment " + segment, e);
+            }
+            sealedSegments.remove(segment);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.kafka.journal.fsync-interval:PT1S}")
+    public void flush() {
+        if (fsyncPolicy != JournalProperties.FsyncPolicy.INTERVAL) {
+            return;
+        }
+        synchronized (lock) {
+            if (activeSegment != null) {
+                activeSegment.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        seal();
+    }
+
+    private static long sequenceOf(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private class ActiveSegment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+
+        ActiveSegment(Path path) throws IOException {
+            this.path = path;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed.
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+        }
+
+        int remaining() {
+            return buffer.remaining();
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        /**
+         * The length is written after the payload so a record is never visible half-written.
+         */
+        void write(byte[] record) {
+            int position = buffer.position();
+            buffer.put(position + LENGTH_BYTES, record);
+            buffer.putInt(position, record.length);
+            buffer.position(position + LENGTH_BYTES + record.length);
+        }
+
+        void force() {
+            buffer.force();
+        }
+    }
+}
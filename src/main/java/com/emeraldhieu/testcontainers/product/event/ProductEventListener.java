@@ -2,14 +2,19 @@ package com.emeraldhieu.testcontainers.product.event;
 
 import com.emeraldhieu.testcontainers.product.ProductMessage;
 import com.emeraldhieu.testcontainers.product.config.KafkaProperties;
+import com.emeraldhieu.testcontainers.product.jfr.ProductMessageSendEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -18,14 +23,22 @@ import java.util.concurrent.CompletableFuture;
  * + Decouple Kafka code from the main flow for clean code and maintainability
  * + Be able to use multiple listeners to process the same event
  * + Be able to add/remove event listeners (observers) without altering the main flow
+ * ---
+ * Every message is keyed by the product's external ID, so a product's create and updates share a partition
+ * and are consumed in order.
+ * Messages Kafka fails to take asynchronously are kept in the {@link ProductEventJournal} if it's enabled.
+ * The listener is off when changes are captured from the database instead, see "application.cdc".
+ * Slow sends are recorded as {@link ProductMessageSendEvent}s.
  */
 @Component
+@ConditionalOnProperty(prefix = "application.cdc", name = "enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class ProductEventListener {
 
     private final KafkaProperties kafkaProperties;
     private final KafkaTemplate<String, ProductMessage> kafkaTemplate;
+    private final ObjectProvider<ProductEventJournal> productEventJournal;
 
     @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
     public void handleProductCreated(ProductCreatedEvent event) {
@@ -34,14 +47,72 @@ public class ProductEventListener {
             .setName(event.getName())
             .setPrice(event.getPrice())
             .build();
+        ProductMessageSendEvent sendEvent = beginSend(productMessage);
         CompletableFuture<SendResult<String, ProductMessage>> future =
-            kafkaTemplate.send(kafkaProperties.getTopic(), productMessage);
+            kafkaTemplate.send(kafkaProperties.getTopic(), productMessage.getId(), productMessage);
         future.whenComplete((result, throwable) -> {
+            commitSend(sendEvent, result, throwable);
             if (throwable == null) {
                 log.info("Sent message=" + result.getProducerRecord().value() + " with offset=[" + result.getRecordMetadata().offset() + "]");
             } else {
-                log.info("Unable to send message=" + result.getProducerRecord().value() + " due to : " + throwable.getMessage());
+                // "result" is null when sending fails.
+                log.warn("Unable to send message=" + productMessage + " due to : " + throwable.getMessage());
+                productEventJournal.ifAvailable(journal -> journal.append(productMessage));
             }
         });
     }
+
+    /**
+     * The messages are sent without waiting for each other so the producer packs them into few batches.
+     * They're keyed by ID so the updates of a product stay in order.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void handleProductsUpdated(ProductsUpdatedEvent event) {
+        List<CompletableFuture<SendResult<String, ProductMessage>>> futures = new ArrayList<>(event.getProducts().size());
+        for (ProductsUpdatedEvent.UpdatedProduct product : event.getProducts()) {
+            ProductMessage productMessage = ProductMessage.newBuilder()
+                .setId(product.id())
+                .setName(product.name())
+                .setPrice(product.price())
+                .build();
+            ProductMessageSendEvent sendEvent = beginSend(productMessage);
+            futures.add(kafkaTemplate.send(kafkaProperties.getTopic(), productMessage.getId(), productMessage)
+                .whenComplete((result, throwable) -> {
+                    commitSend(sendEvent, result, throwable);
+                    if (throwable != null) {
+                        log.warn("Unable to send message=" + productMessage + " due to : " + throwable.getMessage());
+                        productEventJournal.ifAvailable(journal -> journal.append(productMessage));
+                    }
+                }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .whenComplete((result, throwable) -> log.info("Sent {} update messages", futures.size()));
+    }
+
+    private ProductMessageSendEvent beginSend(ProductMessage productMessage) {
+        ProductMessageSendEvent sendEvent = new ProductMessageSendEvent();
+        sendEvent.topic = kafkaProperties.getTopic();
+        sendEvent.productId = productMessage.getId();
+        sendEvent.begin();
+        return sendEvent;
+    }
+
+    /**
+     * The event is committed from the producer's thread once Kafka acknowledges the message or the send fails.
+     */
+    private static void commitSend(ProductMessageSendEvent sendEvent,
+                                   SendResult<String, ProductMessage> result, Throwable throwable) {
+        sendEvent.end();
+        if (!sendEvent.shouldCommit()) {
+            return;
+        }
+        if (result != null) {
+            sendEvent.partition = result.getRecordMetadata().partition();
+            sendEvent.offset = result.getRecordMetadata().offset();
+        }
+        if (throwable != null) {
+            sendEvent.exception = throwable.getClass().getName();
+        }
+        sendEvent.commit();
+    }
 }
@@ -0,0 +1,130 @@
+package com.emeraldhieu.testcontainers.product.event;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.JournalProperties;
+import com.emeraldhieu.testcontainers.product.config.KafkaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A task that replays journaled messages once Kafka is reachable again.
+ * It runs on its own thread because its sends block for up to "replay-send-timeout",
+ * which would hold up the other {@code @Scheduled} tasks such as the journal's fsync.
+ * Segments are replayed from the oldest and replay stops at the first failure so messages keep their order.
+ * The active segment is only sealed once every sealed one is replayed, so an outage leaves one partly filled
+ * segment rather than one per interval.
+ * Delivery is at-least-once: a segment whose replay fails halfway resumes after its last acknowledged batch,
+ * but a restart replays the whole segment.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.kafka.journal", name = "enabled")
+public class ProductEventReplayer implements InitializingBean, DisposableBean {
+
+    private final ProductEventJournal productEventJournal;
+    private final KafkaTemplate<String, ProductMessage> kafkaTemplate;
+    private final KafkaProperties kafkaProperties;
+    private final JournalProperties journalProperties;
+    private final Counter replayedMessages;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        runnable -> new Thread(runnable, "product-journal-replayer"));
+
+    /**
+     * The number of messages of a segment that Kafka has already acknowledged.
+     */
+    private final Map<Path, Integer> acknowledgedMessages = new HashMap<>();
+
+    public ProductEventReplayer(ProductEventJournal productEventJournal,
+                                KafkaTemplate<String, ProductMessage> kafkaTemplate,
+                                KafkaProperties kafkaProperties,
+                                JournalProperties journalProperties,
+                                MeterRegistry meterRegistry) {
+        this.productEventJournal = productEventJournal;
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaProperties = kafkaProperties;
+        this.journalProperties = journalProperties;
+        replayedMessages = Counter.builder("product.journal.replayed")
+            .description("Journaled messages that Kafka acknowledged")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long intervalMillis = journalProperties.getReplayInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::replay, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    public void replay() {
+        try {
+            if (replaySealedSegments()) {
+                productEventJournal.seal();
+                replaySealedSegments();
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule.
+            log.error("Unable to replay the journal", e);
+        }
+    }
+
+    /**
+     * @return true if every sealed segment was replayed
+     */
+    private boolean replaySealedSegments() {
+        for (Path segment : productEventJournal.pendingSegments()) {
+            List<ProductMessage> productMessages = productEventJournal.read(segment);
+            int acknowledged = acknowledgedMessages.getOrDefault(segment, 0);
+            while (acknowledged < productMessages.size()) {
+                int batchEnd = Math.min(acknowledged + journalProperties.getReplayBatchSize(), productMessages.size());
+                if (!send(productMessages.subList(acknowledged, batchEnd))) {
+                    acknowledgedMessages.put(segment, acknowledged);
+                    return false;
+                }
+                replayedMessages.increment(batchEnd - acknowledged);
+                acknowledged = batchEnd;
+            }
+            productEventJournal.delete(segment);
+            acknowledgedMessages.remove(segment);
+            log.info("Replayed {} journaled messages from {}", productMessages.size(), segment.getFileName());
+        }
+        return true;
+    }
+
+    /**
+     * Keyed by ID like the messages sent first, so a replayed update lands on its product's partition.
+     */
+    private boolean send(List<ProductMessage> batch) {
+        try {
+            CompletableFuture<?>[] futures = batch.stream()
+                .map(productMessage ->
+                    kafkaTemplate.send(kafkaProperties.getTopic(), productMessage.getId(), productMessage))
+                .toArray(CompletableFuture[]::new);
+            kafkaTemplate.flush();
+            CompletableFuture.allOf(futures)
+                .get(journalProperties.getReplaySendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            log.warn("Unable to replay journaled messages, will retry: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.emeraldhieu.testcontainers.product.event;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An event that is fired once for all products a batch update changed in one transaction.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class ProductsUpdatedEvent {
+    private final List<UpdatedProduct> products;
+
+    public record UpdatedProduct(String id, String name, double price) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.emeraldhieu.testcontainers.product.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The JDBC statements of one request: how many ran, how long they took and which of them were slow.
+ * It's bound to the request's thread and carried to the threads that work for the request,
+ * see {@link #propagate(Runnable)}.
+ */
+public class StatementStats {
+
+    private static final ThreadLocal<StatementStats> CURRENT = new ThreadLocal<>();
+    private static final int MAX_SLOW_STATEMENTS = 10;
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<String> slowStatements = new ArrayList<>();
+
+    /**
+     * @return the statistics of the current thread's request, or null outside of a request
+     */
+    public static StatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the statistics that were bound before, to be restored by {@link #unbind(StatementStats)}
+     */
+    public static StatementStats bind(StatementStats statementStats) {
+        StatementStats previous = CURRENT.get();
+        CURRENT.set(statementStats);
+        return previous;
+    }
+
+    public static void unbind(StatementStats previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Run a task with the statistics of the thread that submitted it, as a {@code TaskDecorator} does.
+     */
+    public static Runnable propagate(Runnable task) {
+        StatementStats statementStats = current();
+        if (statementStats == null) {
+            return task;
+        }
+        return () -> {
+            StatementStats previous = bind(statementStats);
+            try {
+                task.run();
+            } finally {
+                unbind(previous);
+            }
+        };
+    }
+
+    public void record(long elapsedNanos, String sql, boolean slow) {
+        statements.incrementAndGet();
+        nanos.addAndGet(elapsedNanos);
+        if (slow) {
+            synchronized (slowStatements) {
+                if (slowStatements.size() < MAX_SLOW_STATEMENTS) {
+                    slowStatements.add(sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * A batch counts as one statement.
+     */
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getNanos() {
+        return nanos.get();
+    }
+
+    public List<String> getSlowStatements() {
+        synchronized (slowStatements) {
+            return List.copyOf(slowStatements);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.emeraldhieu.testcontainers.product.jdbc;
+
+import com.emeraldhieu.testcontainers.product.config.StatementStatsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A listener of the statements run through the proxied data source.
+ * Every statement is added to the {@link StatementStats} of its request if there's one,
+ * and a slow statement is logged and counted wherever it runs.
+ * See https://jdbc-observations.github.io/datasource-proxy/docs/current/user-guide/
+ */
+@Slf4j
+public class StatementStatsListener implements QueryExecutionListener {
+
+    private static final String START = StatementStatsListener.class.getName() + ".start";
+
+    private final long slowStatementNanos;
+    private final Counter slowStatements;
+
+    public StatementStatsListener(StatementStatsProperties statementStatsProperties, MeterRegistry meterRegistry) {
+        slowStatementNanos = statementStatsProperties.getSlowStatementThreshold().toNanos();
+        slowStatements = Counter.builder("product.jdbc.slow")
+            .description("Statements slower than the threshold")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The proxy measures in milliseconds so the time is measured here.
+     */
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfos) {
+        executionInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfos) {
+        Long start = executionInfo.getCustomValue(START, Long.class);
+        long elapsedNanos = start != null ? System.nanoTime() - start : executionInfo.getElapsedTime() * 1_000_000;
+        boolean slow = elapsedNanos >= slowStatementNanos;
+        StatementStats statementStats = StatementStats.current();
+        if (statementStats == null && !slow) {
+            return;
+        }
+        String sql = queryInfos.stream()
+            .map(QueryInfo::getQuery)
+            .collect(Collectors.joining("; "));
+        if (slow) {
+            slowStatements.increment();
+            log.warn("Slow statement of {} ms: {}", elapsedNanos / 1_000_000, sql);
+        }
+        if (statementStats != null) {
+            statementStats.record(elapsedNanos, sql, slow);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.emeraldhieu.testcontainers.product.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * An Actuator endpoint of flight recordings, so a latency outlier in production can be looked into
+ * without attaching a profiler.
+ * + "GET /actuator/jfr" lists the recordings
+ * + "POST /actuator/jfr" starts a recording, optionally with a "name" and a "duration"
+ * + "POST /actuator/jfr/{id}" stops a recording
+ * + "GET /actuator/jfr/{id}" dumps a recording as a ".jfr" file, a running one as it is so far
+ * + "DELETE /actuator/jfr/{id}" stops a recording and discards it
+ * The endpoint is exposed only if "management.endpoints.web.exposure.include" lists "jfr", which it doesn't by default.
+ * A dump holds the environment and system properties and the endpoint has no authentication, so expose it only on
+ * a management port that isn't published, see "management.server.port".
+ * See https://docs.spring.io/spring-boot/docs/3.0.0/reference/html/actuator.html#actuator.endpoints.implementing-custom
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+
+    private static final String JFR_CONTENT_TYPE = "application/octet-stream";
+
+    private final FlightRecordings flightRecordings;
+
+    @ReadOperation
+    public List<FlightRecordings.RecordingInfo> recordings() {
+        return flightRecordings.list();
+    }
+
+    @WriteOperation
+    public FlightRecordings.RecordingInfo start(@Nullable String name, @Nullable Duration duration) {
+        return flightRecordings.start(name != null ? name : "on-demand", duration);
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<FlightRecordings.RecordingInfo> stop(@Selector long id) {
+        return flightRecordings.stop(id)
+            .map(WebEndpointResponse::new)
+            .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    /**
+     * The dump file is deleted once it has been streamed.
+     */
+    @ReadOperation(produces = JFR_CONTENT_TYPE)
+    public WebEndpointResponse<Resource> dump(@Selector long id) {
+        return flightRecordings.dump(id)
+            .<WebEndpointResponse<Resource>>map(file -> new WebEndpointResponse<>(new DumpResource(file)))
+            .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> close(@Selector long id) {
+        return new WebEndpointResponse<>(flightRecordings.close(id)
+            ? WebEndpointResponse.STATUS_NO_CONTENT
+            : WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    static class DumpResource extends FileSystemResource {
+
+        DumpResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+        }
+    }
+}
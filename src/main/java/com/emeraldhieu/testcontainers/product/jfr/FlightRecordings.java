@@ -0,0 +1,177 @@
+package com.emeraldhieu.testcontainers.product.jfr;
+
+import com.emeraldhieu.testcontainers.product.config.FlightRecorderProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The Java Flight Recorder recordings started by the app, with the product events at their thresholds.
+ * + A continuous recording keeps the last minutes from startup, see "application.flight-recorder.continuous"
+ * + Other recordings are started, stopped and dumped on demand by the {@link FlightRecordingEndpoint}
+ * See https://docs.oracle.com/en/java/javase/17/jfapi/
+ */
+@Slf4j
+@Component
+public class FlightRecordings implements InitializingBean, DisposableBean {
+
+    static final String CONTINUOUS = "continuous";
+    private static final String DUMP_FILE_PATTERN = "product-[A-Za-z0-9_-]*-\\d+-\\d+\\.jfr";
+
+    private final FlightRecorderProperties flightRecorderProperties;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    public FlightRecordings(FlightRecorderProperties flightRecorderProperties) {
+        this.flightRecorderProperties = flightRecorderProperties;
+    }
+
+    /**
+     * Dumps are deleted once they're streamed, so any left were never downloaded before a previous run stopped.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        deleteLeftDumps();
+        if (flightRecorderProperties.isContinuous()) {
+            RecordingInfo recording = start(CONTINUOUS, null);
+            log.info("Started the continuous flight recording {}", recording.id());
+        }
+    }
+
+    private void deleteLeftDumps() {
+        Path directory = Path.of(flightRecorderProperties.getDumpDirectory());
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().matches(DUMP_FILE_PATTERN))
+                .forEach(file -> {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        log.warn("Unable to delete the flight recording dump {}", file, e);
+                    }
+                });
+        } catch (IOException e) {
+            log.warn("Unable to list the flight recording dumps in {}", directory, e);
+        }
+    }
+
+    /**
+     * @param duration how long the recording runs, or null to run until it's stopped
+     *                 keeping the last "max-age" and "max-size" of it
+     * @throws IllegalArgumentException if the settings aren't a configuration of the JDK
+     */
+    public RecordingInfo start(String name, Duration duration) {
+        Recording recording = new Recording(configuration());
+        recording.setName(name);
+        recording.setToDisk(true);
+        if (duration != null) {
+            recording.setDuration(duration);
+        } else {
+            recording.setMaxAge(flightRecorderProperties.getMaxAge());
+            recording.setMaxSize(flightRecorderProperties.getMaxSize().toBytes());
+        }
+        recording.enable(ProductRequestEvent.class)
+            .withThreshold(flightRecorderProperties.getRequestThreshold());
+        recording.enable(ProductOperationEvent.class)
+            .withThreshold(flightRecorderProperties.getOperationThreshold());
+        recording.enable(ProductMessageSendEvent.class)
+            .withThreshold(flightRecorderProperties.getMessageSendThreshold());
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        return RecordingInfo.of(recording);
+    }
+
+    public List<RecordingInfo> list() {
+        return recordings.values().stream()
+            .sorted(Comparator.comparingLong(Recording::getId))
+            .map(RecordingInfo::of)
+            .toList();
+    }
+
+    public Optional<RecordingInfo> stop(long id) {
+        return Optional.ofNullable(recordings.get(id))
+            .map(recording -> {
+                if (recording.getState() == RecordingState.RUNNING) {
+                    recording.stop();
+                }
+                return RecordingInfo.of(recording);
+            });
+    }
+
+    /**
+     * A running recording is dumped as it is so far and keeps running.
+     *
+     * @return the file of the recording
+     */
+    public Optional<Path> dump(long id) {
+        return Optional.ofNullable(recordings.get(id))
+            .map(recording -> {
+                Path directory = Path.of(flightRecorderProperties.getDumpDirectory());
+                Path file = directory.resolve("product-%s-%d-%d.jfr"
+                    .formatted(recording.getName().replaceAll("[^A-Za-z0-9_-]", "_"), id, Instant.now().toEpochMilli()));
+                try {
+                    Files.createDirectories(directory);
+                    recording.dump(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to dump the recording " + id, e);
+                }
+                log.info("Dumped the flight recording {} to {}", id, file);
+                return file;
+            });
+    }
+
+    /**
+     * Stop the recording if it's running and discard its data.
+     */
+    public boolean close(long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    private Configuration configuration() {
+        try {
+            return Configuration.getConfiguration(flightRecorderProperties.getSettings());
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown flight recorder settings "
+                + flightRecorderProperties.getSettings(), e);
+        }
+    }
+
+    public record RecordingInfo(long id, String name, RecordingState state, Instant startTime, Duration duration,
+                                long size) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState(),
+                recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+}
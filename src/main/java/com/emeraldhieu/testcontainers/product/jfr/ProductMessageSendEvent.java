@@ -0,0 +1,37 @@
+package com.emeraldhieu.testcontainers.product.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A send of a product message, from the call to Kafka's acknowledgement or failure.
+ * It's committed on the producer's thread that completes the send.
+ */
+@Name("com.emeraldhieu.product.MessageSend")
+@Label("Product Message Send")
+@Category({"Product", "Kafka"})
+@Description("A product message sent to Kafka")
+@StackTrace(false)
+@Threshold("50 ms")
+public class ProductMessageSendEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partition")
+    public int partition = -1;
+
+    @Label("Offset")
+    public long offset = -1;
+
+    @Label("Product ID")
+    public String productId;
+
+    @Label("Exception")
+    public String exception;
+}
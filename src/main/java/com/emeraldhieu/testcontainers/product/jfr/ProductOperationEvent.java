@@ -0,0 +1,73 @@
+package com.emeraldhieu.testcontainers.product.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An operation of {@code DefaultProductService}. It runs inside the operation's transaction so the commit
+ * shows up in the {@link ProductRequestEvent} of the request rather than here.
+ */
+@Name("com.emeraldhieu.product.Operation")
+@Label("Product Operation")
+@Category({"Product", "Persistence"})
+@Description("An operation of the product service")
+@StackTrace(false)
+@Threshold("50 ms")
+public class ProductOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Product ID")
+    public String productId;
+
+    @Label("Exception")
+    public String exception;
+
+    /**
+     * A disabled event costs a check of {@link #isEnabled()}, which the JIT turns into a constant.
+     */
+    public static <T> T record(String operation, String productId, Supplier<T> work) {
+        return record(operation, productId, work, null);
+    }
+
+    /**
+     * @param productIdOf the ID of the product, from the result of an operation that generates it
+     */
+    public static <T> T record(String operation, Supplier<T> work, Function<T, String> productIdOf) {
+        return record(operation, null, work, productIdOf);
+    }
+
+    private static <T> T record(String operation, String productId, Supplier<T> work,
+                                Function<T, String> productIdOf) {
+        ProductOperationEvent event = new ProductOperationEvent();
+        if (!event.isEnabled()) {
+            return work.get();
+        }
+        event.begin();
+        T result = null;
+        try {
+            result = work.get();
+            return result;
+        } catch (RuntimeException e) {
+            event.exception = e.getClass().getName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                // There's no result when the operation fails.
+                event.productId = productIdOf != null && result != null ? productIdOf.apply(result) : productId;
+                event.commit();
+            }
+        }
+    }
+}
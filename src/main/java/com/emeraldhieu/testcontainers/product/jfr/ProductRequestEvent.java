@@ -0,0 +1,40 @@
+package com.emeraldhieu.testcontainers.product.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A request to "/products", from the first dispatch to the end of the last, asynchronous work included.
+ * The threshold keeps only the slow ones, so the event can be enabled all the time.
+ */
+@Name("com.emeraldhieu.product.Request")
+@Label("Product Request")
+@Category({"Product", "Web"})
+@Description("A request handled by ProductController")
+@StackTrace(false)
+@Threshold("100 ms")
+public class ProductRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Handler")
+    public String handler;
+
+    @Label("Product ID")
+    public String productId;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Exception")
+    public String exception;
+}
@@ -0,0 +1,42 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * A watermark of "GET /products/changes": the keyset (updatedAt, id) of the last change a client has seen.
+ * It's opaque to clients: "{epoch microseconds}:{id}" in URL-safe Base64.
+ */
+record ChangeToken(Instant updatedAt, long id) {
+
+    /**
+     * The watermark before any change.
+     */
+    static final ChangeToken START = new ChangeToken(Instant.EPOCH, 0);
+
+    static ChangeToken of(ProductChangeView change) {
+        return new ChangeToken(change.updatedAt(), change.id());
+    }
+
+    static ChangeToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            long epochMicros = Long.parseLong(decoded.substring(0, separator));
+            long id = Long.parseLong(decoded.substring(separator + 1));
+            return new ChangeToken(Instant.EPOCH.plus(epochMicros, ChronoUnit.MICROS), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidChangeTokenException(token);
+        }
+    }
+
+    String encode() {
+        String decoded = ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,17 +1,28 @@
 package com.emeraldhieu.testcontainers.product.logic;
 
+import com.emeraldhieu.testcontainers.product.bloom.ProductIdFilter;
+import com.emeraldhieu.testcontainers.product.config.ChangesProperties;
 import com.emeraldhieu.testcontainers.product.event.ProductCreatedEvent;
+import com.emeraldhieu.testcontainers.product.jfr.ProductOperationEvent;
+import com.emeraldhieu.testcontainers.product.logic.idempotency.IdempotencyRecord;
+import com.emeraldhieu.testcontainers.product.logic.idempotency.IdempotencyStore;
 import com.emeraldhieu.testcontainers.product.logic.mapping.ProductRequestMapper;
 import com.emeraldhieu.testcontainers.product.logic.mapping.ProductResponseMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 @Slf4j
 @Service
 @Transactional
@@ -22,14 +33,59 @@ public class DefaultProductService implements ProductService {
     private final ProductRequestMapper productRequestMapper;
     private final ProductResponseMapper productResponseMapper;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final ChangesProperties changesProperties;
+    private final ProductIdFilter productIdFilter;
+    private final IdempotencyStore idempotencyStore;
+    private final ProductBatchUpdater productBatchUpdater;
+    private final ProductKeysetReader productKeysetReader;
+    private final ProductCounter productCounter;
+    private final ProductCache productCache;
 
     @Override
     @Transactional
     public ProductResponse create(ProductRequest productRequest) {
-        Product productToSave = productRequestMapper.toEntity(productRequest);
-        Product savedProduct = productRepository.save(productToSave);
-        sendEvent(savedProduct);
-        return productResponseMapper.toDto(savedProduct);
+        return create(null, productRequest);
+    }
+
+    /**
+     * Create a product with an external ID chosen by the caller, such as a router that needs to know it up front.
+     * An ID is generated if it's null.
+     */
+    @Transactional
+    public ProductResponse create(String externalId, ProductRequest productRequest) {
+        return ProductOperationEvent.record("create", () -> {
+            Product productToSave = productRequestMapper.toEntity(productRequest);
+            if (externalId != null) {
+                productToSave.setExternalId(externalId);
+            }
+            Product savedProduct = productRepository.save(productToSave);
+            // Before the commit so a lookup never sees the product in the database but not in the filter.
+            productIdFilter.put(savedProduct.getExternalId());
+            sendEvent(savedProduct);
+            return productResponseMapper.toDto(savedProduct);
+        }, ProductResponse::getId);
+    }
+
+    @Override
+    @Transactional
+    public ProductResponse create(ProductRequest productRequest, String idempotencyKey) {
+        return create(null, productRequest, idempotencyKey);
+    }
+
+    /**
+     * The key is inserted before the product so a concurrent duplicate waits on it,
+     * and its response is written in the same transaction as the product.
+     */
+    @Transactional
+    public ProductResponse create(String externalId, ProductRequest productRequest, String idempotencyKey) {
+        Optional<ProductResponse> storedResponse = idempotencyStore.findResponse(idempotencyKey, productRequest);
+        if (storedResponse.isPresent()) {
+            return storedResponse.get();
+        }
+        IdempotencyRecord idempotencyRecord = idempotencyStore.reserve(idempotencyKey, productRequest);
+        ProductResponse productResponse = create(externalId, productRequest);
+        idempotencyStore.complete(idempotencyRecord, productResponse);
+        return productResponse;
     }
 
     private void sendEvent(Product product) {
@@ -45,36 +101,143 @@ public class DefaultProductService implements ProductService {
     @Override
     @Transactional
     public ProductResponse update(String id, ProductRequest productRequest) {
-        Product productToUpdate = productRepository.findByExternalId(id)
-            .map(currentProduct -> {
-                productRequestMapper.partialUpdate(currentProduct, productRequest);
-                return currentProduct;
-            })
-            .orElseThrow(() -> new ProductNotFoundException(id));
-        Product updatedProduct = productRepository.save(productToUpdate);
-        return productResponseMapper.toDto(updatedProduct);
+        return ProductOperationEvent.record("update", id, () -> {
+            checkMightExist(id);
+            Product productToUpdate = productRepository.findByNaturalId(id)
+                .map(currentProduct -> {
+                    productIdFilter.recordFound(id);
+                    productRequestMapper.partialUpdate(currentProduct, productRequest);
+                    return currentProduct;
+                })
+                .orElseThrow(() -> notFound(id));
+            Product updatedProduct = saveAndFlush(productToUpdate);
+            return productResponseMapper.toDto(updatedProduct);
+        });
+    }
+
+    /**
+     * Chunks run in their own transactions.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductUpdateResult> updateBatch(List<ProductUpdateRequest> updates) {
+        return ProductOperationEvent.record("updateBatch", null, () -> productBatchUpdater.update(updates));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductResponse> list(int offset, int limit) {
+    public Slice<ProductResponse> list(int offset, int limit) {
         Pageable pageable = PageRequest.of(offset, limit);
-        return productRepository.findAll(pageable)
-            .map(productResponseMapper::toDto);
+        return ProductOperationEvent.record("list", null, () -> productRepository.findAllViews(pageable)
+            .map(productResponseMapper::toDto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductKeysetPage listSorted(String sort, String after, int offset, int limit) {
+        ProductSort productSort = ProductSort.of(sort);
+        ProductCursor cursor = after != null ? ProductCursor.decode(after, productSort) : null;
+        return ProductOperationEvent.record("listSorted", null, () -> {
+            // Read one more to know if there's a next page.
+            List<ProductView> products = productKeysetReader.read(productSort, cursor, (long) offset * limit, limit + 1);
+            return ProductKeysetPage.of(productSort, products, limit, productResponseMapper::toDto);
+        });
+    }
+
+    /**
+     * The counter reads on its own connections.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count() {
+        return ProductOperationEvent.record("count", null, productCounter::count);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ProductResponse get(String id) {
-        return productRepository.findByExternalId(id)
-            .map(productResponseMapper::toDto)
-            .orElseThrow(() -> new ProductNotFoundException(id));
+        return ProductOperationEvent.record("get", id, () -> {
+            checkMightExist(id);
+            return productRepository.findViewByExternalId(id)
+                .map(productView -> {
+                    productIdFilter.recordFound(id);
+                    return productResponseMapper.toDto(productView);
+                })
+                .orElseThrow(() -> notFound(id));
+        });
+    }
+
+    /**
+     * A definite miss of the filter is answered without a query.
+     */
+    private void checkMightExist(String id) {
+        if (!productIdFilter.mightContain(id)) {
+            throw new ProductNotFoundException(id);
+        }
+    }
+
+    /**
+     * The filter let the ID through but there's no such product.
+     */
+    private ProductNotFoundException notFound(String id) {
+        productIdFilter.recordFalsePositive();
+        return new ProductNotFoundException(id);
+    }
+
+    /**
+     * Flush now so a version conflict is thrown here rather than at commit.
+     * The cached product was stale, so it's evicted for the retry to read the row.
+     */
+    private Product saveAndFlush(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            productCache.evict(List.of(product.getId()));
+            throw new ProductConflictException(product.getExternalId(), e);
+        }
     }
 
+    /**
+     * Keep the row as a tombstone so the deletion shows up in "listChanges".
+     * The product is changed through the entity rather than a bulk update, which would evict every cached product.
+     */
     @Override
     @Transactional
     public void delete(String id) {
-        productRepository.findByExternalId(id)
-            .ifPresent(product -> productRepository.deleteByExternalId(id));
+        ProductOperationEvent.record("delete", id, () -> {
+            productRepository.findByNaturalId(id)
+                .ifPresent(product -> {
+                    product.setDeleted(true);
+                    saveAndFlush(product);
+                });
+            return null;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangesResponse listChanges(String since, int limit) {
+        if (limit < 1) {
+            throw new InvalidLimitException(limit);
+        }
+        ChangeToken sinceToken = ChangeToken.decode(since);
+        int cappedLimit = Math.min(limit, changesProperties.getMaxLimit());
+        Instant until = Product.now().minus(changesProperties.getSettleWindow());
+        // Read one more to know if there's more.
+        List<ProductChangeView> changes = ProductOperationEvent.record("listChanges", null, () ->
+            productRepository.findChanges(sinceToken.updatedAt(), sinceToken.id(), until,
+                PageRequest.of(0, cappedLimit + 1)));
+        boolean hasMore = changes.size() > cappedLimit;
+        if (hasMore) {
+            changes = changes.subList(0, cappedLimit);
+        }
+        ChangeToken nextToken = changes.isEmpty() ? sinceToken : ChangeToken.of(changes.get(changes.size() - 1));
+        return ProductChangesResponse.builder()
+            .changes(changes.stream()
+                .map(productResponseMapper::toDto)
+                .toList())
+            .nextToken(nextToken.encode())
+            .hasMore(hasMore)
+            .build();
     }
 }
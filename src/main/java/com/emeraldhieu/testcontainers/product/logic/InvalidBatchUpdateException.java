@@ -0,0 +1,12 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBatchUpdateException extends RuntimeException {
+
+    public InvalidBatchUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidChangeTokenException extends RuntimeException {
+
+    private final String token;
+
+    public InvalidChangeTokenException(String token) {
+        super("Invalid change token " + token);
+        this.token = token;
+    }
+}
@@ -0,0 +1,17 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    private final String cursor;
+
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor " + cursor);
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,17 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidLimitException extends RuntimeException {
+
+    private final int limit;
+
+    public InvalidLimitException(int limit) {
+        super("Limit must be positive but was " + limit);
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,17 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSortException extends RuntimeException {
+
+    private final String sort;
+
+    public InvalidSortException(String sort) {
+        super("Unsupported sort " + sort);
+        this.sort = sort;
+    }
+}
@@ -6,7 +6,9 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,11 +16,24 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
+/**
+ * Products are kept in the second-level cache, and so are the mappings of their external IDs to their IDs,
+ * so loading one by {@link ProductRepository#findByNaturalId} needs no query when both are cached.
+ * Every pod has its own cache, so a cached product may be stale; {@link #version} makes a write of a stale one fail.
+ */
 @Entity
 @Table(name = "product")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+@NaturalIdCache(region = Product.NATURAL_ID_CACHE_REGION)
 @Getter
 @Setter
 @EqualsAndHashCode
@@ -27,11 +42,18 @@ import java.util.UUID;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class Product {
 
+    public static final String CACHE_REGION = "product";
+    public static final String NATURAL_ID_CACHE_REGION = "product-natural-id";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column
     private Long id;
 
+    /**
+     * It never changes once the product is inserted.
+     */
+    @NaturalId
     @Column(nullable = false)
     private String externalId;
 
@@ -41,6 +63,26 @@ public class Product {
     @Column(nullable = false)
     private double price;
 
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * A deleted product is kept as a tombstone for "GET /products/changes".
+     */
+    @Column(nullable = false)
+    private boolean deleted;
+
+    /**
+     * Bumped by every write, including the SQL ones of batch updates and imports,
+     * so an update of a product changed elsewhere since it was read fails rather than writing it back.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     /**
      * Set default value before persisting.
      * See https://stackoverflow.com/questions/197045/setting-default-values-for-columns-in-jpa#13432234
@@ -48,7 +90,25 @@ public class Product {
     @PrePersist
     void preInsert() {
         if (externalId == null) {
-            externalId = UUID.randomUUID().toString().replace("-", "");
+            externalId = newExternalId();
         }
+        createdAt = now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        updatedAt = now();
+    }
+
+    public static String newExternalId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * Postgres keeps microseconds so the timestamp is truncated to match what's read back.
+     */
+    static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.emeraldhieu.testcontainers.product.config.BatchUpdateProperties;
+import com.emeraldhieu.testcontainers.product.event.ProductsUpdatedEvent;
+import com.emeraldhieu.testcontainers.product.logic.mapping.ProductResponseMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies many partial updates with one set-based statement per chunk rather than a find and a save per product.
+ * + Each chunk is one transaction, so a failure affects only its chunk and row locks are held briefly
+ * + The chunk's rows are locked in the order of external IDs first, so concurrent batches can't deadlock
+ * + The updates are passed as arrays and joined with "unnest", so a chunk is one statement whatever its size
+ * + The products a chunk changed are published as one {@link ProductsUpdatedEvent}
+ *   and evicted from the second-level cache once the chunk commits
+ * When the same ID comes several times in a batch, the last update wins.
+ */
+@Slf4j
+@Component
+public class ProductBatchUpdater {
+
+    private static final String LOCK = """
+        SELECT id FROM product
+        WHERE external_id = ANY (?) AND NOT deleted
+        ORDER BY external_id
+        FOR UPDATE""";
+
+    /**
+     * A null name or price leaves the column unchanged like "partialUpdate" does.
+     */
+    private static final String UPDATE = """
+        UPDATE product p
+        SET name = coalesce(u.name, p.name), price = coalesce(u.price, p.price), updated_at = ?,
+            version = p.version + 1
+        FROM unnest(?, ?, ?) AS u(external_id, name, price)
+        WHERE p.external_id = u.external_id AND NOT p.deleted
+        RETURNING p.external_id, p.name, p.price""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductResponseMapper productResponseMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final BatchUpdateProperties batchUpdateProperties;
+    private final ProductCache productCache;
+
+    public ProductBatchUpdater(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ProductResponseMapper productResponseMapper,
+                               ApplicationEventPublisher applicationEventPublisher,
+                               BatchUpdateProperties batchUpdateProperties,
+                               ProductCache productCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productResponseMapper = productResponseMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.batchUpdateProperties = batchUpdateProperties;
+        this.productCache = productCache;
+    }
+
+    /**
+     * @return a result per item, in the order of the items
+     */
+    public List<ProductUpdateResult> update(List<ProductUpdateRequest> updates) {
+        validate(updates);
+        Map<String, ProductRequest> lastUpdates = new LinkedHashMap<>();
+        for (ProductUpdateRequest update : updates) {
+            lastUpdates.remove(update.getId());
+            lastUpdates.put(update.getId(), update.getProduct());
+        }
+        List<String> ids = new ArrayList<>(lastUpdates.keySet());
+        Map<String, ProductView> updatedProducts = new HashMap<>();
+        int chunkSize = batchUpdateProperties.getChunkSize();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            List<Long> lockedIds = new ArrayList<>(chunk.size());
+            transactionTemplate.executeWithoutResult(status -> updateChunk(chunk, lastUpdates, lockedIds)
+                .forEach(product -> updatedProducts.put(product.externalId(), product)));
+            productCache.evict(lockedIds);
+        }
+        log.info("Updated {} of {} products in a batch", updatedProducts.size(), ids.size());
+
+        return updates.stream()
+            .map(update -> {
+                ProductView product = updatedProducts.get(update.getId());
+                return ProductUpdateResult.builder()
+                    .id(update.getId())
+                    .status(product != null ? ProductUpdateResult.Status.UPDATED : ProductUpdateResult.Status.NOT_FOUND)
+                    .product(product != null ? productResponseMapper.toDto(product) : null)
+                    .build();
+            })
+            .toList();
+    }
+
+    /**
+     * @throws InvalidBatchUpdateException if the batch is too big or an item lacks its ID or product
+     */
+    public void validate(List<ProductUpdateRequest> updates) {
+        if (updates.size() > batchUpdateProperties.getMaxItems()) {
+            throw new InvalidBatchUpdateException("A batch has up to %d items but got %d"
+                .formatted(batchUpdateProperties.getMaxItems(), updates.size()));
+        }
+        for (ProductUpdateRequest update : updates) {
+            if (update.getId() == null || update.getProduct() == null) {
+                throw new InvalidBatchUpdateException("Every item needs an ID and a product");
+            }
+        }
+    }
+
+    /**
+     * @param lockedIds receives the IDs of the locked rows, which are the rows the update may change
+     */
+    private List<ProductView> updateChunk(List<String> chunk, Map<String, ProductRequest> lastUpdates,
+                                          List<Long> lockedIds) {
+        List<ProductView> updatedProducts = jdbcTemplate.execute((ConnectionCallback<List<ProductView>>) connection -> {
+            String[] externalIds = chunk.toArray(String[]::new);
+            String[] names = new String[externalIds.length];
+            Double[] prices = new Double[externalIds.length];
+            for (int i = 0; i < externalIds.length; i++) {
+                ProductRequest productRequest = lastUpdates.get(externalIds[i]);
+                names[i] = productRequest.getName();
+                prices[i] = productRequest.getPrice();
+            }
+            Array externalIdArray = connection.createArrayOf("varchar", externalIds);
+            lockedIds.addAll(lock(connection, externalIdArray));
+            return update(connection, externalIdArray, connection.createArrayOf("varchar", names),
+                connection.createArrayOf("float8", prices));
+        });
+        if (!updatedProducts.isEmpty()) {
+            applicationEventPublisher.publishEvent(ProductsUpdatedEvent.builder()
+                .products(updatedProducts.stream()
+                    .map(product -> new ProductsUpdatedEvent.UpdatedProduct(
+                        product.externalId(), product.name(), product.price()))
+                    .toList())
+                .build());
+        }
+        return updatedProducts;
+    }
+
+    private static List<Long> lock(Connection connection, Array externalIds) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(LOCK)) {
+            statement.setArray(1, externalIds);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<ProductView> update(Connection connection, Array externalIds, Array names, Array prices)
+        throws SQLException {
+        List<ProductView> updatedProducts = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+            statement.setObject(1, Product.now().atOffset(ZoneOffset.UTC));
+            statement.setArray(2, externalIds);
+            statement.setArray(3, names);
+            statement.setArray(4, prices);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    updatedProducts.add(new ProductView(resultSet.getString(1), resultSet.getString(2),
+                        resultSet.getDouble(3)));
+                }
+            }
+        }
+        return updatedProducts;
+    }
+}
@@ -0,0 +1,31 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Evicts products from Hibernate's second-level cache after they are written with SQL rather than through the entity.
+ * Eviction is done after the write commits: evicting earlier would let a concurrent read cache the old row again.
+ * It does nothing if the cache is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(Collection<Long> ids) {
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        ids.forEach(id -> cache.evict(Product.class, id));
+    }
+
+    /**
+     * External IDs never change so the natural ID region stays valid.
+     */
+    public void evictAll() {
+        entityManagerFactory.getCache().evict(Product.class);
+    }
+}
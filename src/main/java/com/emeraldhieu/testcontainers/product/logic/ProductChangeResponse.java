@@ -0,0 +1,36 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+
+@Builder(toBuilder = true)
+@Getter
+@Jacksonized
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class ProductChangeResponse {
+
+    @JsonProperty("id")
+    private final String id;
+
+    /**
+     * Null if the product is deleted.
+     */
+    @JsonProperty("name")
+    private final String name;
+
+    @JsonProperty("price")
+    private final Double price;
+
+    @JsonProperty("deleted")
+    private final boolean deleted;
+
+    @JsonProperty("updatedAt")
+    private final Instant updatedAt;
+}
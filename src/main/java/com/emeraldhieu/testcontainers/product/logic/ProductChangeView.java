@@ -0,0 +1,10 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import java.time.Instant;
+
+/**
+ * A product change read by "GET /products/changes". "id" is the internal ID, the tie-breaker of the keyset.
+ */
+public record ProductChangeView(long id, String externalId, String name, double price, boolean deleted,
+                                Instant updatedAt) {
+}
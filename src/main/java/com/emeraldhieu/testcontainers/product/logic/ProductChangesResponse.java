@@ -0,0 +1,33 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+@Builder(toBuilder = true)
+@Getter
+@Jacksonized
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class ProductChangesResponse {
+
+    @JsonProperty("changes")
+    private final List<ProductChangeResponse> changes;
+
+    /**
+     * Pass it as "since" of the next call. It's the same token if there's no change.
+     */
+    @JsonProperty("nextToken")
+    private final String nextToken;
+
+    /**
+     * True if more changes are ready so the next call can be made right away.
+     */
+    @JsonProperty("hasMore")
+    private final boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The product was changed by someone else since it was read. The client can read it again and retry.
+ */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ProductConflictException extends RuntimeException {
+
+    private final String productId;
+
+    public ProductConflictException(String productId, Throwable cause) {
+        super(cause);
+        this.productId = productId;
+    }
+}
@@ -1,19 +1,27 @@
 package com.emeraldhieu.testcontainers.product.logic;
 
+import com.emeraldhieu.testcontainers.product.logic.idempotency.IdempotentProductCreator;
+import com.emeraldhieu.testcontainers.product.web.HandlerExecutor;
+import com.emeraldhieu.testcontainers.product.web.ProductAvroHttpMessageConverter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Validated
@@ -22,20 +30,34 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductService productService;
+    private final IdempotentProductCreator idempotentProductCreator;
+    private final HandlerExecutor handlerExecutor;
+    private final ProductWriteCoalescer productWriteCoalescer;
     static final String PRODUCT_PATTERN = "/products/%s";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
 
+    /**
+     * The body is read and validated on the request thread, the product is created on the {@link HandlerExecutor}.
+     */
     @RequestMapping(
         method = RequestMethod.POST,
         value = "/products",
-        produces = {"application/json"},
-        consumes = {"application/json"}
+        produces = {"application/json", ProductAvroHttpMessageConverter.APPLICATION_AVRO_VALUE},
+        consumes = {"application/json", ProductAvroHttpMessageConverter.APPLICATION_AVRO_VALUE}
     )
-    public ResponseEntity<ProductResponse> createProduct(
-        @Valid @RequestBody ProductRequest productRequest
+    public CompletableFuture<ResponseEntity<ProductResponse>> createProduct(
+        @Valid @RequestBody ProductRequest productRequest,
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
-        ProductResponse createdProduct = productService.create(productRequest);
-        return ResponseEntity.created(URI.create(String.format(PRODUCT_PATTERN, createdProduct.getId())))
-            .body(createdProduct);
+        return handlerExecutor.supply(() -> {
+            // A retry with the same key gets the first response rather than another product.
+            ProductResponse createdProduct = idempotencyKey != null
+                ? idempotentProductCreator.create(idempotencyKey, productRequest)
+                : productService.create(productRequest);
+            return ResponseEntity.created(URI.create(String.format(PRODUCT_PATTERN, createdProduct.getId())))
+                .body(createdProduct);
+        });
     }
 
     @RequestMapping(
@@ -52,41 +74,121 @@ public class ProductController {
     @RequestMapping(
         method = RequestMethod.GET,
         value = "/products/{id}",
-        produces = {"application/json"}
+        produces = {"application/json", ProductAvroHttpMessageConverter.APPLICATION_AVRO_VALUE}
     )
-    public ResponseEntity<ProductResponse> getProduct(
+    public CompletableFuture<ResponseEntity<ProductResponse>> getProduct(
         @PathVariable("id") String id
     ) {
-        ProductResponse retrievedProduct = productService.get(id);
-        return ResponseEntity.ok(retrievedProduct);
+        return handlerExecutor.supply(() -> {
+            ProductResponse retrievedProduct = productService.get(id);
+            return ResponseEntity.ok(retrievedProduct);
+        });
     }
 
+    /**
+     * Products are counted only if "total" is set, then the count is in the header "X-Total-Count".
+     * It may be approximate or a little stale, see {@link ProductCounter}.
+     */
     @RequestMapping(
         method = RequestMethod.GET,
         value = "/products",
-        produces = {"application/json"}
+        produces = {"application/json", ProductAvroHttpMessageConverter.APPLICATION_AVRO_VALUE}
     )
-    public ResponseEntity<List<ProductResponse>> listProducts(
+    public CompletableFuture<ResponseEntity<List<ProductResponse>>> listProducts(
         @Valid @RequestParam(value = "offset", required = false, defaultValue = "0") Integer offset,
-        @Valid @RequestParam(value = "limit", required = false, defaultValue = "10") Integer limit
+        @Valid @RequestParam(value = "limit", required = false, defaultValue = "10") Integer limit,
+        @RequestParam(value = "sort", required = false) String sort,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "total", required = false, defaultValue = "false") boolean total
+    ) {
+        if (sort == null && after != null) {
+            throw new InvalidCursorException(after);
+        }
+        // The current request is bound to the request thread, not to the executor's.
+        UriComponentsBuilder currentRequest = sort != null ? ServletUriComponentsBuilder.fromCurrentRequest() : null;
+        return handlerExecutor.supply(() -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (total) {
+                response.header(TOTAL_COUNT_HEADER, String.valueOf(productService.count()));
+            }
+            if (sort != null) {
+                return listSortedProducts(response, currentRequest, sort, after, offset, limit);
+            }
+            Slice<ProductResponse> productResponseSlice = productService.list(offset, limit);
+            List<ProductResponse> productResponses = productResponseSlice.stream()
+                .collect(Collectors.toList());
+            return response.body(productResponses);
+        });
+    }
+
+    /**
+     * The link to the next page carries a cursor so the next page is read from where this one ended
+     * rather than by skipping rows.
+     * See https://www.rfc-editor.org/rfc/rfc8288
+     */
+    private ResponseEntity<List<ProductResponse>> listSortedProducts(ResponseEntity.BodyBuilder response,
+                                                                     UriComponentsBuilder currentRequest,
+                                                                     String sort, String after, int offset, int limit) {
+        ProductKeysetPage page = productService.listSorted(sort, after, offset, limit);
+        if (page.nextCursor() != null) {
+            String next = currentRequest
+                .replaceQueryParam("offset")
+                .replaceQueryParam("after", page.nextCursor())
+                .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.products());
+    }
+
+    /**
+     * Only products changed after "since" are returned, deletions included, so a mirror reads only the delta.
+     */
+    @RequestMapping(
+        method = RequestMethod.GET,
+        value = "/products/changes",
+        produces = "application/json"
+    )
+    public ResponseEntity<ProductChangesResponse> listProductChanges(
+        @RequestParam(value = "since", required = false) String since,
+        @Valid @RequestParam(value = "limit", required = false, defaultValue = "100") Integer limit
+    ) {
+        return ResponseEntity.ok(productService.listChanges(since, limit));
+    }
+
+    /**
+     * Update many products at once, with a result per item in the order of the items.
+     * An item whose product doesn't exist gets "NOT_FOUND" rather than failing the batch.
+     */
+    @RequestMapping(
+        method = RequestMethod.PATCH,
+        value = "/products:batch",
+        produces = "application/json",
+        consumes = "application/json"
+    )
+    public ResponseEntity<List<ProductUpdateResult>> updateProducts(
+        @RequestBody List<ProductUpdateRequest> updates
     ) {
-        Page<ProductResponse> productResponsePage = productService.list(offset, limit);
-        List<ProductResponse> productResponses = productResponsePage.stream()
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(productResponses);
+        return ResponseEntity.ok(productService.updateBatch(updates));
     }
 
+    /**
+     * With write coalescing, the update waits for the end of the window without holding a thread.
+     */
     @RequestMapping(
         method = RequestMethod.PATCH,
         value = "/products/{id}",
-        produces = {"application/json"},
-        consumes = {"application/json"}
+        produces = {"application/json", ProductAvroHttpMessageConverter.APPLICATION_AVRO_VALUE},
+        consumes = {"application/json", ProductAvroHttpMessageConverter.APPLICATION_AVRO_VALUE}
     )
-    public ResponseEntity<ProductResponse> updateProduct(
+    public CompletableFuture<ResponseEntity<ProductResponse>> updateProduct(
         @PathVariable("id") String id,
         @Valid @RequestBody ProductRequest productRequest
     ) {
+        if (productWriteCoalescer.isEnabled()) {
+            return productWriteCoalescer.update(id, productRequest)
+                .thenApply(ResponseEntity::ok);
+        }
         ProductResponse updatedProduct = productService.update(id, productRequest);
-        return ResponseEntity.ok(updatedProduct);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(updatedProduct));
     }
 }
@@ -0,0 +1,140 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.emeraldhieu.testcontainers.product.config.ProductCountProperties;
+import com.emeraldhieu.testcontainers.product.sharding.ShardDataSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the products that aren't deleted, across every shard if the catalog is sharded.
+ * How it counts is set by {@link ProductCountProperties.Strategy}.
+ */
+@Slf4j
+@Component
+public class ProductCounter {
+
+    private static final String COUNT_QUERY = "SELECT count(*) FROM product WHERE NOT deleted";
+
+    /**
+     * The planner scales the row count of the last ANALYZE by the current size of the table,
+     * and applies the selectivity of "NOT deleted".
+     */
+    private static final String ESTIMATE_QUERY = "EXPLAIN SELECT 1 FROM product WHERE NOT deleted";
+    private static final Pattern ESTIMATED_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final ProductCountProperties properties;
+    private final DataSource dataSource;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+    private final Timer exactCountTimer;
+
+    /**
+     * -1 until the first count, and again once counts are no longer requested.
+     */
+    private volatile long cachedCount = -1;
+
+    private volatile long lastRequestNanos;
+
+    public ProductCounter(ProductCountProperties properties,
+                          DataSource dataSource,
+                          ObjectProvider<ShardDataSources> shardDataSources,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.shardDataSources = shardDataSources;
+        exactCountTimer = Timer.builder("product.count.exact")
+            .description("Duration of counting the products exactly")
+            .register(meterRegistry);
+    }
+
+    public long count() {
+        return switch (properties.getStrategy()) {
+            case EXACT -> countExactly();
+            case APPROXIMATE -> estimate();
+            case CACHED -> {
+                lastRequestNanos = System.nanoTime();
+                long count = cachedCount;
+                if (count < 0) {
+                    count = countExactly();
+                    cachedCount = count;
+                }
+                yield count;
+            }
+        };
+    }
+
+    /**
+     * The exact count scans the table, so it's only refreshed while counts are requested.
+     */
+    @Scheduled(fixedDelayString = "${application.product-count.refresh-interval:PT1M}")
+    public void refresh() {
+        if (properties.getStrategy() != ProductCountProperties.Strategy.CACHED || cachedCount < 0) {
+            return;
+        }
+        if (System.nanoTime() - lastRequestNanos > properties.getIdleTimeout().toNanos()) {
+            cachedCount = -1;
+            return;
+        }
+        cachedCount = countExactly();
+    }
+
+    private long countExactly() {
+        Timer.Sample sample = Timer.start();
+        try {
+            return sumOverSources(COUNT_QUERY, resultSet -> resultSet.getLong(1));
+        } finally {
+            sample.stop(exactCountTimer);
+        }
+    }
+
+    private long estimate() {
+        return sumOverSources(ESTIMATE_QUERY, resultSet -> {
+            // The first line is the top node of the plan.
+            Matcher matcher = ESTIMATED_ROWS.matcher(resultSet.getString(1));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+        });
+    }
+
+    private long sumOverSources(String query, RowReader rowReader) {
+        long sum = 0;
+        for (DataSource source : sources()) {
+            try (Connection connection = source.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(query)) {
+                sum += resultSet.next() ? rowReader.read(resultSet) : 0;
+                // The pool doesn't auto-commit.
+                connection.commit();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Unable to count the products", e);
+            }
+        }
+        return sum;
+    }
+
+    private List<DataSource> sources() {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null) {
+            return List.of(dataSource);
+        }
+        return shards.getNames().stream()
+            .map(shards::get)
+            .toList();
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        long read(ResultSet resultSet) throws SQLException;
+    }
+}
@@ -0,0 +1,37 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The position of "GET /products?sort=" after the last product of a page: its sort key and its external ID.
+ * It's opaque to clients: "{sort}:{external ID}:{sort key}" in URL-safe Base64.
+ * The sort key comes last because a name may contain ":".
+ */
+public record ProductCursor(ProductSort sort, Object key, String externalId) {
+
+    public static ProductCursor of(ProductSort sort, ProductView product) {
+        return new ProductCursor(sort, sort.keyOf(product), product.externalId());
+    }
+
+    /**
+     * @throws InvalidCursorException if the cursor is malformed or belongs to another sort
+     */
+    public static ProductCursor decode(String cursor, ProductSort sort) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(sort.getParameter())) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new ProductCursor(sort, sort.parseKey(parts[2]), parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public String encode() {
+        String decoded = sort.getParameter() + ":" + externalId + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
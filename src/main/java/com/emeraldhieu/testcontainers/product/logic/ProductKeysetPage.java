@@ -0,0 +1,23 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of the sorted "GET /products".
+ *
+ * @param nextCursor pass it as "after" to read the next page, null if this is the last page
+ */
+public record ProductKeysetPage(List<ProductResponse> products, String nextCursor) {
+
+    /**
+     * @param products up to limit + 1 products, the extra one tells there's a next page
+     */
+    public static ProductKeysetPage of(ProductSort sort, List<ProductView> products, int limit,
+                                       Function<ProductView, ProductResponse> mapper) {
+        boolean hasMore = products.size() > limit;
+        List<ProductView> page = hasMore ? products.subList(0, limit) : products;
+        String nextCursor = hasMore ? ProductCursor.of(sort, page.get(page.size() - 1)).encode() : null;
+        return new ProductKeysetPage(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
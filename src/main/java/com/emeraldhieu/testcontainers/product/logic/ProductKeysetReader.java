@@ -0,0 +1,33 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reads sorted pages of products with the queries of {@link ProductSort}, which the covering indexes answer
+ * with index-only scans. It joins the current transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductKeysetReader {
+
+    private static final RowMapper<ProductView> PRODUCT_VIEW_MAPPER = (resultSet, rowNumber) ->
+        new ProductView(resultSet.getString(1), resultSet.getString(2), resultSet.getDouble(3));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param after  the cursor to continue from, or null to start from "offset"
+     * @param offset rows to skip, ignored with a cursor
+     */
+    public List<ProductView> read(ProductSort sort, ProductCursor after, long offset, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(sort.firstPageQuery(), PRODUCT_VIEW_MAPPER, limit, offset);
+        }
+        return jdbcTemplate.query(sort.nextPageQuery(), PRODUCT_VIEW_MAPPER, after.key(), after.externalId(), limit);
+    }
+}
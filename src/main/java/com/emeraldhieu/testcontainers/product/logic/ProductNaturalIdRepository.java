@@ -0,0 +1,16 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import java.util.Optional;
+
+/**
+ * A fragment of {@link ProductRepository} that loads products by their natural ID.
+ * See https://docs.spring.io/spring-data/jpa/docs/3.0.0/reference/html/#repositories.custom-implementations
+ */
+public interface ProductNaturalIdRepository {
+
+    /**
+     * Unlike a query, it's answered by the second-level cache when the product is cached.
+     * @return the product if it exists and isn't deleted
+     */
+    Optional<Product> findByNaturalId(String externalId);
+}
@@ -0,0 +1,24 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class ProductNaturalIdRepositoryImpl implements ProductNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * A deleted product is a tombstone which is cached like any other product, so it's filtered here.
+     */
+    @Override
+    public Optional<Product> findByNaturalId(String externalId) {
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(Product.class)
+            .loadOptional(externalId)
+            .filter(product -> !product.isDeleted());
+    }
+}
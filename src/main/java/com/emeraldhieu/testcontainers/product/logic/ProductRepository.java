@@ -1,18 +1,79 @@
 package com.emeraldhieu.testcontainers.product.logic;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends ListCrudRepository<Product, Long>,
     PagingAndSortingRepository<Product, Long>,
-    JpaSpecificationExecutor<Product> {
+    JpaSpecificationExecutor<Product>,
+    ProductNaturalIdRepository {
 
-    Optional<Product> findByExternalId(String externalId);
+    /**
+     * Read a product as a DTO projection.
+     * Flush mode MANUAL skips the auto-flush Hibernate does before running a query.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("select new com.emeraldhieu.testcontainers.product.logic.ProductView(p.externalId, p.name, p.price)"
+        + " from Product p where p.externalId = :externalId and p.deleted = false")
+    Optional<ProductView> findViewByExternalId(@Param("externalId") String externalId);
 
-    void deleteByExternalId(String externalId);
+    /**
+     * Read a slice of products as DTO projections.
+     * A slice reads one more row to know if there's a next slice instead of counting every product.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("select new com.emeraldhieu.testcontainers.product.logic.ProductView(p.externalId, p.name, p.price)"
+        + " from Product p where p.deleted = false")
+    Slice<ProductView> findAllViews(Pageable pageable);
+
+    /**
+     * Read a chunk of products after an external ID, in the order of external IDs.
+     * It's the per-shard keyset of the merged "GET /products" of a sharded catalog.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("select new com.emeraldhieu.testcontainers.product.logic.ProductView(p.externalId, p.name, p.price)"
+        + " from Product p where p.deleted = false and p.externalId > :after order by p.externalId")
+    List<ProductView> findViewsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Read products changed after the keyset (since, sinceId), including tombstones, in keyset order.
+     * "updatedAt >= since" bounds the scan of index "product_updated_at_id_idx".
+     * Rows changed at or after "until" are left for the next call because their transactions may not be committed yet.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("select new com.emeraldhieu.testcontainers.product.logic.ProductChangeView("
+        + "p.id, p.externalId, p.name, p.price, p.deleted, p.updatedAt)"
+        + " from Product p"
+        + " where p.updatedAt >= :since and (p.updatedAt > :since or p.id > :sinceId) and p.updatedAt < :until"
+        + " order by p.updatedAt, p.id")
+    List<ProductChangeView> findChanges(@Param("since") Instant since,
+                                        @Param("sinceId") long sinceId,
+                                        @Param("until") Instant until,
+                                        Pageable pageable);
 }
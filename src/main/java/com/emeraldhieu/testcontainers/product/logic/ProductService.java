@@ -1,6 +1,8 @@
 package com.emeraldhieu.testcontainers.product.logic;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 /**
  * An interface that inverses the dependency between the controller and the concrete service class.
@@ -14,11 +16,41 @@ public interface ProductService {
 
     ProductResponse create(ProductRequest productRequest);
 
+    /**
+     * Create a product once per idempotency key: a request with a key that's already stored gets the stored response.
+     */
+    ProductResponse create(ProductRequest productRequest, String idempotencyKey);
+
     ProductResponse update(String id, ProductRequest productRequest);
 
-    Page<ProductResponse> list(int offset, int limit);
+    /**
+     * Update many products with set-based statements.
+     * @return a result per update, in the order of the updates
+     */
+    List<ProductUpdateResult> updateBatch(List<ProductUpdateRequest> updates);
+
+    /**
+     * A slice doesn't count the products, see {@link #count()}.
+     */
+    Slice<ProductResponse> list(int offset, int limit);
+
+    /**
+     * @param sort   one of {@link ProductSort}'s parameters
+     * @param after  a cursor of a previous page, or null to start from the page "offset"
+     */
+    ProductKeysetPage listSorted(String sort, String after, int offset, int limit);
+
+    /**
+     * @return the number of products, exact or not depending on {@link ProductCounter}'s strategy
+     */
+    long count();
 
     ProductResponse get(String id);
 
     void delete(String id);
+
+    /**
+     * @param since a token returned by a previous call, or null to start from the beginning
+     */
+    ProductChangesResponse listChanges(String since, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * The sorts "GET /products" supports. Only these are accepted so every sort is backed by a covering index
+ * of changelog v5; an arbitrary sort would scan and sort the whole table.
+ * The external ID breaks ties so the order is total, which keyset continuation needs.
+ */
+public enum ProductSort {
+
+    NAME("name", "name COLLATE \"C\"", false, Comparator.comparing(ProductView::name, ProductSort::compareCodePoints),
+        ProductView::name),
+    PRICE("price", "price", false, Comparator.comparingDouble(ProductView::price), ProductView::price),
+    PRICE_DESC("-price", "price", true, Comparator.comparingDouble(ProductView::price), ProductView::price);
+
+    private static final String SELECT = "SELECT external_id, name, price FROM product WHERE NOT deleted";
+
+    private final String parameter;
+    private final String column;
+    private final boolean descending;
+    private final Comparator<ProductView> comparator;
+    private final Function<ProductView, Object> key;
+
+    ProductSort(String parameter, String column, boolean descending,
+                Comparator<ProductView> comparator, Function<ProductView, Object> key) {
+        this.parameter = parameter;
+        this.column = column;
+        this.descending = descending;
+        Comparator<ProductView> totalOrder = comparator.thenComparing(ProductView::externalId);
+        this.comparator = descending ? totalOrder.reversed() : totalOrder;
+        this.key = key;
+    }
+
+    /**
+     * The order of "COLLATE \"C\"", which compares UTF-8 bytes and so code points.
+     * {@link String#compareTo} compares UTF-16 units, which puts a supplementary character
+     * before U+E000 to U+FFFF.
+     */
+    static int compareCodePoints(String left, String right) {
+        int leftIndex = 0;
+        int rightIndex = 0;
+        while (leftIndex < left.length() && rightIndex < right.length()) {
+            int leftCodePoint = left.codePointAt(leftIndex);
+            int rightCodePoint = right.codePointAt(rightIndex);
+            if (leftCodePoint != rightCodePoint) {
+                return Integer.compare(leftCodePoint, rightCodePoint);
+            }
+            leftIndex += Character.charCount(leftCodePoint);
+            rightIndex += Character.charCount(rightCodePoint);
+        }
+        return Boolean.compare(leftIndex < left.length(), rightIndex < right.length());
+    }
+
+    /**
+     * @param parameter the value of the query parameter "sort"
+     */
+    public static ProductSort of(String parameter) {
+        return Arrays.stream(values())
+            .filter(sort -> sort.parameter.equals(parameter))
+            .findFirst()
+            .orElseThrow(() -> new InvalidSortException(parameter));
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * The order of the query, for merging pages of several databases.
+     */
+    public Comparator<ProductView> comparator() {
+        return comparator;
+    }
+
+    Object keyOf(ProductView product) {
+        return key.apply(product);
+    }
+
+    Object parseKey(String key) {
+        return this == NAME ? key : Double.valueOf(key);
+    }
+
+    /**
+     * Parameters: limit, offset.
+     */
+    public String firstPageQuery() {
+        return SELECT + orderBy() + " LIMIT ? OFFSET ?";
+    }
+
+    /**
+     * Parameters: the cursor's sort key, the cursor's external ID, limit.
+     * The row comparison is a single range condition on the index.
+     */
+    public String nextPageQuery() {
+        return SELECT + " AND (%s, external_id) %s (?, ?)".formatted(column, descending ? "<" : ">")
+            + orderBy() + " LIMIT ?";
+    }
+
+    private String orderBy() {
+        String direction = descending ? " DESC" : "";
+        return " ORDER BY " + column + direction + ", external_id" + direction;
+    }
+}
@@ -0,0 +1,25 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * An item of "PATCH /products:batch". Null fields of "product" are left unchanged like "PATCH /products/{id}" does.
+ */
+@Builder(toBuilder = true)
+@Getter
+@Jacksonized
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class ProductUpdateRequest {
+
+    @JsonProperty("id")
+    private final String id;
+
+    @JsonProperty("product")
+    private final ProductRequest product;
+}
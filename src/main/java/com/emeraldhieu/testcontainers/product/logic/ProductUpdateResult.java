@@ -0,0 +1,36 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * The result of an item of "PATCH /products:batch".
+ */
+@Builder(toBuilder = true)
+@Getter
+@Jacksonized
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class ProductUpdateResult {
+
+    @JsonProperty("id")
+    private final String id;
+
+    @JsonProperty("status")
+    private final Status status;
+
+    /**
+     * The product after the update. It's null if the product isn't found.
+     */
+    @JsonProperty("product")
+    private final ProductResponse product;
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND
+    }
+}
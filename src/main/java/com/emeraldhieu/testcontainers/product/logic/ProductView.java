@@ -0,0 +1,10 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+/**
+ * A read-only projection of {@link Product}.
+ * It's created by a JPQL constructor expression so reads don't load managed entities
+ * into the persistence context, which skips dirty-checking snapshots.
+ * See https://vladmihalcea.com/the-best-way-to-map-a-projection-query-to-a-dto-with-jpa-and-hibernate/
+ */
+public record ProductView(String externalId, String name, double price) {
+}
@@ -0,0 +1,157 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.emeraldhieu.testcontainers.product.config.WriteCoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A write-behind buffer of "PATCH /products/{id}" for products that are updated many times within milliseconds.
+ * + Updates of the same product within a window are merged field by field, the last non-null value wins
+ *   like "partialUpdate" does
+ * + At the end of the window, every product gathered is written by {@link ProductService#updateBatch},
+ *   which locks the rows in order and updates them with one statement
+ * + Every caller of a product gets the product as written, including the updates merged after its own
+ * Flushes run one at a time on a single thread, so the updates of a product are written in the order they came.
+ */
+@Slf4j
+@Component
+public class ProductWriteCoalescer implements DisposableBean {
+
+    private final ProductService productService;
+    private final WriteCoalescingProperties writeCoalescingProperties;
+    private final ScheduledExecutorService scheduler;
+    private final Counter mergedUpdates;
+    private final DistributionSummary flushedProducts;
+
+    private final Object lock = new Object();
+    private Map<String, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+
+    public ProductWriteCoalescer(ProductService productService,
+                                 WriteCoalescingProperties writeCoalescingProperties,
+                                 MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.writeCoalescingProperties = writeCoalescingProperties;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "product-write-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The flush submitted on shutdown writes what's waiting, the flushes still scheduled have nothing left.
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler = executor;
+        mergedUpdates = Counter.builder("product.coalescing.merged")
+            .description("Updates merged into an update of the same product that was already waiting")
+            .register(meterRegistry);
+        flushedProducts = DistributionSummary.builder("product.coalescing.flushed")
+            .description("Products written by one flush")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return writeCoalescingProperties.isEnabled();
+    }
+
+    /**
+     * @return the product as written, or a {@link ProductNotFoundException} if there's no such product
+     */
+    public CompletableFuture<ProductResponse> update(String id, ProductRequest productRequest) {
+        CompletableFuture<ProductResponse> future = new CompletableFuture<>();
+        boolean firstOfWindow;
+        boolean full;
+        synchronized (lock) {
+            firstOfWindow = pendingUpdates.isEmpty();
+            PendingUpdate pendingUpdate = pendingUpdates.get(id);
+            if (pendingUpdate == null) {
+                pendingUpdates.put(id, new PendingUpdate(productRequest, future));
+            } else {
+                pendingUpdate.merge(productRequest, future);
+                mergedUpdates.increment();
+            }
+            full = pendingUpdates.size() >= writeCoalescingProperties.getMaxProducts();
+        }
+        if (full) {
+            scheduler.execute(this::flush);
+        } else if (firstOfWindow) {
+            scheduler.schedule(this::flush, writeCoalescingProperties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * A flush scheduled for a window that an earlier flush already took finds nothing or ends the next window early.
+     */
+    void flush() {
+        Map<String, PendingUpdate> updates;
+        synchronized (lock) {
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            updates = pendingUpdates;
+            pendingUpdates = new LinkedHashMap<>();
+        }
+        flushedProducts.record(updates.size());
+        try {
+            List<ProductUpdateResult> results = productService.updateBatch(updates.entrySet().stream()
+                .map(entry -> ProductUpdateRequest.builder()
+                    .id(entry.getKey())
+                    .product(entry.getValue().productRequest)
+                    .build())
+                .toList());
+            for (ProductUpdateResult result : results) {
+                PendingUpdate pendingUpdate = updates.get(result.getId());
+                if (result.getStatus() == ProductUpdateResult.Status.UPDATED) {
+                    pendingUpdate.futures.forEach(future -> future.complete(result.getProduct()));
+                } else {
+                    pendingUpdate.futures.forEach(future ->
+                        future.completeExceptionally(new ProductNotFoundException(result.getId())));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Unable to write {} coalesced updates", updates.size(), e);
+            updates.values().forEach(pendingUpdate ->
+                pendingUpdate.futures.forEach(future -> future.completeExceptionally(e)));
+        }
+    }
+
+    /**
+     * Write what's waiting before the application context closes the database.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.execute(this::flush);
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static class PendingUpdate {
+
+        private ProductRequest productRequest;
+        private final List<CompletableFuture<ProductResponse>> futures = new ArrayList<>();
+
+        PendingUpdate(ProductRequest productRequest, CompletableFuture<ProductResponse> future) {
+            this.productRequest = productRequest;
+            futures.add(future);
+        }
+
+        void merge(ProductRequest laterRequest, CompletableFuture<ProductResponse> future) {
+            productRequest = productRequest.toBuilder()
+                .name(laterRequest.getName() != null ? laterRequest.getName() : productRequest.getName())
+                .price(laterRequest.getPrice() != null ? laterRequest.getPrice() : productRequest.getPrice())
+                .build();
+            futures.add(future);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.emeraldhieu.testcontainers.product.logic.idempotency;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The first request with the key didn't finish within the wait timeout. The client should retry later.
+ */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    private final String key;
+
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with idempotency key " + key + " is in progress");
+        this.key = key;
+    }
+}
@@ -0,0 +1,20 @@
+package com.emeraldhieu.testcontainers.product.logic.idempotency;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The key was first used for a different request.
+ */
+@Getter
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    private final String key;
+
+    public IdempotencyKeyMismatchException(String key) {
+        super("Idempotency key " + key + " was used for a different request");
+        this.key = key;
+    }
+}
@@ -0,0 +1,27 @@
+package com.emeraldhieu.testcontainers.product.logic.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * An expired key that isn't purged yet is treated as absent.
+     */
+    @Query("select r from IdempotencyRecord r where r.key = :key and r.expiresAt > :now")
+    Optional<IdempotencyRecord> findUnexpired(@Param("key") String key, @Param("now") Instant now);
+
+    /**
+     * Make room for reusing an expired key that isn't purged yet.
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt <= :now")
+    int deleteExpired(@Param("key") String key, @Param("now") Instant now);
+}
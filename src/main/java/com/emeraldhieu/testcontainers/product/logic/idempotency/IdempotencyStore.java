@@ -0,0 +1,101 @@
+package com.emeraldhieu.testcontainers.product.logic.idempotency;
+
+import com.emeraldhieu.testcontainers.product.config.IdempotencyProperties;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * The table "idempotency_key". It's used inside the transaction that creates the product
+ * so a key and its product commit or roll back together.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return the response of the first request with the key
+     * @throws IdempotencyKeyMismatchException if the key was first used for a different request
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<ProductResponse> findResponse(String key, ProductRequest productRequest) {
+        return idempotencyRecordRepository.findUnexpired(key, now())
+            .map(idempotencyRecord -> {
+                if (!idempotencyRecord.getRequestHash().equals(hash(productRequest))) {
+                    throw new IdempotencyKeyMismatchException(key);
+                }
+                return readResponse(idempotencyRecord.getResponse());
+            });
+    }
+
+    /**
+     * Insert the key right away. A concurrent transaction that inserted the same key first makes this wait
+     * for it to end, and fail with a {@link org.springframework.dao.DataIntegrityViolationException} if it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public IdempotencyRecord reserve(String key, ProductRequest productRequest) {
+        Instant now = now();
+        idempotencyRecordRepository.deleteExpired(key, now);
+        IdempotencyRecord idempotencyRecord = IdempotencyRecord.builder()
+            .key(key)
+            .requestHash(hash(productRequest))
+            .createdAt(now)
+            .expiresAt(now.plus(idempotencyProperties.getTtl()))
+            .build();
+        return idempotencyRecordRepository.saveAndFlush(idempotencyRecord);
+    }
+
+    /**
+     * The record is managed so the response is written when the transaction commits.
+     */
+    public void complete(IdempotencyRecord idempotencyRecord, ProductResponse productResponse) {
+        try {
+            idempotencyRecord.setResponse(objectMapper.writeValueAsString(productResponse));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to write " + productResponse, e);
+        }
+    }
+
+    /**
+     * SHA-256 of the request's JSON. The JSON of a {@link ProductRequest} always lists its fields in the same order.
+     */
+    String hash(ProductRequest productRequest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(productRequest)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to hash " + productRequest, e);
+        }
+    }
+
+    private ProductResponse readResponse(String response) {
+        try {
+            return objectMapper.readValue(response, ProductResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read stored response " + response, e);
+        }
+    }
+
+    /**
+     * Postgres keeps microseconds.
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,182 @@
+package com.emeraldhieu.testcontainers.product.logic.idempotency;
+
+import com.emeraldhieu.testcontainers.product.config.IdempotencyProperties;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import com.emeraldhieu.testcontainers.product.sharding.ShardDataSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates a product once per "Idempotency-Key" so a client's retry doesn't create a duplicate product and event.
+ * + Recent responses are kept in memory so most replays don't query the database
+ * + A duplicate arriving while the first request with its key is running on this instance waits for its result
+ * + Otherwise the key is looked up and inserted in the transaction that creates the product.
+ *   A duplicate on another instance waits on the key's primary key and then reads the stored response.
+ * Keys expire after "ttl" and are purged in the background.
+ */
+@Slf4j
+@Component
+public class IdempotentProductCreator {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ProductService productService;
+    private final IdempotencyStore idempotencyStore;
+    private final IdempotencyProperties idempotencyProperties;
+    private final DataSource dataSource;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+
+    private final ConcurrentMap<String, InFlight> inFlightRequests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Remembered> rememberedResponses = new ConcurrentHashMap<>();
+
+    private final Counter memoryReplays;
+    private final Counter waitedDuplicates;
+
+    public IdempotentProductCreator(ProductService productService,
+                                    IdempotencyStore idempotencyStore,
+                                    IdempotencyProperties idempotencyProperties,
+                                    DataSource dataSource,
+                                    ObjectProvider<ShardDataSources> shardDataSources,
+                                    MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.idempotencyStore = idempotencyStore;
+        this.idempotencyProperties = idempotencyProperties;
+        this.dataSource = dataSource;
+        this.shardDataSources = shardDataSources;
+        memoryReplays = Counter.builder("product.idempotency.memory-replays")
+            .description("Replays answered from memory")
+            .register(meterRegistry);
+        waitedDuplicates = Counter.builder("product.idempotency.waited-duplicates")
+            .description("Duplicates that waited for the first request with their key")
+            .register(meterRegistry);
+        meterRegistry.gauge("product.idempotency.remembered", rememberedResponses, ConcurrentMap::size);
+    }
+
+    public ProductResponse create(String key, ProductRequest productRequest) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(key);
+        }
+        String requestHash = idempotencyStore.hash(productRequest);
+
+        Remembered remembered = rememberedResponses.get(key);
+        if (remembered != null && remembered.expiresAt().isAfter(Instant.now())) {
+            checkSameRequest(key, remembered.requestHash(), requestHash);
+            memoryReplays.increment();
+            return remembered.productResponse();
+        }
+
+        InFlight inFlight = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight firstInFlight = inFlightRequests.putIfAbsent(key, inFlight);
+        if (firstInFlight != null) {
+            checkSameRequest(key, firstInFlight.requestHash(), requestHash);
+            waitedDuplicates.increment();
+            return await(key, firstInFlight.productResponse());
+        }
+        try {
+            ProductResponse productResponse = createOnce(key, productRequest);
+            remember(key, requestHash, productResponse);
+            inFlight.productResponse().complete(productResponse);
+            return productResponse;
+        } catch (RuntimeException e) {
+            inFlight.productResponse().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(key, inFlight);
+        }
+    }
+
+    private ProductResponse createOnce(String key, ProductRequest productRequest) {
+        try {
+            return productService.create(productRequest, key);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed the key first. Its transaction has ended so its response can be read now.
+            log.info("Idempotency key {} was committed concurrently, reading its response", key);
+            return productService.create(productRequest, key);
+        }
+    }
+
+    private ProductResponse await(String key, CompletableFuture<ProductResponse> productResponse) {
+        try {
+            return productResponse.get(idempotencyProperties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        }
+    }
+
+    private static void checkSameRequest(String key, String firstRequestHash, String requestHash) {
+        if (!firstRequestHash.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+    }
+
+    /**
+     * When memory is full, replays are answered by the database until the purge makes room.
+     */
+    private void remember(String key, String requestHash, ProductResponse productResponse) {
+        if (rememberedResponses.size() < idempotencyProperties.getMemoryCapacity()) {
+            rememberedResponses.put(key, new Remembered(requestHash, productResponse,
+                Instant.now().plus(idempotencyProperties.getTtl())));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.idempotency.purge-interval:PT10M}")
+    public void purgeExpiredKeys() {
+        Instant now = Instant.now();
+        rememberedResponses.values().removeIf(remembered -> !remembered.expiresAt().isAfter(now));
+        for (DataSource source : sources()) {
+            try (Connection connection = source.getConnection();
+                 Statement statement = connection.createStatement()) {
+                int purgedKeys = statement.executeUpdate("DELETE FROM idempotency_key WHERE expires_at <= now()");
+                // The pool doesn't auto-commit.
+                connection.commit();
+                log.debug("Purged {} expired idempotency keys", purgedKeys);
+            } catch (SQLException e) {
+                log.warn("Unable to purge expired idempotency keys: {}", e.getMessage());
+            }
+        }
+    }
+
+    private List<DataSource> sources() {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null) {
+            return List.of(dataSource);
+        }
+        return shards.getNames().stream()
+            .map(shards::get)
+            .toList();
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<ProductResponse> productResponse) {
+    }
+
+    private record Remembered(String requestHash, ProductResponse productResponse, Instant expiresAt) {
+    }
+}
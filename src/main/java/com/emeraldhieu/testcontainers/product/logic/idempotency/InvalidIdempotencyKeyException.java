@@ -0,0 +1,17 @@
+package com.emeraldhieu.testcontainers.product.logic.idempotency;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    private final String key;
+
+    public InvalidIdempotencyKeyException(String key) {
+        super("Invalid idempotency key " + key);
+        this.key = key;
+    }
+}
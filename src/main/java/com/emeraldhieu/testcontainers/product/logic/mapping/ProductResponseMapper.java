@@ -1,7 +1,10 @@
 package com.emeraldhieu.testcontainers.product.logic.mapping;
 
 import com.emeraldhieu.testcontainers.product.logic.Product;
+import com.emeraldhieu.testcontainers.product.logic.ProductChangeResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductChangeView;
 import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductView;
 import com.emeraldhieu.testcontainers.product.utility.ResponseMapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -18,4 +21,19 @@ public interface ProductResponseMapper extends ResponseMapper<ProductResponse, P
     })
     @Override
     ProductResponse toDto(Product entity);
+
+    @Mappings({
+        @Mapping(source = "externalId", target = "id")
+    })
+    ProductResponse toDto(ProductView view);
+
+    /**
+     * A tombstone carries only its ID.
+     */
+    @Mappings({
+        @Mapping(source = "externalId", target = "id"),
+        @Mapping(target = "name", expression = "java(change.deleted() ? null : change.name())"),
+        @Mapping(target = "price", expression = "java(change.deleted() ? null : change.price())")
+    })
+    ProductChangeResponse toDto(ProductChangeView change);
 }
\ No newline at end of file
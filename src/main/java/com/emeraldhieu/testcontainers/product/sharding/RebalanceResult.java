@@ -0,0 +1,28 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+@Builder(toBuilder = true)
+@Getter
+@Jacksonized
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class RebalanceResult {
+
+    @JsonProperty("movedRows")
+    private final long movedRows;
+
+    /**
+     * Passes over all shards. The last one moves nothing.
+     */
+    @JsonProperty("passes")
+    private final int passes;
+
+    @JsonProperty("durationMillis")
+    private final long durationMillis;
+}
@@ -0,0 +1,30 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin endpoints of sharding.
+ * To add a shard: add it to "application.sharding.shards", set "previous-shards" to the shards of before,
+ * roll the app out, call "POST /admin/shards/rebalance", then remove "previous-shards".
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.sharding", name = "enabled")
+public class ShardAdminController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    @RequestMapping(
+        method = RequestMethod.POST,
+        value = "/admin/shards/rebalance",
+        produces = "application/json"
+    )
+    public ResponseEntity<RebalanceResult> rebalance() {
+        return ResponseEntity.ok(shardRebalancer.rebalance());
+    }
+}
@@ -0,0 +1,40 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard of the current thread, read by {@link ShardRoutingDataSource}.
+ * It must be set before a transaction starts because the transaction takes its connection when it starts.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static <T> T callOn(String shard, Supplier<T> supplier) {
+        String previousShard = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return supplier.get();
+        } finally {
+            if (previousShard == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previousShard);
+            }
+        }
+    }
+
+    public static void runOn(String shard, Runnable runnable) {
+        callOn(shard, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    static String currentShard() {
+        return CURRENT_SHARD.get();
+    }
+}
@@ -0,0 +1,55 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import com.emeraldhieu.testcontainers.product.config.ShardingProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A connection pool per shard, in the configured order.
+ */
+public class ShardDataSources implements Closeable {
+
+    private final Map<String, HikariDataSource> dataSources = new LinkedHashMap<>();
+
+    public ShardDataSources(ShardingProperties shardingProperties) {
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("Hikari-" + shard.getName());
+            config.setJdbcUrl(shard.getUrl());
+            config.setUsername(shard.getUsername());
+            config.setPassword(shard.getPassword());
+            config.setMaximumPoolSize(shard.getMaximumPoolSize());
+            // Same as "spring.datasource.hikari.auto-commit".
+            config.setAutoCommit(false);
+            if (dataSources.put(shard.getName(), new HikariDataSource(config)) != null) {
+                throw new IllegalArgumentException("Duplicate shard " + shard.getName());
+            }
+        }
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("Sharding is enabled but no shard is configured");
+        }
+    }
+
+    public List<String> getNames() {
+        return List.copyOf(dataSources.keySet());
+    }
+
+    public DataSource get(String shard) {
+        DataSource dataSource = dataSources.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        return dataSource;
+    }
+
+    @Override
+    public void close() {
+        dataSources.values().forEach(HikariDataSource::close);
+    }
+}
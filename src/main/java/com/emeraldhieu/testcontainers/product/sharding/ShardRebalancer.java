@@ -0,0 +1,174 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import com.emeraldhieu.testcontainers.product.config.ShardingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A resharding tool that moves every row to the shard owning it on the current ring, while the app keeps serving.
+ * Each shard is read in chunks by internal ID. A misplaced row is upserted into its owner, then deleted from where it
+ * was only if it hasn't changed in the meantime. Passes repeat until one moves nothing.
+ * ---
+ * While rows move, {@link ShardedProductService} falls back to the previous shard, so reads and writes keep working.
+ * The upsert keeps the newer of two versions by "updated_at", so a write racing the move isn't lost;
+ * a read can see the older version until the next pass copies the newer one.
+ * It also places rows loaded outside the router, such as a catalog import, which lands on the first shard.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.sharding", name = "enabled")
+public class ShardRebalancer {
+
+    private static final String SELECT_CHUNK = """
+        SELECT id, external_id, name, price, created_at, updated_at, deleted
+        FROM product WHERE id > ? ORDER BY id LIMIT ?""";
+
+    private static final String UPSERT = """
+        INSERT INTO product (external_id, name, price, created_at, updated_at, deleted)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON CONFLICT (external_id) DO UPDATE
+        SET name = EXCLUDED.name, price = EXCLUDED.price, updated_at = EXCLUDED.updated_at, deleted = EXCLUDED.deleted
+        WHERE product.updated_at < EXCLUDED.updated_at""";
+
+    private static final String DELETE_IF_UNCHANGED = "DELETE FROM product WHERE id = ? AND updated_at = ?";
+
+    private final ShardDataSources shardDataSources;
+    private final ShardRouter shardRouter;
+    private final ShardingProperties shardingProperties;
+
+    public ShardRebalancer(ShardDataSources shardDataSources,
+                           ShardRouter shardRouter,
+                           ShardingProperties shardingProperties) {
+        this.shardDataSources = shardDataSources;
+        this.shardRouter = shardRouter;
+        this.shardingProperties = shardingProperties;
+    }
+
+    public synchronized RebalanceResult rebalance() {
+        long start = System.currentTimeMillis();
+        long movedRows = 0;
+        int passes = 0;
+        long movedInPass;
+        do {
+            movedInPass = 0;
+            for (String shard : shardDataSources.getNames()) {
+                movedInPass += moveMisplacedRows(shard);
+            }
+            movedRows += movedInPass;
+            passes++;
+            log.info("Rebalancing pass {} moved {} rows", passes, movedInPass);
+        } while (movedInPass > 0);
+
+        if (shardRouter.isResharding()) {
+            shardRouter.completeResharding();
+            log.info("Resharding is complete, \"application.sharding.previous-shards\" can be removed");
+        }
+        return RebalanceResult.builder()
+            .movedRows(movedRows)
+            .passes(passes)
+            .durationMillis(System.currentTimeMillis() - start)
+            .build();
+    }
+
+    private long moveMisplacedRows(String sourceShard) {
+        long movedRows = 0;
+        long lastId = 0;
+        try (Connection source = shardDataSources.get(sourceShard).getConnection()) {
+            while (true) {
+                List<Row> chunk = readChunk(source, lastId);
+                if (chunk.isEmpty()) {
+                    return movedRows;
+                }
+                lastId = chunk.get(chunk.size() - 1).id();
+
+                Map<String, List<Row>> rowsByOwner = new HashMap<>();
+                for (Row row : chunk) {
+                    String owner = shardRouter.shardOf(row.externalId());
+                    if (!owner.equals(sourceShard)) {
+                        rowsByOwner.computeIfAbsent(owner, shard -> new ArrayList<>()).add(row);
+                    }
+                }
+                for (var entry : rowsByOwner.entrySet()) {
+                    copy(entry.getKey(), entry.getValue());
+                    movedRows += deleteIfUnchanged(source, entry.getValue());
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to rebalance shard " + sourceShard, e);
+        }
+    }
+
+    private List<Row> readChunk(Connection source, long lastId) throws SQLException {
+        List<Row> chunk = new ArrayList<>();
+        try (PreparedStatement statement = source.prepareStatement(SELECT_CHUNK)) {
+            statement.setLong(1, lastId);
+            statement.setInt(2, shardingProperties.getBatchSize());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    chunk.add(new Row(
+                        resultSet.getLong("id"),
+                        resultSet.getString("external_id"),
+                        resultSet.getString("name"),
+                        resultSet.getDouble("price"),
+                        resultSet.getObject("created_at", OffsetDateTime.class),
+                        resultSet.getObject("updated_at", OffsetDateTime.class),
+                        resultSet.getBoolean("deleted")));
+                }
+            }
+        }
+        // The pool doesn't auto-commit.
+        source.commit();
+        return chunk;
+    }
+
+    private void copy(String targetShard, List<Row> rows) throws SQLException {
+        try (Connection target = shardDataSources.get(targetShard).getConnection();
+             PreparedStatement statement = target.prepareStatement(UPSERT)) {
+            for (Row row : rows) {
+                statement.setString(1, row.externalId());
+                statement.setString(2, row.name());
+                statement.setDouble(3, row.price());
+                statement.setObject(4, row.createdAt());
+                statement.setObject(5, row.updatedAt());
+                statement.setBoolean(6, row.deleted());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            target.commit();
+        }
+    }
+
+    /**
+     * A row updated since it was read is left for the next pass, which copies the newer version.
+     */
+    private long deleteIfUnchanged(Connection source, List<Row> rows) throws SQLException {
+        long deletedRows = 0;
+        try (PreparedStatement statement = source.prepareStatement(DELETE_IF_UNCHANGED)) {
+            for (Row row : rows) {
+                statement.setLong(1, row.id());
+                statement.setObject(2, row.updatedAt());
+                statement.addBatch();
+            }
+            for (int count : statement.executeBatch()) {
+                deletedRows += Math.max(count, 0);
+            }
+        }
+        source.commit();
+        return deletedRows;
+    }
+
+    private record Row(long id, String externalId, String name, double price, OffsetDateTime createdAt,
+                       OffsetDateTime updatedAt, boolean deleted) {
+    }
+}
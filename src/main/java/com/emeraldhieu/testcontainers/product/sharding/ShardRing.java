@@ -0,0 +1,69 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * A consistent hash ring that maps a key to a shard.
+ * Every shard is placed at several points of the ring and a key belongs to the first point clockwise from its hash,
+ * so adding a shard only moves the keys the new shard takes over, about 1/N of them.
+ * ---
+ * Hashes are the first 8 bytes of MD5: stable across JVMs and well spread. It isn't used for security.
+ * The ring is immutable and kept in two sorted arrays for a binary search without boxing.
+ */
+public class ShardRing {
+
+    private final List<String> shards;
+    private final long[] points;
+    private final String[] owners;
+
+    public ShardRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A ring needs at least one shard");
+        }
+        this.shards = List.copyOf(shards);
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // A collision is practically impossible; the first shard keeps the point if it happens.
+                ring.putIfAbsent(hash(shard + "#" + i), shard);
+            }
+        }
+        points = new long[ring.size()];
+        owners = new String[ring.size()];
+        int index = 0;
+        for (var entry : ring.entrySet()) {
+            points[index] = entry.getKey();
+            owners[index] = entry.getValue();
+            index++;
+        }
+    }
+
+    public String shardOf(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM has MD5.
+            throw new IllegalStateException(e);
+        }
+    }
+}
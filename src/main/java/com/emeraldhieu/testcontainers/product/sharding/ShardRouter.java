@@ -0,0 +1,54 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The shard owning an external ID.
+ * During a resharding, it also knows the ring of before so rows not moved yet can still be found.
+ */
+public class ShardRouter {
+
+    private final ShardRing ring;
+    private volatile ShardRing previousRing;
+
+    public ShardRouter(ShardRing ring, ShardRing previousRing) {
+        this.ring = ring;
+        this.previousRing = previousRing;
+    }
+
+    public String shardOf(String externalId) {
+        return ring.shardOf(externalId);
+    }
+
+    /**
+     * @return the previous shard of the external ID if it's different from the current one
+     */
+    public Optional<String> previousShardOf(String externalId) {
+        ShardRing currentPreviousRing = previousRing;
+        if (currentPreviousRing == null) {
+            return Optional.empty();
+        }
+        String previousShard = currentPreviousRing.shardOf(externalId);
+        return previousShard.equals(shardOf(externalId)) ? Optional.empty() : Optional.of(previousShard);
+    }
+
+    public List<String> getShards() {
+        return ring.getShards();
+    }
+
+    public ShardRing getRing() {
+        return ring;
+    }
+
+    public boolean isResharding() {
+        return previousRing != null;
+    }
+
+    /**
+     * Stop looking up previous shards once every row has moved.
+     */
+    void completeResharding() {
+        previousRing = null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A data source that hands out connections of the shard set in {@link ShardContext}.
+ * Without a shard, connections come from the first shard. That's the case of startup work such as
+ * Hibernate reading JDBC metadata, and of code that isn't shard-aware.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(ShardDataSources shardDataSources) {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        for (String shard : shardDataSources.getNames()) {
+            targetDataSources.put(shard, shardDataSources.get(shard));
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(shardDataSources.get(shardDataSources.getNames().get(0)));
+        // An unknown shard is a bug rather than a reason to write to the first shard.
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentShard();
+    }
+}
@@ -0,0 +1,32 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Run the changelogs on every shard, one after another.
+ * It's a {@link SpringLiquibase} so Spring Boot's Liquibase auto-configuration backs off and JPA still waits for it.
+ * The context "shard" is active so the seed data, whose rows belong to different shards, isn't loaded.
+ */
+@Slf4j
+public class ShardedLiquibase extends SpringLiquibase {
+
+    public static final String SHARD_CONTEXT = "shard";
+
+    private final ShardDataSources shardDataSources;
+
+    public ShardedLiquibase(ShardDataSources shardDataSources) {
+        this.shardDataSources = shardDataSources;
+        setContexts(SHARD_CONTEXT);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        for (String shard : shardDataSources.getNames()) {
+            log.info("Migrating shard {}", shard);
+            setDataSource(shardDataSources.get(shard));
+            super.afterPropertiesSet();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import com.emeraldhieu.testcontainers.product.config.ShardingProperties;
+import com.emeraldhieu.testcontainers.product.logic.DefaultProductService;
+import com.emeraldhieu.testcontainers.product.logic.InvalidChangeTokenException;
+import com.emeraldhieu.testcontainers.product.logic.Product;
+import com.emeraldhieu.testcontainers.product.logic.ProductBatchUpdater;
+import com.emeraldhieu.testcontainers.product.logic.ProductChangeResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductChangesResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductCounter;
+import com.emeraldhieu.testcontainers.product.logic.ProductCursor;
+import com.emeraldhieu.testcontainers.product.logic.ProductKeysetPage;
+import com.emeraldhieu.testcontainers.product.logic.ProductKeysetReader;
+import com.emeraldhieu.testcontainers.product.logic.ProductNotFoundException;
+import com.emeraldhieu.testcontainers.product.logic.ProductRepository;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import com.emeraldhieu.testcontainers.product.logic.ProductSort;
+import com.emeraldhieu.testcontainers.product.logic.ProductUpdateRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductUpdateResult;
+import com.emeraldhieu.testcontainers.product.logic.ProductView;
+import com.emeraldhieu.testcontainers.product.logic.mapping.ProductResponseMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ProductService} that routes every call to the shard owning the product's external ID.
+ * It sets {@link ShardContext} before calling {@link DefaultProductService} so the transaction starts on that shard.
+ * + "list" scatter-gathers: every shard is read in the order of external IDs and the results are k-way merged
+ * + "listChanges" asks every shard and returns a token carrying one watermark per shard
+ * + While resharding, a product not found on its new shard is looked up on its previous shard
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "application.sharding", name = "enabled")
+public class ShardedProductService implements ProductService {
+
+    private final DefaultProductService defaultProductService;
+    private final ShardRouter shardRouter;
+    private final ProductRepository productRepository;
+    private final ProductResponseMapper productResponseMapper;
+    private final ProductBatchUpdater productBatchUpdater;
+    private final ProductKeysetReader productKeysetReader;
+    private final ShardingProperties shardingProperties;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public ShardedProductService(DefaultProductService defaultProductService,
+                                 ShardRouter shardRouter,
+                                 ProductRepository productRepository,
+                                 ProductResponseMapper productResponseMapper,
+                                 ProductBatchUpdater productBatchUpdater,
+                                 ProductKeysetReader productKeysetReader,
+                                 ShardingProperties shardingProperties,
+                                 PlatformTransactionManager transactionManager) {
+        this.defaultProductService = defaultProductService;
+        this.shardRouter = shardRouter;
+        this.productRepository = productRepository;
+        this.productResponseMapper = productResponseMapper;
+        this.productBatchUpdater = productBatchUpdater;
+        this.productKeysetReader = productKeysetReader;
+        this.shardingProperties = shardingProperties;
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The external ID is generated here rather than by the entity because it decides the shard.
+     */
+    @Override
+    public ProductResponse create(ProductRequest productRequest) {
+        String externalId = Product.newExternalId();
+        return ShardContext.callOn(shardRouter.shardOf(externalId),
+            () -> defaultProductService.create(externalId, productRequest));
+    }
+
+    /**
+     * The key and the product must commit together so both go to the key's shard:
+     * the external ID is drawn until it falls on that shard, which takes as many draws as there are shards on average.
+     * While resharding, a key stored on its previous shard isn't found.
+     */
+    @Override
+    public ProductResponse create(ProductRequest productRequest, String idempotencyKey) {
+        String shard = shardRouter.shardOf(idempotencyKey);
+        String externalId;
+        do {
+            externalId = Product.newExternalId();
+        } while (!shard.equals(shardRouter.shardOf(externalId)));
+        String shardExternalId = externalId;
+        return ShardContext.callOn(shard,
+            () -> defaultProductService.create(shardExternalId, productRequest, idempotencyKey));
+    }
+
+    @Override
+    public ProductResponse update(String id, ProductRequest productRequest) {
+        return callOnOwner(id, () -> defaultProductService.update(id, productRequest));
+    }
+
+    /**
+     * Each shard updates its own products. While resharding, products not found on their new shard
+     * are updated on their previous shard.
+     */
+    @Override
+    public List<ProductUpdateResult> updateBatch(List<ProductUpdateRequest> updates) {
+        productBatchUpdater.validate(updates);
+        Map<String, ProductUpdateResult> results = new HashMap<>();
+        updateOnShards(updates, shardRouter::shardOf, results);
+        List<ProductUpdateRequest> notFoundUpdates = updates.stream()
+            .filter(update -> results.get(update.getId()).getStatus() == ProductUpdateResult.Status.NOT_FOUND)
+            .filter(update -> shardRouter.previousShardOf(update.getId()).isPresent())
+            .toList();
+        updateOnShards(notFoundUpdates, id -> shardRouter.previousShardOf(id).orElseThrow(), results);
+        return updates.stream()
+            .map(update -> results.get(update.getId()))
+            .toList();
+    }
+
+    private void updateOnShards(List<ProductUpdateRequest> updates, Function<String, String> shardOf,
+                                Map<String, ProductUpdateResult> results) {
+        Map<String, List<ProductUpdateRequest>> updatesByShard = new LinkedHashMap<>();
+        for (ProductUpdateRequest update : updates) {
+            updatesByShard.computeIfAbsent(shardOf.apply(update.getId()), shard -> new ArrayList<>()).add(update);
+        }
+        updatesByShard.forEach((shard, shardUpdates) ->
+            ShardContext.callOn(shard, () -> defaultProductService.updateBatch(shardUpdates))
+                .forEach(result -> results.put(result.getId(), result)));
+    }
+
+    @Override
+    public ProductResponse get(String id) {
+        return callOnOwner(id, () -> defaultProductService.get(id));
+    }
+
+    @Override
+    public void delete(String id) {
+        ShardContext.runOn(shardRouter.shardOf(id), () -> defaultProductService.delete(id));
+        shardRouter.previousShardOf(id)
+            .ifPresent(previousShard -> ShardContext.runOn(previousShard, () -> defaultProductService.delete(id)));
+    }
+
+    private <T> T callOnOwner(String id, Supplier<T> supplier) {
+        try {
+            return ShardContext.callOn(shardRouter.shardOf(id), supplier);
+        } catch (ProductNotFoundException e) {
+            Optional<String> previousShard = shardRouter.previousShardOf(id);
+            if (previousShard.isEmpty()) {
+                throw e;
+            }
+            return ShardContext.callOn(previousShard.get(), supplier);
+        }
+    }
+
+    /**
+     * Products are ordered by external ID across shards.
+     * Reaching page N reads N * limit rows like OFFSET does on a single database.
+     */
+    @Override
+    public Slice<ProductResponse> list(int offset, int limit) {
+        long rowsToSkip = (long) offset * limit;
+        int chunkSize = (int) Math.min(shardingProperties.getBatchSize(), rowsToSkip + limit);
+
+        PriorityQueue<ShardCursor> cursors = new PriorityQueue<>(Comparator.comparing(ShardCursor::peek));
+        for (String shard : shardRouter.getShards()) {
+            ShardCursor cursor = new ShardCursor(shard, chunkSize);
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+        }
+
+        List<ProductResponse> productResponses = new ArrayList<>(limit);
+        String lastExternalId = null;
+        while (!cursors.isEmpty() && productResponses.size() < limit) {
+            ShardCursor cursor = cursors.poll();
+            ProductView productView = cursor.next();
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+            // A product being moved by a resharding can be on two shards for a moment.
+            if (productView.externalId().equals(lastExternalId)) {
+                continue;
+            }
+            lastExternalId = productView.externalId();
+            if (rowsToSkip > 0) {
+                rowsToSkip--;
+                continue;
+            }
+            productResponses.add(productResponseMapper.toDto(productView));
+        }
+        // The next product may be a copy of the last one on another shard.
+        while (!cursors.isEmpty() && cursors.peek().peek().equals(lastExternalId)) {
+            ShardCursor cursor = cursors.poll();
+            cursor.next();
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+        }
+        return new SliceImpl<>(productResponses, PageRequest.of(offset, limit), !cursors.isEmpty());
+    }
+
+    /**
+     * {@link ProductCounter} counts every shard itself.
+     */
+    @Override
+    public long count() {
+        return defaultProductService.count();
+    }
+
+    /**
+     * Every shard reads its first rows in the same order and they're merged.
+     * With a cursor every shard continues from it: the sort key and the external ID mean the same on every shard.
+     */
+    @Override
+    public ProductKeysetPage listSorted(String sort, String after, int offset, int limit) {
+        ProductSort productSort = ProductSort.of(sort);
+        ProductCursor cursor = after != null ? ProductCursor.decode(after, productSort) : null;
+        long rowsToSkip = cursor != null ? 0 : (long) offset * limit;
+        // Read one more to know if there's a next page.
+        int rowsToRead = Math.toIntExact(rowsToSkip + limit + 1);
+        List<ProductView> products = new ArrayList<>();
+        for (String shard : shardRouter.getShards()) {
+            products.addAll(ShardContext.callOn(shard, () -> readOnlyTransactionTemplate.execute(
+                status -> productKeysetReader.read(productSort, cursor, 0, rowsToRead))));
+        }
+        // A product being moved by a resharding can be on two shards for a moment.
+        Set<String> seenExternalIds = new HashSet<>();
+        List<ProductView> merged = products.stream()
+            .sorted(productSort.comparator())
+            .filter(product -> seenExternalIds.add(product.externalId()))
+            .skip(rowsToSkip)
+            .limit(limit + 1)
+            .toList();
+        return ProductKeysetPage.of(productSort, merged, limit, productResponseMapper::toDto);
+    }
+
+    /**
+     * Up to "limit" changes are returned per shard. Watermarks of different shards can't be compared
+     * because internal IDs are per shard, so the token keeps one per shard.
+     */
+    @Override
+    public ProductChangesResponse listChanges(String since, int limit) {
+        Map<String, String> sinceTokens = decodeShardTokens(since);
+        Map<String, String> nextTokens = new LinkedHashMap<>();
+        List<ProductChangeResponse> changes = new ArrayList<>();
+        boolean hasMore = false;
+        for (String shard : shardRouter.getShards()) {
+            ProductChangesResponse shardChanges = ShardContext.callOn(shard,
+                () -> defaultProductService.listChanges(sinceTokens.get(shard), limit));
+            changes.addAll(shardChanges.getChanges());
+            nextTokens.put(shard, shardChanges.getNextToken());
+            hasMore |= shardChanges.isHasMore();
+        }
+        changes.sort(Comparator.comparing(ProductChangeResponse::getUpdatedAt));
+        return ProductChangesResponse.builder()
+            .changes(changes)
+            .nextToken(encodeShardTokens(nextTokens))
+            .hasMore(hasMore)
+            .build();
+    }
+
+    /**
+     * "{shard}={token};..." in URL-safe Base64. Shard names and tokens don't contain "=" or ";".
+     */
+    private static String encodeShardTokens(Map<String, String> tokens) {
+        StringBuilder decoded = new StringBuilder();
+        tokens.forEach((shard, token) -> decoded.append(shard).append('=').append(token).append(';'));
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(decoded.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> decodeShardTokens(String token) {
+        Map<String, String> tokens = new LinkedHashMap<>();
+        if (token == null || token.isBlank()) {
+            return tokens;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            for (String shardToken : decoded.split(";")) {
+                int separator = shardToken.indexOf('=');
+                tokens.put(shardToken.substring(0, separator), shardToken.substring(separator + 1));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidChangeTokenException(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Products of one shard in the order of external IDs, read in chunks with a keyset.
+     */
+    private class ShardCursor {
+
+        private final String shard;
+        private final int chunkSize;
+        private final Deque<ProductView> buffer = new ArrayDeque<>();
+        private String lastExternalId = "";
+        private boolean exhausted;
+
+        ShardCursor(String shard, int chunkSize) {
+            this.shard = shard;
+            this.chunkSize = chunkSize;
+        }
+
+        boolean hasNext() {
+            if (buffer.isEmpty() && !exhausted) {
+                List<ProductView> chunk = ShardContext.callOn(shard, () -> readOnlyTransactionTemplate.execute(
+                    status -> productRepository.findViewsAfter(lastExternalId, PageRequest.of(0, chunkSize))));
+                exhausted = chunk.size() < chunkSize;
+                if (!chunk.isEmpty()) {
+                    lastExternalId = chunk.get(chunk.size() - 1).externalId();
+                }
+                buffer.addAll(chunk);
+            }
+            return !buffer.isEmpty();
+        }
+
+        String peek() {
+            return buffer.getFirst().externalId();
+        }
+
+        ProductView next() {
+            return buffer.removeFirst();
+        }
+    }
+}
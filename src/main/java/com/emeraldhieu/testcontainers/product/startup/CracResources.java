@@ -0,0 +1,66 @@
+package com.emeraldhieu.testcontainers.product.startup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Close sockets before a CRaC checkpoint and reopen them after restore, since a checkpoint can't hold open sockets.
+ * + Hikari's pool is suspended and its connections are evicted; it needs "allow-pool-suspension"
+ * + Kafka producers are closed; the next send creates a new one
+ * Spring Boot 3.0 doesn't manage the lifecycle around checkpoints itself, so the resources are registered here
+ * through "org.crac", which does nothing on a JDK without CRaC.
+ * See https://github.com/CRaC/docs#implementing-resource-as-a-part-of-application
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.startup", name = "crac-enabled")
+public class CracResources implements Resource {
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ProducerFactory<?, ?>> producerFactory;
+
+    public CracResources(DataSource dataSource, ObjectProvider<ProducerFactory<?, ?>> producerFactory) {
+        this.dataSource = dataSource;
+        this.producerFactory = producerFactory;
+        // The global context keeps a weak reference; this bean keeps itself alive.
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws SQLException {
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            pool.suspendPool();
+            pool.softEvictConnections();
+        }
+        producerFactory.ifAvailable(ProducerFactory::reset);
+        log.info("Released connections before checkpoint");
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws SQLException {
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            pool.resumePool();
+        }
+        log.info("Resumed after restore");
+    }
+
+    private HikariPoolMXBean hikariPool() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return null;
+        }
+        return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+    }
+}
@@ -0,0 +1,76 @@
+package com.emeraldhieu.testcontainers.product.startup;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.KafkaProperties;
+import com.emeraldhieu.testcontainers.product.config.StartupProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Move Kafka's network round trips off the startup path:
+ * + {@link KafkaAdmin} creates the topic of "KafkaConfiguration#createTopic" when the context refreshes.
+ *   With "defer-topic-creation", auto-creation is turned off and the topic is created after the app is ready.
+ * + The producer is created lazily by the first send, which also waits for the topic's metadata.
+ *   With "warm-up-producer", that's done after the app is ready.
+ * Both run on a background thread so readiness isn't delayed; failures are only logged
+ * because sending retries them anyway.
+ * ---
+ * It's registered by {@link StartupConfiguration} as a static bean because it's a {@link BeanPostProcessor}.
+ */
+@Slf4j
+public class DeferredKafkaInitializer implements BeanPostProcessor {
+
+    private final StartupProperties startupProperties;
+    private final ObjectProvider<KafkaAdmin> kafkaAdmin;
+    private final ObjectProvider<KafkaTemplate<String, ProductMessage>> kafkaTemplate;
+    private final ObjectProvider<KafkaProperties> kafkaProperties;
+
+    public DeferredKafkaInitializer(StartupProperties startupProperties,
+                                    ObjectProvider<KafkaAdmin> kafkaAdmin,
+                                    ObjectProvider<KafkaTemplate<String, ProductMessage>> kafkaTemplate,
+                                    ObjectProvider<KafkaProperties> kafkaProperties) {
+        this.startupProperties = startupProperties;
+        this.kafkaAdmin = kafkaAdmin;
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaProperties = kafkaProperties;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof KafkaAdmin admin && startupProperties.isDeferTopicCreation()) {
+            admin.setAutoCreate(false);
+        }
+        return bean;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeInBackground() {
+        if (!startupProperties.isDeferTopicCreation() && !startupProperties.isWarmUpProducer()) {
+            return;
+        }
+        CompletableFuture.runAsync(this::initialize)
+            .exceptionally(throwable -> {
+                log.warn("Deferred Kafka initialization failed: {}", throwable.getMessage());
+                return null;
+            });
+    }
+
+    private void initialize() {
+        long start = System.currentTimeMillis();
+        if (startupProperties.isDeferTopicCreation()) {
+            kafkaAdmin.ifAvailable(KafkaAdmin::initialize);
+        }
+        if (startupProperties.isWarmUpProducer()) {
+            kafkaTemplate.ifAvailable(template ->
+                template.partitionsFor(kafkaProperties.getObject().getTopic()));
+        }
+        log.info("Initialized Kafka in the background in {} ms", System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,27 @@
+package com.emeraldhieu.testcontainers.product.startup;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.KafkaProperties;
+import com.emeraldhieu.testcontainers.product.config.StartupProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@Configuration
+public class StartupConfiguration {
+
+    /**
+     * Static because a {@link org.springframework.beans.factory.config.BeanPostProcessor} is created
+     * before the configuration class itself.
+     */
+    @Bean
+    public static DeferredKafkaInitializer deferredKafkaInitializer(
+        StartupProperties startupProperties,
+        ObjectProvider<KafkaAdmin> kafkaAdmin,
+        ObjectProvider<KafkaTemplate<String, ProductMessage>> kafkaTemplate,
+        ObjectProvider<KafkaProperties> kafkaProperties) {
+        return new DeferredKafkaInitializer(startupProperties, kafkaAdmin, kafkaTemplate, kafkaProperties);
+    }
+}
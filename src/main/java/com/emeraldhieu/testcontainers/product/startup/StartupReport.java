@@ -0,0 +1,86 @@
+package com.emeraldhieu.testcontainers.product.startup;
+
+import com.emeraldhieu.testcontainers.product.config.StartupProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * A per-phase breakdown of startup read from the steps {@link BufferingApplicationStartup} records.
+ * + The phases of {@link SpringApplication}, which follow each other
+ * + The slowest steps inside them, such as a bean's instantiation. Steps nest so their durations overlap.
+ * The JVM's own startup is the time between the JVM's start and the first phase.
+ * The phase "ready" isn't included because the report runs inside it.
+ * ---
+ * With "exit-when-ready", the app exits after the report; "gradle startupBenchmark" relies on it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupReport {
+
+    private static final Set<String> PHASES = Set.of(
+        "spring.boot.application.starting",
+        "spring.boot.application.environment-prepared",
+        "spring.boot.application.context-prepared",
+        "spring.boot.application.context-loaded",
+        "spring.context.refresh",
+        "spring.boot.application.started"
+    );
+
+    private final StartupProperties startupProperties;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (startupProperties.getReportedSteps() > 0
+            && applicationContext.getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            logTimeline(startup.getBufferedTimeline());
+        }
+        if (startupProperties.isExitWhenReady()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void logTimeline(StartupTimeline timeline) {
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Startup phase jvm took {} ms", timeline.getStartTime().toEpochMilli() - jvmStartMillis);
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        events.stream()
+            .filter(event -> PHASES.contains(event.getStartupStep().getName()))
+            .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime))
+            .forEach(event -> log.info("Startup phase {} took {} ms",
+                event.getStartupStep().getName(), event.getDuration().toMillis()));
+        events.stream()
+            .filter(event -> !PHASES.contains(event.getStartupStep().getName()))
+            .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+            .limit(startupProperties.getReportedSteps())
+            .forEach(event -> log.info("Startup step {} {} took {} ms",
+                event.getStartupStep().getName(), tags(event.getStartupStep()), event.getDuration().toMillis()));
+        events.stream()
+            .map(StartupTimeline.TimelineEvent::getEndTime)
+            .max(Comparator.naturalOrder())
+            .ifPresent(endTime -> log.info("Startup took {} ms in total",
+                endTime.toEpochMilli() - jvmStartMillis));
+    }
+
+    private static String tags(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+            .map(tag -> tag.getKey() + "=" + tag.getValue())
+            .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.emeraldhieu.testcontainers.product.startup;
+
+import com.emeraldhieu.testcontainers.product.config.WarmUpProperties;
+import com.emeraldhieu.testcontainers.product.logic.ProductController;
+import com.emeraldhieu.testcontainers.product.logic.ProductNotFoundException;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.sharding.ShardDataSources;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A warm-up that runs before the app reports itself ready, so the first requests after a deploy aren't slow.
+ * {@link ApplicationRunner}s run before the readiness state changes to "ACCEPTING_TRAFFIC",
+ * so "/actuator/health/readiness" stays down until the warm-up ends.
+ * + Every pool opens its minimum idle connections rather than opening them on the first requests
+ * + The hottest products are read so their pages are in Postgres's buffer cache
+ * + Synthetic reads go through {@link ProductController} and Jackson in rounds until a round adds
+ *   almost no JIT compilation time, which means the hot paths are compiled
+ * ---
+ * Synthetic requests call the controller directly rather than over HTTP so they aren't rate limited or shed.
+ * They only read so the warm-up has no side effect.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.warm-up", name = "enabled")
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String UNKNOWN_ID = "00000000000000000000000000000000";
+    private static final String SAMPLE_REQUEST = """
+        {"name": "pizza", "price": 42}""";
+
+    private final WarmUpProperties warmUpProperties;
+    private final DataSource dataSource;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+    private final ProductController productController;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong durationMillis = new AtomicLong();
+    private final AtomicLong rounds = new AtomicLong();
+
+    public WarmUpRunner(WarmUpProperties warmUpProperties,
+                        DataSource dataSource,
+                        ObjectProvider<ShardDataSources> shardDataSources,
+                        ProductController productController,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.warmUpProperties = warmUpProperties;
+        this.dataSource = dataSource;
+        this.shardDataSources = shardDataSources;
+        this.productController = productController;
+        this.objectMapper = objectMapper;
+        TimeGauge.builder("product.warm-up.duration", durationMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .description("Duration of the warm-up before readiness")
+            .register(meterRegistry);
+        meterRegistry.gauge("product.warm-up.rounds", rounds);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        long deadline = start + warmUpProperties.getMaxDuration().toMillis();
+        try {
+            List<DataSource> sources = sources();
+            openConnections(sources);
+            List<String> hotIds = preload(sources);
+            long preloadMillis = System.currentTimeMillis() - start;
+            runSyntheticRequests(hotIds, deadline);
+            durationMillis.set(System.currentTimeMillis() - start);
+            log.info("Warmed up in {} ms: preloaded {} products in {} ms, then ran {} rounds of synthetic requests",
+                durationMillis.get(), hotIds.size(), preloadMillis, rounds.get());
+        } catch (Exception e) {
+            // A failed warm-up only makes the first requests slower, it shouldn't keep the app from starting.
+            durationMillis.set(System.currentTimeMillis() - start);
+            log.warn("Warm-up failed after {} ms: {}", durationMillis.get(), e.getMessage());
+        }
+    }
+
+    private List<DataSource> sources() {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null) {
+            return List.of(dataSource);
+        }
+        return shards.getNames().stream()
+            .map(shards::get)
+            .toList();
+    }
+
+    /**
+     * Hikari fills the pool in the background; holding the connections at once makes it open them now.
+     */
+    private static void openConnections(List<DataSource> sources) throws SQLException {
+        for (DataSource source : sources) {
+            if (!source.isWrapperFor(HikariDataSource.class)) {
+                continue;
+            }
+            List<Connection> connections = new ArrayList<>();
+            try {
+                // The first connection starts the pool, which resolves the minimum idle.
+                connections.add(source.getConnection());
+                int minimumIdle = source.unwrap(HikariDataSource.class).getMinimumIdle();
+                while (connections.size() < minimumIdle) {
+                    connections.add(source.getConnection());
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the hottest products through the controller. Each shard contributes its own hottest products.
+     */
+    private List<String> preload(List<DataSource> sources) throws SQLException {
+        List<String> hotIds = new ArrayList<>();
+        for (DataSource source : sources) {
+            try (Connection connection = source.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(warmUpProperties.getPreloadQuery())) {
+                statement.setInt(1, warmUpProperties.getPreloadSize());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        hotIds.add(resultSet.getString(1));
+                    }
+                }
+                connection.commit();
+            }
+        }
+        hotIds.forEach(this::getProduct);
+        return hotIds;
+    }
+
+    private void runSyntheticRequests(List<String> hotIds, long deadline) throws IOException {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean monitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long stableMillis = warmUpProperties.getStableCompilationTime().toMillis();
+        int stableRounds = 0;
+        long compilationMillis = monitored ? compilation.getTotalCompilationTime() : 0;
+        while (System.currentTimeMillis() < deadline) {
+            runRound(hotIds);
+            rounds.incrementAndGet();
+            if (!monitored) {
+                if (rounds.get() >= warmUpProperties.getFallbackRounds()) {
+                    return;
+                }
+                continue;
+            }
+            long previousCompilationMillis = compilationMillis;
+            compilationMillis = compilation.getTotalCompilationTime();
+            stableRounds = compilationMillis - previousCompilationMillis < stableMillis ? stableRounds + 1 : 0;
+            log.debug("Warm-up round {} compiled for {} ms", rounds.get(), compilationMillis - previousCompilationMillis);
+            if (stableRounds >= warmUpProperties.getStableRounds()) {
+                return;
+            }
+        }
+        log.warn("Warm-up stopped after {} before compilation stabilized", warmUpProperties.getMaxDuration());
+    }
+
+    /**
+     * Mix the reads the app serves: lookups of known and unknown IDs, a page and the changes feed,
+     * with request bodies parsed and responses written by Jackson.
+     */
+    private void runRound(List<String> hotIds) throws IOException {
+        for (int i = 0; i < warmUpProperties.getRequestsPerRound(); i++) {
+            switch (i % 8) {
+                case 0 -> objectMapper.writeValueAsBytes(
+                    productController.listProducts(0, 10, null, null, false).join().getBody());
+                case 1 -> objectMapper.writeValueAsBytes(productController.listProductChanges(null, 100).getBody());
+                case 2 -> objectMapper.readValue(SAMPLE_REQUEST, ProductRequest.class);
+                case 3 -> getProduct(UNKNOWN_ID);
+                default -> getProduct(hotIds.isEmpty() ? UNKNOWN_ID : hotIds.get(i % hotIds.size()));
+            }
+        }
+    }
+
+    private void getProduct(String id) {
+        try {
+            objectMapper.writeValueAsBytes(productController.getProduct(id).join().getBody());
+        } catch (CompletionException e) {
+            // Not-found is a path worth warming too.
+            if (!(e.getCause() instanceof ProductNotFoundException)) {
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+/**
+ * A concurrency limit that adapts to how the service copes.
+ * It follows additive-increase/multiplicative-decrease (AIMD) like TCP congestion control:
+ * after every window of requests, the limit shrinks if the window's p99 latency or the number of threads waiting
+ * for a database connection crossed its threshold, otherwise it grows by one.
+ * See https://en.wikipedia.org/wiki/Additive_increase/multiplicative_decrease
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final int maxThreadsAwaitingConnection;
+    private final double backoffRatio;
+    private final IntSupplier threadsAwaitingConnection;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLongArray latencies;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+                                      int maxThreadsAwaitingConnection, double backoffRatio, int windowSize,
+                                      IntSupplier threadsAwaitingConnection) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.maxThreadsAwaitingConnection = maxThreadsAwaitingConnection;
+        this.backoffRatio = backoffRatio;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        latencies = new AtomicLongArray(windowSize);
+        limit = initialLimit;
+    }
+
+    /**
+     * @return true if the request is admitted, in which case {@link #release(long)} must be called
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inflight.decrementAndGet();
+        long sample = samples.getAndIncrement();
+        int windowSize = latencies.length();
+        latencies.set((int) (sample % windowSize), latencyNanos);
+        // Exactly one caller completes each window so the limit is never recalculated concurrently.
+        if ((sample + 1) % windowSize == 0) {
+            adjustLimit();
+        }
+    }
+
+    private void adjustLimit() {
+        long[] window = new long[latencies.length()];
+        for (int i = 0; i < window.length; i++) {
+            window[i] = latencies.get(i);
+        }
+        Arrays.sort(window);
+        long p99 = window[(int) Math.ceil(window.length * 0.99) - 1];
+        boolean overloaded = p99 > latencyThresholdNanos
+            || threadsAwaitingConnection.getAsInt() > maxThreadsAwaitingConnection;
+        limit = overloaded
+            ? Math.max(minLimit, (int) (limit * backoffRatio))
+            : Math.min(maxLimit, limit + 1);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,67 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.config.AsyncProperties;
+import com.emeraldhieu.testcontainers.product.jdbc.StatementStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A bounded executor that runs the work of asynchronous handlers, so a Tomcat thread returns to the pool
+ * while the database and Kafka are working and is free to serve slow clients.
+ * When every thread is busy and the queue is full, work is rejected with {@link HandlerExecutorBusyException}
+ * rather than piling up.
+ * See https://docs.spring.io/spring-framework/docs/6.0.x/reference/html/web.html#mvc-ann-async
+ */
+public class HandlerExecutor implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final Counter rejectedTasks;
+
+    public HandlerExecutor(AsyncProperties asyncProperties, MeterRegistry meterRegistry) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("product-handler-");
+        executor.setCorePoolSize(asyncProperties.getPoolSize());
+        executor.setMaxPoolSize(asyncProperties.getPoolSize());
+        executor.setQueueCapacity(asyncProperties.getQueueCapacity());
+        // The statements run for a request are counted with the request's.
+        executor.setTaskDecorator(StatementStats::propagate);
+        // Let accepted work finish on shutdown, the requests are waiting for it.
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(asyncProperties.getTimeout().toMillis());
+        executor.initialize();
+
+        rejectedTasks = Counter.builder("product.async.rejected")
+            .description("Handler work rejected because the executor's queue was full")
+            .register(meterRegistry);
+        Gauge.builder("product.async.queued", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+            .description("Handler work waiting for a thread")
+            .register(meterRegistry);
+        Gauge.builder("product.async.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("Threads running handler work")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @throws HandlerExecutorBusyException if the queue is full
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedTasks.increment();
+            throw new HandlerExecutorBusyException();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
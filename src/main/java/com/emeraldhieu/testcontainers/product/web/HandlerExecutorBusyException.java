@@ -0,0 +1,12 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class HandlerExecutorBusyException extends RuntimeException {
+
+    public HandlerExecutorBusyException() {
+        super("Too many requests are in progress");
+    }
+}
@@ -0,0 +1,93 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * A filter that sheds load with 503 when the {@link AdaptiveConcurrencyLimiter} is saturated.
+ * An asynchronous request holds its slot until it completes rather than until its handler returns.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String retryAfterSeconds;
+    private final Counter shedRequests;
+
+    public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        shedRequests = Counter.builder("product.load-shedding.shed")
+            .description("Requests rejected because the concurrency limit was reached")
+            .register(meterRegistry);
+        meterRegistry.gauge("product.load-shedding.limit", limiter, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("product.load-shedding.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            shedRequests.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * "onComplete" is called once whether the request succeeded, failed or timed out.
+     */
+    private class ReleasingListener implements AsyncListener {
+
+        private final long start;
+
+        ReleasingListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Released by "onComplete"
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Released by "onComplete"
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nothing to do
+        }
+    }
+}
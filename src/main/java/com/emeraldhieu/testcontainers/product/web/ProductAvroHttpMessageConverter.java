@@ -0,0 +1,127 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.ProductRequestMessage;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * A converter that reads and writes products as Avro binary.
+ * It reuses the schemas in "resources/avro" so internal clients skip JSON parsing.
+ * + {@link ProductResponse} is written as a {@link ProductMessage}
+ * + A list of {@link ProductResponse} is written as an Avro array of {@link ProductMessage}
+ * + {@link ProductRequest} is read from a {@link ProductRequestMessage}
+ * See https://docs.spring.io/spring-framework/docs/current/reference/html/web.html#rest-message-conversion
+ */
+public class ProductAvroHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String APPLICATION_AVRO_VALUE = "application/avro";
+    public static final MediaType APPLICATION_AVRO = MediaType.valueOf(APPLICATION_AVRO_VALUE);
+
+    private static final Schema PRODUCT_LIST_SCHEMA = Schema.createArray(ProductMessage.getClassSchema());
+
+    /**
+     * Datum readers and writers are thread-safe and expensive to create so they are reused.
+     */
+    private final DatumWriter<ProductMessage> productWriter = new SpecificDatumWriter<>(ProductMessage.class);
+    private final DatumWriter<List<ProductMessage>> productListWriter = new SpecificDatumWriter<>(PRODUCT_LIST_SCHEMA);
+    private final DatumReader<ProductRequestMessage> productRequestReader =
+        new SpecificDatumReader<>(ProductRequestMessage.class);
+
+    public ProductAvroHttpMessageConverter() {
+        super(APPLICATION_AVRO);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductRequest.class == clazz || ProductResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type == ProductRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (type != null && isProductResponseList(type)) {
+            return true;
+        }
+        return ProductResponse.class == clazz;
+    }
+
+    private boolean isProductResponseList(Type type) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass())
+            && ProductResponse.class == resolvableType.getGeneric(0).resolve();
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(ProductRequest.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(inputMessage.getBody(), null);
+        try {
+            ProductRequestMessage message = productRequestReader.read(null, decoder);
+            return ProductRequest.builder()
+                .name(message.getName())
+                .price(message.getPrice())
+                .build();
+        } catch (AvroRuntimeException | IOException e) {
+            throw new HttpMessageNotReadableException("Unable to read Avro product request", e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputMessage.getBody(), null);
+        try {
+            if (object instanceof List<?> productResponses) {
+                List<ProductMessage> productMessages = productResponses.stream()
+                    .map(productResponse -> toMessage((ProductResponse) productResponse))
+                    .toList();
+                productListWriter.write(productMessages, encoder);
+            } else {
+                productWriter.write(toMessage((ProductResponse) object), encoder);
+            }
+            encoder.flush();
+        } catch (AvroRuntimeException e) {
+            throw new HttpMessageNotWritableException("Unable to write Avro product response", e);
+        }
+    }
+
+    private static ProductMessage toMessage(ProductResponse productResponse) {
+        return ProductMessage.newBuilder()
+            .setId(productResponse.getId())
+            .setName(productResponse.getName())
+            .setPrice(productResponse.getPrice())
+            .build();
+    }
+}
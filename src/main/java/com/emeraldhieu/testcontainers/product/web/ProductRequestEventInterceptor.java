@@ -0,0 +1,60 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.jfr.ProductRequestEvent;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Records requests to the product controller as {@link ProductRequestEvent}s.
+ * The event begins at the first dispatch and ends when the request completes. For an asynchronous handler,
+ * that's after the dispatch of its result, so the work on the {@link HandlerExecutor} is included.
+ */
+public class ProductRequestEventInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = ProductRequestEventInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        ProductRequestEvent event = new ProductRequestEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        if (!(request.getAttribute(EVENT_ATTRIBUTE) instanceof ProductRequestEvent event)) {
+            return;
+        }
+        request.removeAttribute(EVENT_ATTRIBUTE);
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.method = request.getMethod();
+        event.path = request.getRequestURI();
+        event.status = response.getStatus();
+        if (handler instanceof HandlerMethod handlerMethod) {
+            event.handler = handlerMethod.getMethod().getName();
+        }
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables) {
+            event.productId = (String) variables.get("id");
+        }
+        if (exception != null) {
+            event.exception = exception.getClass().getName();
+        }
+        event.commit();
+    }
+}
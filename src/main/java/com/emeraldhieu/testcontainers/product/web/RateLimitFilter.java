@@ -0,0 +1,135 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A filter that limits the request rate of every client per route with a {@link TokenBucket}.
+ * A client that runs out of tokens gets 429 with "Retry-After" so it doesn't starve the other clients.
+ * Only identities the client can't make up pick a bucket, see {@link RateLimitProperties#getClientHeader()}.
+ * A new client is rejected while every bucket is in use, see {@link RateLimitProperties#getMaxBuckets()}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ROUTE = "default";
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(1);
+
+    private final RateLimitProperties rateLimitProperties;
+    private final List<RouteQuota> routeQuotas;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextEvictionNanos = new AtomicLong(System.nanoTime());
+    private final Counter rejectedRequests;
+    private final Counter overflowedRequests;
+
+    public RateLimitFilter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        PathPatternParser pathPatternParser = PathPatternParser.defaultInstance;
+        routeQuotas = rateLimitProperties.getRoutes().stream()
+            .map(route -> new RouteQuota(route.getMethod() + " " + route.getPath(), route.getMethod(),
+                pathPatternParser.parse(route.getPath()), route.getQuota()))
+            .toList();
+        rejectedRequests = Counter.builder("product.rate-limit.rejected")
+            .description("Requests rejected because the client ran out of tokens")
+            .register(meterRegistry);
+        overflowedRequests = Counter.builder("product.rate-limit.overflowed")
+            .description("Requests of new clients rejected because every bucket was in use")
+            .register(meterRegistry);
+        meterRegistry.gauge("product.rate-limit.buckets", buckets, ConcurrentMap::size);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteQuota routeQuota = findRouteQuota(request);
+        String routeName = routeQuota != null ? routeQuota.name() : DEFAULT_ROUTE;
+        RateLimitProperties.Quota quota = routeQuota != null ? routeQuota.quota() : rateLimitProperties.getDefaultQuota();
+
+        long now = System.nanoTime();
+        String bucketKey = routeName + "|" + resolveClient(request);
+        TokenBucket bucket = buckets.get(bucketKey);
+        if (bucket == null) {
+            if (buckets.size() >= rateLimitProperties.getMaxBuckets()) {
+                evictIdleBuckets(now);
+            }
+            if (buckets.size() >= rateLimitProperties.getMaxBuckets()) {
+                overflowedRequests.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(EVICTION_INTERVAL.toSeconds()));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+                return;
+            }
+            bucket = buckets.computeIfAbsent(bucketKey,
+                key -> new TokenBucket(quota.getCapacity(), quota.getRefillPerSecond(), now));
+        }
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejectedRequests.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private RouteQuota findRouteQuota(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (RouteQuota routeQuota : routeQuotas) {
+            if (routeQuota.method().equalsIgnoreCase(request.getMethod()) && routeQuota.pathPattern().matches(path)) {
+                return routeQuota;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The prefixes keep a key from sharing a bucket with a principal or an address of the same text.
+     */
+    private String resolveClient(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        String apiKey = request.getHeader(rateLimitProperties.getClientHeader());
+        if (apiKey != null && rateLimitProperties.getClientKeys().contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    /**
+     * The map is scanned by one thread at most once per interval, so a flood of new clients doesn't scan it
+     * for every request.
+     */
+    private void evictIdleBuckets(long now) {
+        long nextEviction = nextEvictionNanos.get();
+        if (now - nextEviction < 0
+            || !nextEvictionNanos.compareAndSet(nextEviction, now + EVICTION_INTERVAL.toNanos())) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private record RouteQuota(String name, String method, PathPattern pathPattern, RateLimitProperties.Quota quota) {
+    }
+}
@@ -0,0 +1,328 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A filter that inflates request bodies sent with "Content-Encoding: gzip".
+ * Any other encoding but "identity" is rejected with 415 and "Accept-Encoding: gzip" so it isn't parsed as is.
+ * The body is inflated while it's read so it's never buffered as a whole,
+ * except with non-blocking reads which buffer the compressed body, see {@link GzipServletInputStream#setReadListener}.
+ * Response compression is done by Tomcat, see "server.compression" in application.yml.
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+    private static final String IDENTITY = "identity";
+
+    /**
+     * The body downstream readers see is inflated, so the headers describing the compressed one are hidden.
+     */
+    private static final Set<String> HIDDEN_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HIDDEN_HEADERS.add(HttpHeaders.CONTENT_ENCODING);
+        HIDDEN_HEADERS.add(HttpHeaders.CONTENT_LENGTH);
+    }
+
+    private final long maxInflatedSize;
+    private final Counter compressedBytes;
+    private final Counter inflatedBytes;
+    private final Timer inflateTimer;
+
+    public RequestDecompressionFilter(long maxInflatedSize, MeterRegistry meterRegistry) {
+        this.maxInflatedSize = maxInflatedSize;
+        compressedBytes = Counter.builder("product.compression.request.compressed.bytes")
+            .description("Bytes of gzip request bodies received")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        inflatedBytes = Counter.builder("product.compression.request.inflated.bytes")
+            .description("Bytes of request bodies after inflating")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        inflateTimer = Timer.builder("product.compression.request.inflate")
+            .description("Time spent inflating request bodies")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding == null || contentEncoding.isBlank() || IDENTITY.equalsIgnoreCase(contentEncoding.trim())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!GZIP.equalsIgnoreCase(contentEncoding.trim())) {
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, GZIP);
+            response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            return;
+        }
+        filterChain.doFilter(new GzipRequestWrapper(request), response);
+    }
+
+    private class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+        private ServletInputStream inputStream;
+
+        GzipRequestWrapper(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new GzipServletInputStream(super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        /**
+         * The inflated length is unknown until the body is read.
+         */
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HIDDEN_HEADERS.contains(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HIDDEN_HEADERS.contains(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !HIDDEN_HEADERS.contains(name))
+                .toList());
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            return HIDDEN_HEADERS.contains(name) ? -1 : super.getDateHeader(name);
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            return HIDDEN_HEADERS.contains(name) ? -1 : super.getIntHeader(name);
+        }
+    }
+
+    private class GzipServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream compressedStream;
+        private CountingInputStream countingStream;
+        private InputStream inflatingStream;
+        private long inflatedSize;
+        private boolean finished;
+
+        /**
+         * The time spent inflating is added up over the reads and recorded once per body.
+         */
+        private long inflateNanos;
+        private boolean inflateTimeRecorded;
+
+        /**
+         * The compressed body once a non-blocking read has received all of it.
+         */
+        private volatile byte[] bufferedBody;
+
+        GzipServletInputStream(ServletInputStream compressedStream) {
+            this.compressedStream = compressedStream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] singleByte = new byte[1];
+            int count = read(singleByte, 0, 1);
+            return count == -1 ? -1 : singleByte[0] & 0xFF;
+        }
+
+        /**
+         * Only the time spent inflating is counted, not the time waiting for the compressed bytes.
+         */
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            long readNanosBefore = countingStream != null ? countingStream.readNanos : 0;
+            try {
+                if (inflatingStream == null) {
+                    byte[] body = bufferedBody;
+                    countingStream = new CountingInputStream(body != null ? new ByteArrayInputStream(body) : compressedStream);
+                    // The GZIP header is read when the stream is created.
+                    inflatingStream = new GZIPInputStream(countingStream);
+                }
+                int count = inflatingStream.read(buffer, offset, length);
+                if (count == -1) {
+                    finished = true;
+                    return -1;
+                }
+                inflatedSize += count;
+                inflatedBytes.increment(count);
+                if (inflatedSize > maxInflatedSize) {
+                    throw new IOException("Inflated request body exceeds %d bytes".formatted(maxInflatedSize));
+                }
+                return count;
+            } finally {
+                long readNanos = countingStream != null ? countingStream.readNanos - readNanosBefore : 0;
+                inflateNanos += System.nanoTime() - start - readNanos;
+                if (finished) {
+                    recordInflateTime();
+                }
+            }
+        }
+
+        /**
+         * A body that isn't read to the end is recorded when it's closed.
+         */
+        private void recordInflateTime() {
+            if (!inflateTimeRecorded) {
+                inflateTimeRecorded = true;
+                inflateTimer.record(inflateNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * A read of a buffered body never blocks.
+         */
+        @Override
+        public boolean isReady() {
+            return bufferedBody != null || compressedStream.isReady();
+        }
+
+        /**
+         * Inflating can't stop halfway through a compressed block when no more bytes have arrived,
+         * so the compressed body is received as the container makes it available, then inflated from memory.
+         * It's limited to the inflated size as the compressed body is smaller unless it's crafted.
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+            compressedStream.setReadListener(new ReadListener() {
+
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[8192];
+                    int count;
+                    while (compressedStream.isReady() && (count = compressedStream.read(chunk)) != -1) {
+                        compressedBody.write(chunk, 0, count);
+                        if (compressedBody.size() > maxInflatedSize) {
+                            throw new IOException("Compressed request body exceeds %d bytes".formatted(maxInflatedSize));
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    bufferedBody = compressedBody.toByteArray();
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    readListener.onError(throwable);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inflatingStream != null) {
+                recordInflateTime();
+                inflatingStream.close();
+            } else {
+                compressedStream.close();
+            }
+        }
+    }
+
+    /**
+     * Counts the compressed bytes and the time spent reading them, which is I/O rather than inflating.
+     */
+    private class CountingInputStream extends FilterInputStream {
+
+        private long readNanos;
+
+        CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int value = super.read();
+            readNanos += System.nanoTime() - start;
+            if (value != -1) {
+                compressedBytes.increment();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int count = super.read(buffer, offset, length);
+            readNanos += System.nanoTime() - start;
+            if (count > 0) {
+                compressedBytes.increment(count);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.jdbc.StatementStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A filter that counts the JDBC statements of each request, per route of the product controller,
+ * so a change that adds statements to a request shows up.
+ * + "product.jdbc.statements" and "product.jdbc.time" are tagged with the method and the route's pattern
+ * + A request that runs more statements than its route's budget is logged with its slow statements
+ *   and counted in "product.jdbc.budget.exceeded"
+ * The statistics follow the work of an asynchronous handler to the {@link HandlerExecutor}
+ * and are read when the request completes.
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private final Map<String, Integer> budgets;
+    private final MeterRegistry meterRegistry;
+
+    public StatementBudgetFilter(Map<String, Integer> budgets, MeterRegistry meterRegistry) {
+        this.budgets = budgets;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        StatementStats statementStats = new StatementStats();
+        StatementStats previous = StatementStats.bind(statementStats);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordingListener(statementStats));
+                async = true;
+            }
+        } finally {
+            StatementStats.unbind(previous);
+            if (!async) {
+                record(request, statementStats);
+            }
+        }
+    }
+
+    /**
+     * The route is the pattern of the handler that matched, so requests of different products share a route.
+     */
+    private void record(HttpServletRequest request, StatementStats statementStats) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern)) {
+            return;
+        }
+        String method = request.getMethod();
+        DistributionSummary.builder("product.jdbc.statements")
+            .description("JDBC statements per request")
+            .tag("method", method)
+            .tag("route", pattern)
+            .register(meterRegistry)
+            .record(statementStats.getStatements());
+        Timer.builder("product.jdbc.time")
+            .description("Time of the JDBC statements per request")
+            .tag("method", method)
+            .tag("route", pattern)
+            .register(meterRegistry)
+            .record(statementStats.getNanos(), TimeUnit.NANOSECONDS);
+
+        String route = method + " " + pattern;
+        Integer budget = budgets.get(route);
+        if (budget != null && statementStats.getStatements() > budget) {
+            Counter.builder("product.jdbc.budget.exceeded")
+                .description("Requests that ran more statements than their route's budget")
+                .tag("method", method)
+                .tag("route", pattern)
+                .register(meterRegistry)
+                .increment();
+            log.warn("{} ran {} statements over its budget of {} in {} ms, slow statements: {}",
+                route, statementStats.getStatements(), budget, statementStats.getNanos() / 1_000_000,
+                statementStats.getSlowStatements());
+        }
+    }
+
+    /**
+     * "onComplete" is called once whether the request succeeded, failed or timed out.
+     */
+    private class RecordingListener implements AsyncListener {
+
+        private final StatementStats statementStats;
+
+        RecordingListener(StatementStats statementStats) {
+            this.statementStats = statementStats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record((HttpServletRequest) event.getSuppliedRequest(), statementStats);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Recorded by "onComplete"
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Recorded by "onComplete"
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nothing to do
+        }
+    }
+}
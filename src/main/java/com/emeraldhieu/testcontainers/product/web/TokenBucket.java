@@ -0,0 +1,52 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket.
+ * It's implemented as the Generic Cell Rate Algorithm which keeps the whole state in one {@link AtomicLong}:
+ * the "theoretical arrival time" of the next request. A request is admitted when that time isn't further ahead
+ * of now than the burst the bucket's capacity allows.
+ * See https://en.wikipedia.org/wiki/Generic_cell_rate_algorithm
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take a token.
+     *
+     * @return 0 if the token is taken, otherwise the nanoseconds to wait until a token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstToleranceNanos - emissionIntervalNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket is idle when it's full again so dropping it doesn't change any client's quota.
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrivalTime.get() <= nowNanos;
+    }
+}
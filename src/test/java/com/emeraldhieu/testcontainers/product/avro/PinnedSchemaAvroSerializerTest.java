@@ -0,0 +1,104 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import org.apache.avro.Schema;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinnedSchemaAvroSerializerTest {
+
+    private static final String TOPIC = "products";
+
+    private PinnedSchema pinnedSchema;
+    private PinnedSchemaAvroSerializer serializer;
+    private PinnedSchemaAvroDeserializer deserializer;
+
+    @BeforeEach
+    public void setUp() {
+        pinnedSchema = new PinnedSchema("products-value", ProductMessage.getClassSchema());
+        serializer = new PinnedSchemaAvroSerializer(pinnedSchema);
+        deserializer = new PinnedSchemaAvroDeserializer(pinnedSchema, null);
+    }
+
+    @Test
+    void givenPinnedId_whenSerialize_thenWriteConfluentWireFormat() {
+        // GIVEN
+        pinnedSchema.pin(42);
+
+        // WHEN
+        byte[] bytes = serializer.serialize(TOPIC, productMessage("pizza"));
+
+        // THEN
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertEquals(0, buffer.get());
+        assertEquals(42, buffer.getInt());
+        assertEquals(productMessage("pizza"), deserializer.deserialize(TOPIC, bytes));
+    }
+
+    @Test
+    void givenUnresolvedId_whenSerialize_thenWriteSingleObjectEncoding() throws Exception {
+        // WHEN
+        byte[] bytes = serializer.serialize(TOPIC, productMessage("pizza"));
+
+        // THEN
+        assertEquals(productMessage("pizza"), ProductMessage.fromByteBuffer(ByteBuffer.wrap(bytes)));
+        assertEquals(productMessage("pizza"), deserializer.deserialize(TOPIC, bytes));
+    }
+
+    @Test
+    void givenRecordsOfDifferentSizes_whenSerializeOnSameThread_thenBufferIsReset() {
+        // GIVEN
+        pinnedSchema.pin(1);
+        serializer.serialize(TOPIC, productMessage("a much longer name than the next one"));
+
+        // WHEN
+        byte[] bytes = serializer.serialize(TOPIC, productMessage("taco"));
+
+        // THEN
+        assertEquals(productMessage("taco"), deserializer.deserialize(TOPIC, bytes));
+    }
+
+    @Test
+    void givenStringSchema_whenSerializeKey_thenDeserializeText() {
+        // GIVEN
+        PinnedSchema keySchema = new PinnedSchema("products-key", Schema.create(Schema.Type.STRING));
+        keySchema.pin(7);
+
+        // WHEN
+        byte[] bytes = new PinnedSchemaAvroSerializer(keySchema).serialize(TOPIC, "pizza");
+
+        // THEN
+        Object key = new PinnedSchemaAvroDeserializer(keySchema, null).deserialize(TOPIC, bytes);
+        assertEquals("pizza", key.toString());
+    }
+
+    @Test
+    void givenOtherSchemaIdAndNoRegistry_whenDeserialize_thenThrow() {
+        // GIVEN
+        pinnedSchema.pin(1);
+        byte[] bytes = serializer.serialize(TOPIC, productMessage("pizza"));
+        pinnedSchema.pin(2);
+
+        // WHEN
+        SerializationException exception = assertThrows(SerializationException.class,
+            () -> deserializer.deserialize(TOPIC, bytes));
+
+        // THEN
+        assertTrue(exception.getMessage().contains("Schema ID 1"));
+    }
+
+    private static ProductMessage productMessage(String name) {
+        return ProductMessage.newBuilder()
+            .setId("id-" + name)
+            .setName(name)
+            .setPrice(42)
+            .build();
+    }
+}
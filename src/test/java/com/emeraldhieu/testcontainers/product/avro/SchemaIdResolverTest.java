@@ -0,0 +1,127 @@
+package com.emeraldhieu.testcontainers.product.avro;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.AvroSerializationProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaIdResolverTest {
+
+    private static final String SUBJECT = "products-value";
+
+    @TempDir
+    Path directory;
+
+    private AvroSerializationProperties properties;
+    private HttpServer registry;
+    private AtomicInteger registrations;
+    private volatile boolean registryAvailable;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        properties = new AvroSerializationProperties();
+        properties.setSchemaCacheDirectory(directory.toString());
+        properties.setRegistryTimeout(Duration.ofSeconds(1));
+
+        // A registry that answers every registration with the ID 42 while it's available.
+        registrations = new AtomicInteger();
+        registryAvailable = true;
+        registry = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        registry.createContext("/subjects/" + SUBJECT + "/versions", exchange -> {
+            registrations.incrementAndGet();
+            byte[] body = registryAvailable
+                ? "{\"id\":42}".getBytes(StandardCharsets.UTF_8)
+                : "{\"error_code\":50003}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(registryAvailable ? 200 : 503, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        registry.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.stop(0);
+    }
+
+    @Test
+    void givenRegistry_whenPin_thenResolveAndCacheId() {
+        // GIVEN
+        SchemaIdResolver resolver = resolver(registryUrl());
+
+        // WHEN
+        PinnedSchema pinnedSchema = resolver.pin(SUBJECT, ProductMessage.getClassSchema());
+
+        // THEN
+        assertEquals(42, pinnedSchema.getId());
+        assertEquals(1, registrations.get());
+        assertTrue(directory.toFile().list().length > 0);
+    }
+
+    @Test
+    void givenCachedId_whenPinAgain_thenDontAskRegistry() {
+        // GIVEN
+        resolver(registryUrl()).pin(SUBJECT, ProductMessage.getClassSchema());
+
+        // WHEN
+        PinnedSchema pinnedSchema = resolver(registryUrl()).pin(SUBJECT, ProductMessage.getClassSchema());
+
+        // THEN
+        assertEquals(42, pinnedSchema.getId());
+        assertEquals(1, registrations.get());
+    }
+
+    @Test
+    void givenCachedIdOfOtherRegistry_whenPin_thenIgnoreCache() {
+        // GIVEN
+        resolver(registryUrl()).pin(SUBJECT, ProductMessage.getClassSchema());
+        registry.stop(0);
+
+        // WHEN
+        PinnedSchema pinnedSchema = resolver("http://localhost:1").pin(SUBJECT, ProductMessage.getClassSchema());
+
+        // THEN
+        assertFalse(pinnedSchema.isResolved());
+    }
+
+    @Test
+    void givenRegistryDownAtStartup_whenResolveLater_thenPinId() {
+        // GIVEN
+        registryAvailable = false;
+        SchemaIdResolver resolver = resolver(registryUrl());
+        PinnedSchema pinnedSchema = resolver.pin(SUBJECT, ProductMessage.getClassSchema());
+        assertFalse(pinnedSchema.isResolved());
+
+        // WHEN
+        registryAvailable = true;
+        resolver.resolveUnresolved();
+
+        // THEN
+        assertEquals(42, pinnedSchema.getId());
+    }
+
+    private SchemaIdResolver resolver(String registryUrl) {
+        return new SchemaIdResolver(properties, registryUrl, new SimpleMeterRegistry());
+    }
+
+    private String registryUrl() {
+        return "http://localhost:" + registry.getAddress().getPort();
+    }
+}
@@ -0,0 +1,103 @@
+package com.emeraldhieu.testcontainers.product.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void givenPutIds_whenMightContain_thenTrue() {
+        // GIVEN
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        List<String> ids = new ArrayList<>(KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            ids.add(externalId());
+        }
+
+        // WHEN
+        ids.forEach(filter::put);
+
+        // THEN
+        ids.forEach(id -> assertTrue(filter.mightContain(id)));
+    }
+
+    @Test
+    void givenFullFilter_whenMightContainUnknownIds_thenFalsePositiveRateNearTarget() {
+        // GIVEN
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put(externalId());
+        }
+
+        // WHEN
+        int falsePositives = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (filter.mightContain(externalId())) {
+                falsePositives++;
+            }
+        }
+
+        // THEN
+        double falsePositiveRate = (double) falsePositives / KEYS;
+        assertTrue(falsePositiveRate < 0.015, "falsePositiveRate=" + falsePositiveRate);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.003);
+    }
+
+    @Test
+    void givenEmptyFilter_whenMightContain_thenFalse() {
+        // GIVEN
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+
+        // WHEN and THEN
+        assertFalse(filter.mightContain(externalId()));
+        assertEquals(0, filter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    void givenConcurrentPuts_whenMightContain_thenNoIdIsLost() throws Exception {
+        // GIVEN
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        int threads = 8;
+        List<List<String>> idsPerThread = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            List<String> ids = new ArrayList<>();
+            for (int j = 0; j < KEYS / threads; j++) {
+                ids.add(externalId());
+            }
+            idsPerThread.add(ids);
+        }
+
+        // WHEN
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<String> ids : idsPerThread) {
+                futures.add(executorService.submit(() -> ids.forEach(filter::put)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        // THEN
+        idsPerThread.forEach(ids -> ids.forEach(id -> assertTrue(filter.mightContain(id))));
+    }
+
+    private static String externalId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
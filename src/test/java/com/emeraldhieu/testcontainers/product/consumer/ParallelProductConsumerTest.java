@@ -0,0 +1,112 @@
+package com.emeraldhieu.testcontainers.product.consumer;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.ProductConsumerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelProductConsumerTest {
+
+    private static final String TOPIC = "products";
+
+    private ParallelProductConsumer parallelProductConsumer;
+
+    @AfterEach
+    public void tearDown() {
+        parallelProductConsumer.destroy();
+    }
+
+    @Test
+    void givenRecordsOfManyKeys_whenConsume_thenProcessEveryKeyInOrder() {
+        // GIVEN
+        Map<String, List<Double>> pricesByKey = new ConcurrentHashMap<>();
+        parallelProductConsumer = consumer((id, productMessage) -> {
+            sleepBriefly();
+            pricesByKey.computeIfAbsent(id, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(productMessage.getPrice());
+        });
+        List<ConsumerRecord<Object, ProductMessage>> records = IntStream.range(0, 200)
+            .mapToObj(i -> record(i, "product" + (i % 10), i))
+            .toList();
+
+        // WHEN
+        parallelProductConsumer.consume(records);
+
+        // THEN
+        assertEquals(10, pricesByKey.size());
+        pricesByKey.forEach((key, prices) -> {
+            List<Double> sortedPrices = new ArrayList<>(prices);
+            Collections.sort(sortedPrices);
+            assertEquals(20, prices.size());
+            assertEquals(sortedPrices, prices, key);
+        });
+    }
+
+    @Test
+    void givenFailedRecord_whenConsume_thenFailAtFirstUnprocessedRecordAndSkipRestOfItsKey() {
+        // GIVEN
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        parallelProductConsumer = consumer((id, productMessage) -> {
+            if (productMessage.getPrice() == 3) {
+                throw new IllegalStateException("Index is down");
+            }
+            processed.add(id + "@" + productMessage.getPrice());
+        });
+        List<ConsumerRecord<Object, ProductMessage>> records = List.of(
+            record(0, "pizza", 1),
+            record(1, "burger", 2),
+            record(2, "pizza", 3),
+            record(3, "burger", 4),
+            record(4, "pizza", 5)
+        );
+
+        // WHEN
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+            () -> parallelProductConsumer.consume(records));
+
+        // THEN
+        assertEquals(2, exception.getIndex());
+        assertTrue(processed.contains("pizza@1.0"));
+        assertTrue(processed.contains("burger@4.0"));
+        assertFalse(processed.contains("pizza@5.0"));
+    }
+
+    private static ParallelProductConsumer consumer(ProductMessageHandler productMessageHandler) {
+        ProductConsumerProperties properties = new ProductConsumerProperties();
+        properties.setConcurrency(1);
+        properties.setParallelism(4);
+        return new ParallelProductConsumer(properties, productMessageHandler, new SimpleMeterRegistry());
+    }
+
+    private static ConsumerRecord<Object, ProductMessage> record(long offset, String id, double price) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, id, ProductMessage.newBuilder()
+            .setId(id)
+            .setName(id)
+            .setPrice(price)
+            .build());
+    }
+
+    private static void sleepBriefly() {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
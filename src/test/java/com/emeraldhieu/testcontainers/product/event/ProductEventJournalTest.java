@@ -0,0 +1,131 @@
+package com.emeraldhieu.testcontainers.product.event;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.JournalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductEventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private JournalProperties journalProperties;
+
+    @BeforeEach
+    public void setUp() {
+        journalProperties = new JournalProperties();
+        journalProperties.setDirectory(directory.toString());
+        journalProperties.setSegmentSize(DataSize.ofKilobytes(1));
+        journalProperties.setMaxSize(DataSize.ofKilobytes(4));
+    }
+
+    @Test
+    void givenAppendedMessages_whenSealAndRead_thenReturnMessagesInOrder() {
+        // GIVEN
+        ProductEventJournal journal = new ProductEventJournal(journalProperties, new SimpleMeterRegistry());
+        List<ProductMessage> productMessages = productMessages(30);
+        productMessages.forEach(journal::append);
+
+        // WHEN
+        journal.seal();
+
+        // THEN
+        List<Path> segments = journal.pendingSegments();
+        assertTrue(segments.size() > 1, "Messages should span several segments");
+        List<ProductMessage> readMessages = segments.stream()
+            .flatMap(segment -> journal.read(segment).stream())
+            .toList();
+        assertEquals(productMessages, readMessages);
+    }
+
+    @Test
+    void givenSegmentsOfPreviousRun_whenOpen_thenRecoverThem() {
+        // GIVEN
+        ProductEventJournal previousJournal = new ProductEventJournal(journalProperties, new SimpleMeterRegistry());
+        List<ProductMessage> productMessages = productMessages(3);
+        productMessages.forEach(previousJournal::append);
+        previousJournal.close();
+
+        // WHEN
+        ProductEventJournal journal = new ProductEventJournal(journalProperties, new SimpleMeterRegistry());
+        journal.append(productMessages(4).get(3));
+        journal.seal();
+
+        // THEN
+        List<Path> segments = journal.pendingSegments();
+        assertEquals(2, segments.size());
+        assertEquals(productMessages, journal.read(segments.get(0)));
+    }
+
+    @Test
+    void givenFullJournal_whenAppend_thenDropMessage() {
+        // GIVEN
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductEventJournal journal = new ProductEventJournal(journalProperties, meterRegistry);
+
+        // WHEN
+        boolean allAppended = productMessages(200).stream()
+            .allMatch(journal::append);
+
+        // THEN
+        assertFalse(allAppended);
+        assertTrue(meterRegistry.get("product.journal.dropped").counter().count() > 0);
+    }
+
+    @Test
+    void givenPartlyFilledSegments_whenAppend_thenLimitCountsBytesNotSegments() {
+        // GIVEN
+        ProductEventJournal journal = new ProductEventJournal(journalProperties, new SimpleMeterRegistry());
+
+        // WHEN
+        boolean allAppended = productMessages(10).stream()
+            .allMatch(productMessage -> {
+                boolean appended = journal.append(productMessage);
+                journal.seal();
+                return appended;
+            });
+
+        // THEN
+        assertTrue(allAppended);
+        assertEquals(10, journal.pendingSegments().size());
+        assertTrue(journal.usedBytes() < DataSize.ofKilobytes(4).toBytes());
+    }
+
+    @Test
+    void givenReplayedSegment_whenDelete_thenItIsNoLongerPending() {
+        // GIVEN
+        ProductEventJournal journal = new ProductEventJournal(journalProperties, new SimpleMeterRegistry());
+        journal.append(productMessages(1).get(0));
+        journal.seal();
+        Path segment = journal.pendingSegments().get(0);
+
+        // WHEN
+        journal.delete(segment);
+
+        // THEN
+        assertTrue(journal.pendingSegments().isEmpty());
+        assertFalse(segment.toFile().exists());
+    }
+
+    private List<ProductMessage> productMessages(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> ProductMessage.newBuilder()
+                .setId("%032d".formatted(i))
+                .setName("product" + i)
+                .setPrice(i)
+                .build())
+            .toList();
+    }
+}
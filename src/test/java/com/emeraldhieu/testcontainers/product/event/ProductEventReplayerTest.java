@@ -0,0 +1,113 @@
+package com.emeraldhieu.testcontainers.product.event;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.JournalProperties;
+import com.emeraldhieu.testcontainers.product.config.KafkaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+class ProductEventReplayerTest {
+
+    private static final String TOPIC = "product";
+
+    @TempDir
+    Path directory;
+
+    private ProductEventJournal journal;
+    private KafkaTemplate<String, ProductMessage> kafkaTemplate;
+    private ProductEventReplayer replayer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setDirectory(directory.toString());
+        journalProperties.setSegmentSize(DataSize.ofKilobytes(1));
+        journalProperties.setMaxSize(DataSize.ofKilobytes(4));
+        journalProperties.setReplaySendTimeout(Duration.ofSeconds(1));
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setTopic(TOPIC);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        journal = new ProductEventJournal(journalProperties, meterRegistry);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        replayer = new ProductEventReplayer(journal, kafkaTemplate, kafkaProperties, journalProperties, meterRegistry);
+    }
+
+    @Test
+    void givenKafkaDown_whenReplayRepeatedly_thenSealOnlyOneSegment() {
+        // GIVEN
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(ProductMessage.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Kafka is down")));
+        List<ProductMessage> productMessages = productMessages(3);
+
+        // WHEN
+        for (ProductMessage productMessage : productMessages) {
+            journal.append(productMessage);
+            replayer.replay();
+        }
+
+        // THEN
+        List<Path> segments = journal.pendingSegments();
+        assertEquals(1, segments.size());
+        assertEquals(productMessages.subList(0, 1), journal.read(segments.get(0)));
+    }
+
+    @Test
+    void givenKafkaDownThenUp_whenReplay_thenSendEveryMessageInOrderKeyedByIdAndEmptyJournal() {
+        // GIVEN
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(ProductMessage.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Kafka is down")));
+        List<ProductMessage> productMessages = productMessages(3);
+        for (ProductMessage productMessage : productMessages) {
+            journal.append(productMessage);
+            replayer.replay();
+        }
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(ProductMessage.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        clearInvocations(kafkaTemplate);
+
+        // WHEN
+        replayer.replay();
+
+        // THEN
+        InOrder inOrder = inOrder(kafkaTemplate);
+        for (ProductMessage productMessage : productMessages) {
+            inOrder.verify(kafkaTemplate, times(1)).send(TOPIC, productMessage.getId(), productMessage);
+        }
+        assertTrue(journal.pendingSegments().isEmpty());
+        assertEquals(0, journal.usedBytes());
+    }
+
+    private List<ProductMessage> productMessages(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> ProductMessage.newBuilder()
+                .setId("%032d".formatted(i))
+                .setName("product" + i)
+                .setPrice(i)
+                .build())
+            .toList();
+    }
+}
@@ -0,0 +1,132 @@
+package com.emeraldhieu.testcontainers.product.jfr;
+
+import com.emeraldhieu.testcontainers.product.config.FlightRecorderProperties;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Custom events of a native image need "--enable-monitoring=jfr".
+@DisabledInNativeImage
+class FlightRecordingsTest {
+
+    @TempDir
+    private Path dumpDirectory;
+
+    private FlightRecordings flightRecordings;
+
+    @BeforeEach
+    public void setUp() {
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setDumpDirectory(dumpDirectory.toString());
+        properties.setOperationThreshold(Duration.ZERO);
+        flightRecordings = new FlightRecordings(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        flightRecordings.destroy();
+    }
+
+    @Test
+    void givenRecording_whenRecordOperationAndDump_thenFileHasOperationEvent() throws IOException {
+        // GIVEN
+        FlightRecordings.RecordingInfo recording = flightRecordings.start("test", null);
+
+        // WHEN
+        String result = ProductOperationEvent.record("get", "pizza", () -> "found");
+        Path file = flightRecordings.dump(recording.id()).orElseThrow();
+
+        // THEN
+        assertEquals("found", result);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals("com.emeraldhieu.product.Operation"))
+            .toList();
+        assertEquals(1, events.size());
+        assertEquals("get", events.get(0).getString("operation"));
+        assertEquals("pizza", events.get(0).getString("productId"));
+    }
+
+    @Test
+    void givenRecording_whenOperationFails_thenEventHasException() throws IOException {
+        // GIVEN
+        FlightRecordings.RecordingInfo recording = flightRecordings.start("test", null);
+
+        // WHEN
+        assertThrows(IllegalStateException.class, () -> ProductOperationEvent.record("update", "pizza", () -> {
+            throw new IllegalStateException();
+        }));
+        Path file = flightRecordings.dump(recording.id()).orElseThrow();
+
+        // THEN
+        RecordedEvent event = RecordingFile.readAllEvents(file).stream()
+            .filter(recordedEvent -> recordedEvent.getEventType().getName().equals("com.emeraldhieu.product.Operation"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(IllegalStateException.class.getName(), event.getString("exception"));
+    }
+
+    @Test
+    void givenRecording_whenStopAndClose_thenStoppedAndRemoved() {
+        // GIVEN
+        FlightRecordings.RecordingInfo recording = flightRecordings.start("test", null);
+
+        // WHEN
+        FlightRecordings.RecordingInfo stoppedRecording = flightRecordings.stop(recording.id()).orElseThrow();
+        boolean closed = flightRecordings.close(recording.id());
+
+        // THEN
+        assertEquals(RecordingState.STOPPED, stoppedRecording.state());
+        assertTrue(closed);
+        assertTrue(flightRecordings.list().isEmpty());
+        assertFalse(flightRecordings.dump(recording.id()).isPresent());
+    }
+
+    @Test
+    void givenDump_whenStreamedByEndpoint_thenFileDeleted() throws IOException {
+        // GIVEN
+        FlightRecordings.RecordingInfo recording = flightRecordings.start("test", null);
+        FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(flightRecordings);
+        Resource dump = endpoint.dump(recording.id()).getBody();
+
+        // WHEN
+        try (InputStream inputStream = dump.getInputStream()) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+
+        // THEN
+        assertFalse(dump.exists());
+    }
+
+    @Test
+    void givenDumpOfPreviousRun_whenStart_thenDeleteIt() throws IOException {
+        // GIVEN
+        Path leftDump = Files.createFile(dumpDirectory.resolve("product-continuous-1-1700000000000.jfr"));
+        Path otherFile = Files.createFile(dumpDirectory.resolve("other.jfr"));
+
+        // WHEN
+        flightRecordings.afterPropertiesSet();
+
+        // THEN
+        assertFalse(Files.exists(leftDump));
+        assertTrue(Files.exists(otherFile));
+    }
+}
@@ -1,35 +1,55 @@
 package com.emeraldhieu.testcontainers.product.logic;
 
+import com.emeraldhieu.testcontainers.product.bloom.ProductIdFilter;
+import com.emeraldhieu.testcontainers.product.config.ChangesProperties;
 import com.emeraldhieu.testcontainers.product.event.ProductCreatedEvent;
+import com.emeraldhieu.testcontainers.product.logic.idempotency.IdempotencyStore;
 import com.emeraldhieu.testcontainers.product.logic.mapping.ProductRequestMapper;
 import com.emeraldhieu.testcontainers.product.logic.mapping.ProductResponseMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
 class DefaultProductServiceTest {
 
     private ProductRepository productRepository;
     private ProductRequestMapper productRequestMapper;
     private ProductResponseMapper productResponseMapper;
     private ApplicationEventPublisher applicationEventPublisher;
+    private ChangesProperties changesProperties;
+    private ProductIdFilter productIdFilter;
+    private IdempotencyStore idempotencyStore;
+    private ProductBatchUpdater productBatchUpdater;
+    private ProductKeysetReader productKeysetReader;
+    private ProductCounter productCounter;
+    private ProductCache productCache;
     private DefaultProductService defaultProductService;
 
     @BeforeEach
@@ -38,8 +58,17 @@ class DefaultProductServiceTest {
         productRequestMapper = mock(ProductRequestMapper.class);
         productResponseMapper = mock(ProductResponseMapper.class);
         applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        changesProperties = new ChangesProperties();
+        productIdFilter = mock(ProductIdFilter.class);
+        when(productIdFilter.mightContain(any())).thenReturn(true);
+        idempotencyStore = mock(IdempotencyStore.class);
+        productBatchUpdater = mock(ProductBatchUpdater.class);
+        productKeysetReader = mock(ProductKeysetReader.class);
+        productCounter = mock(ProductCounter.class);
+        productCache = mock(ProductCache.class);
         defaultProductService = new DefaultProductService(productRepository, productRequestMapper,
-            productResponseMapper, applicationEventPublisher);
+            productResponseMapper, applicationEventPublisher, changesProperties, productIdFilter, idempotencyStore,
+            productBatchUpdater, productKeysetReader, productCounter, productCache);
     }
 
     @Test
@@ -76,6 +105,7 @@ class DefaultProductServiceTest {
             .price(price)
             .build();
         verify(applicationEventPublisher, times(1)).publishEvent(event);
+        verify(productIdFilter, times(1)).put(externalId);
         assertEquals(expectedProductResponse, productResponse);
     }
 
@@ -92,7 +122,7 @@ class DefaultProductServiceTest {
             .externalId(externalId)
             .name(productName)
             .build();
-        when(productRepository.findByExternalId(externalId)).thenReturn(Optional.of(retrievedProduct));
+        when(productRepository.findByNaturalId(externalId)).thenReturn(Optional.of(retrievedProduct));
 
         doAnswer(invocation -> {
             Object[] args = invocation.getArguments();
@@ -113,7 +143,7 @@ class DefaultProductServiceTest {
             .externalId(externalId)
             .name(productNameToUpdate)
             .build();
-        when(productRepository.save(productToUpdate)).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(productToUpdate)).thenReturn(updatedProduct);
 
         ProductResponse expectedProductResponse = ProductResponse.builder()
             .id(externalId)
@@ -136,27 +166,25 @@ class DefaultProductServiceTest {
         Pageable pageable = PageRequest.of(offset, limit);
 
         String externalId = "amazingExternalId";
-        Product product = Product.builder()
-            .externalId(externalId)
-            .build();
-        Page<Product> products = new PageImpl<>(
+        ProductView productView = new ProductView(externalId, "pizza", 42);
+        Slice<ProductView> productViews = new SliceImpl<>(
             List.of(
-                product
+                productView
             )
         );
-        when(productRepository.findAll(pageable)).thenReturn(products);
+        when(productRepository.findAllViews(pageable)).thenReturn(productViews);
 
         ProductResponse expectedProductResponse = ProductResponse.builder()
             .id(externalId)
             .build();
-        when(productResponseMapper.toDto(product)).thenReturn(expectedProductResponse);
+        when(productResponseMapper.toDto(productView)).thenReturn(expectedProductResponse);
 
         List<ProductResponse> expectedProductResponses = List.of(
             expectedProductResponse
         );
 
         // WHEN
-        Page<ProductResponse> productResponses = defaultProductService.list(offset, limit);
+        Slice<ProductResponse> productResponses = defaultProductService.list(offset, limit);
 
         // THEN
         assertEquals(expectedProductResponses, productResponses.get().collect(Collectors.toList()));
@@ -166,15 +194,13 @@ class DefaultProductServiceTest {
     void givenProductId_whenGet_thenReturnProductResponse() {
         // GIVEN
         String externalId = "amazingExternalId";
-        Product product = Product.builder()
-            .externalId(externalId)
-            .build();
-        when(productRepository.findByExternalId(externalId)).thenReturn(Optional.of(product));
+        ProductView productView = new ProductView(externalId, "pizza", 42);
+        when(productRepository.findViewByExternalId(externalId)).thenReturn(Optional.of(productView));
 
         ProductResponse expectedProductResponse = ProductResponse.builder()
             .id(externalId)
             .build();
-        when(productResponseMapper.toDto(product)).thenReturn(expectedProductResponse);
+        when(productResponseMapper.toDto(productView)).thenReturn(expectedProductResponse);
 
         // WHEN
         ProductResponse productResponse = defaultProductService.get(externalId);
@@ -184,21 +210,214 @@ class DefaultProductServiceTest {
     }
 
     @Test
-    void givenProductId_whenDelete_thenCallRepositoryMethods() {
+    void givenStoredIdempotencyKey_whenCreate_thenReturnStoredResponseWithoutInsert() {
         // GIVEN
-        String externalId = "amazingExternalId";
+        ProductRequest productRequest = ProductRequest.builder()
+            .name("pizza")
+            .price(42d)
+            .build();
+        String idempotencyKey = "amazingIdempotencyKey";
+        ProductResponse storedResponse = ProductResponse.builder()
+            .id("amazingExternalId")
+            .build();
+        when(idempotencyStore.findResponse(idempotencyKey, productRequest)).thenReturn(Optional.of(storedResponse));
+
+        // WHEN
+        ProductResponse productResponse = defaultProductService.create(productRequest, idempotencyKey);
+
+        // THEN
+        assertEquals(storedResponse, productResponse);
+        verify(productRepository, never()).save(any());
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void givenMoreProductsThanLimit_whenListSorted_thenReturnLimitAndCursorOfLastProduct() {
+        // GIVEN
+        int limit = 2;
+        List<ProductView> products = List.of(
+            new ProductView("a", "apple", 1),
+            new ProductView("b", "banana", 2),
+            new ProductView("c", "cherry", 3)
+        );
+        when(productKeysetReader.read(ProductSort.PRICE, null, 0, limit + 1)).thenReturn(products);
+        when(productResponseMapper.toDto(any(ProductView.class))).thenAnswer(invocation -> ProductResponse.builder()
+            .id(invocation.<ProductView>getArgument(0).externalId())
+            .build());
+
+        // WHEN
+        ProductKeysetPage page = defaultProductService.listSorted("price", null, 0, limit);
+
+        // THEN
+        assertEquals(List.of("a", "b"), page.products().stream().map(ProductResponse::getId).toList());
+        ProductCursor cursor = ProductCursor.decode(page.nextCursor(), ProductSort.PRICE);
+        assertEquals("b", cursor.externalId());
+        assertEquals(2d, cursor.key());
+    }
+
+    @Test
+    void givenUnsupportedSort_whenListSorted_thenThrowInvalidSortException() {
+        // WHEN and THEN
+        assertThrows(InvalidSortException.class, () -> defaultProductService.listSorted("external_id", null, 0, 10));
+    }
+
+    @Test
+    void givenCursorOfAnotherSort_whenListSorted_thenThrowInvalidCursorException() {
+        // GIVEN
+        String nameCursor = ProductCursor.of(ProductSort.NAME, new ProductView("a", "apple", 1)).encode();
+
+        // WHEN and THEN
+        assertThrows(InvalidCursorException.class, () -> defaultProductService.listSorted("-price", nameCursor, 0, 10));
+    }
 
+    @Test
+    void givenIdMissingFromFilter_whenGet_thenThrowWithoutQuery() {
+        // GIVEN
+        String externalId = "unknownExternalId";
+        when(productIdFilter.mightContain(externalId)).thenReturn(false);
+
+        // WHEN
+        assertThrows(ProductNotFoundException.class, () -> defaultProductService.get(externalId));
+
+        // THEN
+        verify(productRepository, never()).findViewByExternalId(any());
+    }
+
+    @Test
+    void givenIdPassingFilterButAbsent_whenGet_thenRecordFalsePositive() {
+        // GIVEN
+        String externalId = "deletedExternalId";
+        when(productRepository.findViewByExternalId(externalId)).thenReturn(Optional.empty());
+
+        // WHEN
+        assertThrows(ProductNotFoundException.class, () -> defaultProductService.get(externalId));
+
+        // THEN
+        verify(productIdFilter, times(1)).recordFalsePositive();
+    }
+
+    @Test
+    void givenIdCreatedElsewhere_whenGet_thenRecordFound() {
+        // GIVEN
+        String externalId = "importedExternalId";
+        ProductView productView = new ProductView(externalId, "pizza", 42);
+        when(productRepository.findViewByExternalId(externalId)).thenReturn(Optional.of(productView));
+
+        // WHEN
+        defaultProductService.get(externalId);
+
+        // THEN
+        verify(productIdFilter, times(1)).recordFound(externalId);
+    }
+
+    @Test
+    void givenProductId_whenDelete_thenSoftDelete() {
+        // GIVEN
+        String externalId = "amazingExternalId";
         Product product = Product.builder()
             .externalId(externalId)
             .build();
-        when(productRepository.findByExternalId(externalId)).thenReturn(Optional.of(product));
+        when(productRepository.findByNaturalId(externalId)).thenReturn(Optional.of(product));
 
         // WHEN
         defaultProductService.delete(externalId);
 
         // THEN
-        verify(productRepository, times(1)).findByExternalId(externalId);
-        verify(productRepository, times(1)).deleteByExternalId(externalId);
+        assertTrue(product.isDeleted());
+    }
+
+    @Test
+    void givenUnknownProductId_whenDelete_thenDoNothing() {
+        // GIVEN
+        String externalId = "unknownExternalId";
+        when(productRepository.findByNaturalId(externalId)).thenReturn(Optional.empty());
+
+        // WHEN
+        defaultProductService.delete(externalId);
+
+        // THEN
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void givenProductChangedElsewhere_whenUpdate_thenConflictAndEvict() {
+        // GIVEN
+        String externalId = "staleExternalId";
+        Product staleProduct = Product.builder()
+            .id(42L)
+            .externalId(externalId)
+            .build();
+        when(productRepository.findByNaturalId(externalId)).thenReturn(Optional.of(staleProduct));
+        when(productRepository.saveAndFlush(staleProduct))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 42L));
+
+        // WHEN
+        assertThrows(ProductConflictException.class, () -> defaultProductService.update(externalId,
+            ProductRequest.builder().price(43d).build()));
+
+        // THEN
+        verify(productCache).evict(List.of(42L));
+    }
+
+    @Test
+    void givenMoreChangesThanLimit_whenListChanges_thenReturnLimitAndTokenOfLastChange() {
+        // GIVEN
+        Instant updatedAt = Instant.parse("2023-06-01T10:15:30.123456Z");
+        ProductChangeView firstChange = new ProductChangeView(1, "firstExternalId", "pizza", 42, false, updatedAt);
+        ProductChangeView secondChange = new ProductChangeView(2, "secondExternalId", "burger", 666, true, updatedAt);
+        ProductChangeView thirdChange = new ProductChangeView(3, "thirdExternalId", "salad", 7, false, updatedAt);
+        when(productRepository.findChanges(eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(PageRequest.of(0, 3))))
+            .thenReturn(List.of(firstChange, secondChange, thirdChange));
+
+        ProductChangeResponse firstResponse = ProductChangeResponse.builder()
+            .id("firstExternalId")
+            .build();
+        ProductChangeResponse secondResponse = ProductChangeResponse.builder()
+            .id("secondExternalId")
+            .deleted(true)
+            .build();
+        when(productResponseMapper.toDto(firstChange)).thenReturn(firstResponse);
+        when(productResponseMapper.toDto(secondChange)).thenReturn(secondResponse);
+
+        // WHEN
+        ProductChangesResponse productChangesResponse = defaultProductService.listChanges(null, 2);
+
+        // THEN
+        assertEquals(List.of(firstResponse, secondResponse), productChangesResponse.getChanges());
+        assertTrue(productChangesResponse.isHasMore());
+        assertEquals(new ChangeToken(updatedAt, 2), ChangeToken.decode(productChangesResponse.getNextToken()));
+    }
+
+    @Test
+    void givenNoChange_whenListChanges_thenReturnSameToken() {
+        // GIVEN
+        String since = new ChangeToken(Instant.parse("2023-06-01T10:15:30Z"), 42).encode();
+        when(productRepository.findChanges(any(Instant.class), eq(42L), any(Instant.class), any(Pageable.class)))
+            .thenReturn(List.of());
+
+        // WHEN
+        ProductChangesResponse productChangesResponse = defaultProductService.listChanges(since, 100);
+
+        // THEN
+        assertEquals(List.of(), productChangesResponse.getChanges());
+        assertFalse(productChangesResponse.isHasMore());
+        assertEquals(since, productChangesResponse.getNextToken());
+    }
+
+    @Test
+    void givenMalformedToken_whenListChanges_thenThrowInvalidChangeTokenException() {
+        // WHEN and THEN
+        assertThrows(InvalidChangeTokenException.class, () -> {
+            defaultProductService.listChanges("not-a-token", 100);
+        });
+    }
+
+    @Test
+    void givenNonPositiveLimit_whenListChanges_thenThrowInvalidLimitException() {
+        // WHEN and THEN
+        assertThrows(InvalidLimitException.class, () -> defaultProductService.listChanges(null, 0));
+        assertThrows(InvalidLimitException.class, () -> defaultProductService.listChanges(null, -1));
+        verify(productRepository, never()).findChanges(any(), anyLong(), any(), any());
     }
 
     @Test
@@ -1,27 +1,60 @@
 package com.emeraldhieu.testcontainers.product.logic;
 
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.ProductRequestMessage;
+import com.emeraldhieu.testcontainers.product.config.AsyncProperties;
+import com.emeraldhieu.testcontainers.product.config.RateLimitProperties;
+import com.emeraldhieu.testcontainers.product.config.WebConfiguration;
+import com.emeraldhieu.testcontainers.product.logic.idempotency.IdempotentProductCreator;
+import com.emeraldhieu.testcontainers.product.web.HandlerExecutor;
+import com.emeraldhieu.testcontainers.product.web.ProductAvroHttpMessageConverter;
+import com.emeraldhieu.testcontainers.product.web.RateLimitFilter;
+import com.emeraldhieu.testcontainers.product.web.RequestDecompressionFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -29,15 +62,24 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * It runs fast because no application context is loaded.
  * See https://thepracticaldeveloper.com/guide-spring-boot-controller-tests/#strategy-1-spring-mockmvc-example-in-standalone-modemode
  */
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
 @ExtendWith(MockitoExtension.class)
 class ProductControllerRouteTest {
 
     @Mock
     private ProductService productService;
 
-    @InjectMocks
+    @Mock
+    private IdempotentProductCreator idempotentProductCreator;
+
+    @Mock
+    private ProductWriteCoalescer productWriteCoalescer;
+
     private ProductController productController;
 
+    private HandlerExecutor handlerExecutor;
+
     private MockMvc mockMvc;
 
     private ObjectMapper objectMapper = new ObjectMapper();
@@ -55,7 +97,12 @@ class ProductControllerRouteTest {
          * See https://thepracticaldeveloper.com/guide-spring-boot-controller-tests/#strategy-1-spring-mockmvc-example-in-standalone-modemode
          * Keep it simple and fast.
          */
+        handlerExecutor = new HandlerExecutor(new AsyncProperties(), new SimpleMeterRegistry());
+        productController = new ProductController(productService, idempotentProductCreator, handlerExecutor,
+            productWriteCoalescer);
+        // The Avro converter goes first like the bean that Spring Boot adds in front of the defaults.
         mockMvc = MockMvcBuilders.standaloneSetup(productController)
+            .setMessageConverters(new ProductAvroHttpMessageConverter(), new MappingJackson2HttpMessageConverter())
             .build();
 
         id = "pizza";
@@ -68,24 +115,100 @@ class ProductControllerRouteTest {
             .build();
     }
 
+    @AfterEach
+    public void tearDown() {
+        handlerExecutor.destroy();
+    }
+
     @Test
     void givenProductService_whenListProducts_thenReturnProducts() throws Exception {
         // GIVEN
         int offset = 0;
         int limit = 10;
-        Page<ProductResponse> productResponses = new PageImpl<>(List.of(
+        Slice<ProductResponse> productResponses = new SliceImpl<>(List.of(
             productResponse
         ));
         when(productService.list(offset, limit))
             .thenReturn(productResponses);
 
         // WHEN and THEN
-        mockMvc.perform(MockMvcRequestBuilders.get("/products"))
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$", hasSize(1)))
             .andExpect(jsonPath("$[0].id", equalTo(id)))
             .andExpect(jsonPath("$[0].name", equalTo(name)))
-            .andExpect(jsonPath("$[0].price", equalTo(price)));
+            .andExpect(jsonPath("$[0].price", equalTo(price)))
+            .andExpect(header().doesNotExist(ProductController.TOTAL_COUNT_HEADER));
+        verify(productService, never()).count();
+    }
+
+    @Test
+    void givenAvroAccepted_whenListProducts_thenReturnAvroProducts() throws Exception {
+        // GIVEN
+        when(productService.list(0, 10))
+            .thenReturn(new SliceImpl<>(List.of(productResponse)));
+
+        // WHEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products")
+                .accept(ProductAvroHttpMessageConverter.APPLICATION_AVRO))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // THEN
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ProductAvroHttpMessageConverter.APPLICATION_AVRO))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        List<ProductMessage> productMessages = new SpecificDatumReader<List<ProductMessage>>(
+            Schema.createArray(ProductMessage.getClassSchema()))
+            .read(null, DecoderFactory.get().binaryDecoder(body, null));
+        assertEquals(1, productMessages.size());
+        assertEquals(id, productMessages.get(0).getId());
+        assertEquals(name, productMessages.get(0).getName());
+        assertEquals(price, productMessages.get(0).getPrice());
+    }
+
+    @Test
+    void givenTotalRequested_whenListProducts_thenReturnTotalCountHeader() throws Exception {
+        // GIVEN
+        when(productService.list(0, 10))
+            .thenReturn(new SliceImpl<>(List.of(productResponse)));
+        when(productService.count()).thenReturn(42L);
+
+        // WHEN and THEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products")
+                .param("total", "true"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ProductController.TOTAL_COUNT_HEADER, "42"));
+    }
+
+    @Test
+    void givenSortedPageWithMore_whenListProducts_thenLinkToNextPage() throws Exception {
+        // GIVEN
+        int limit = 1;
+        String nextCursor = "amazingCursor";
+        when(productService.listSorted("-price", null, 0, limit))
+            .thenReturn(new ProductKeysetPage(List.of(productResponse), nextCursor));
+
+        // WHEN and THEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products")
+                .param("sort", "-price")
+                .param("limit", String.valueOf(limit)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + nextCursor)))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")));
     }
 
     @Test
@@ -98,29 +221,133 @@ class ProductControllerRouteTest {
         when(productService.create(productRequest)).thenReturn(productResponse);
 
         // WHEN and THEN
-        mockMvc.perform(MockMvcRequestBuilders.post("/products")
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/products")
                 .content(objectMapper.writeValueAsString(productRequest))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
             )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.id", equalTo(id)))
             .andExpect(jsonPath("$.name", equalTo(name)))
             .andExpect(jsonPath("$.price", equalTo(price)));
     }
 
+    @Test
+    void givenAvroRequest_whenCreateProduct_thenReturnAvroProduct() throws Exception {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .name(name)
+            .price(price)
+            .build();
+        ProductRequestMessage productRequestMessage = ProductRequestMessage.newBuilder()
+            .setName(name)
+            .setPrice(price)
+            .build();
+        when(productService.create(productRequest)).thenReturn(productResponse);
+
+        // WHEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/products")
+                .content(encode(productRequestMessage))
+                .contentType(ProductAvroHttpMessageConverter.APPLICATION_AVRO)
+                .accept(ProductAvroHttpMessageConverter.APPLICATION_AVRO)
+            )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // THEN
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isCreated())
+            .andExpect(content().contentType(ProductAvroHttpMessageConverter.APPLICATION_AVRO))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        ProductMessage productMessage = new SpecificDatumReader<>(ProductMessage.class)
+            .read(null, DecoderFactory.get().binaryDecoder(body, null));
+        assertEquals(id, productMessage.getId());
+        assertEquals(name, productMessage.getName());
+        assertEquals(price, productMessage.getPrice());
+    }
+
+    @Test
+    void givenIdempotencyKey_whenCreateProduct_thenCreateIdempotently() throws Exception {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .name(name)
+            .price(price)
+            .build();
+        String idempotencyKey = "amazingIdempotencyKey";
+        when(idempotentProductCreator.create(idempotencyKey, productRequest)).thenReturn(productResponse);
+
+        // WHEN and THEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/products")
+                .content(objectMapper.writeValueAsString(productRequest))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("Idempotency-Key", idempotencyKey)
+            )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id", equalTo(id)));
+        verify(productService, never()).create(productRequest);
+    }
+
     @Test
     void givenProductService_whenGetProduct_thenReturnAnProduct() throws Exception {
         // GIVEN
         when(productService.get(id)).thenReturn(productResponse);
 
         // WHEN and THEN
-        mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", id))
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", id))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id", equalTo(id)))
             .andExpect(jsonPath("$.name", equalTo(name)))
             .andExpect(jsonPath("$.price", equalTo(price)));
     }
 
+    @Test
+    void givenAvroAccepted_whenGetProduct_thenReturnAvroProduct() throws Exception {
+        // GIVEN
+        when(productService.get(id)).thenReturn(productResponse);
+
+        // WHEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", id)
+                .accept(ProductAvroHttpMessageConverter.APPLICATION_AVRO))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // THEN
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ProductAvroHttpMessageConverter.APPLICATION_AVRO))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        ProductMessage productMessage = new SpecificDatumReader<>(ProductMessage.class)
+            .read(null, DecoderFactory.get().binaryDecoder(body, null));
+        assertEquals(id, productMessage.getId());
+        assertEquals(name, productMessage.getName());
+        assertEquals(price, productMessage.getPrice());
+    }
+
+    @Test
+    void givenUnknownProduct_whenGetProduct_thenReturnNotFound() throws Exception {
+        // GIVEN
+        when(productService.get(id)).thenThrow(new ProductNotFoundException(id));
+
+        // WHEN and THEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", id))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     void givenProductService_whenUpdateProduct_thenReturnAnProduct() throws Exception {
         // GIVEN
@@ -137,16 +364,147 @@ class ProductControllerRouteTest {
         when(productService.update(id, productRequest)).thenReturn(updatedProductResponse);
 
         // WHEN and THEN
-        mockMvc.perform(MockMvcRequestBuilders.patch("/products/{id}", id)
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.patch("/products/{id}", id)
                 .content(objectMapper.writeValueAsString(productRequest))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
             )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id", equalTo(id)))
             .andExpect(jsonPath("$.name", equalTo(nameToUpdate)))
             .andExpect(jsonPath("$.price", equalTo(priceToUpdate)));
     }
 
+    @Test
+    void givenWriteCoalescing_whenUpdateProduct_thenUpdateThroughCoalescer() throws Exception {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .price(price)
+            .build();
+        when(productWriteCoalescer.isEnabled()).thenReturn(true);
+        when(productWriteCoalescer.update(id, productRequest))
+            .thenReturn(CompletableFuture.completedFuture(productResponse));
+
+        // WHEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.patch("/products/{id}", id)
+                .content(objectMapper.writeValueAsString(productRequest))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // THEN
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id", equalTo(id)));
+        verify(productService, never()).update(id, productRequest);
+    }
+
+    @Test
+    void givenProductService_whenUpdateProducts_thenReturnResultPerItem() throws Exception {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .price(price)
+            .build();
+        String unknownId = "unknown";
+        List<ProductUpdateRequest> updates = List.of(
+            ProductUpdateRequest.builder()
+                .id(id)
+                .product(productRequest)
+                .build(),
+            ProductUpdateRequest.builder()
+                .id(unknownId)
+                .product(productRequest)
+                .build()
+        );
+        when(productService.updateBatch(updates)).thenReturn(List.of(
+            ProductUpdateResult.builder()
+                .id(id)
+                .status(ProductUpdateResult.Status.UPDATED)
+                .product(productResponse)
+                .build(),
+            ProductUpdateResult.builder()
+                .id(unknownId)
+                .status(ProductUpdateResult.Status.NOT_FOUND)
+                .build()
+        ));
+
+        // WHEN and THEN
+        mockMvc.perform(MockMvcRequestBuilders.patch("/products:batch")
+                .content(objectMapper.writeValueAsString(updates))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].status", equalTo("UPDATED")))
+            .andExpect(jsonPath("$[0].product.price", equalTo(price)))
+            .andExpect(jsonPath("$[1].id", equalTo(unknownId)))
+            .andExpect(jsonPath("$[1].status", equalTo("NOT_FOUND")));
+    }
+
+    @Test
+    void givenRateLimit_whenUpdateProductsRepeatedly_thenThrottleBatch() throws Exception {
+        // GIVEN
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.getDefaultQuota().setCapacity(1);
+        rateLimitProperties.getDefaultQuota().setRefillPerSecond(0.001);
+        MockMvc filteredMockMvc = mockMvcWithFilter(new RateLimitFilter(rateLimitProperties, new SimpleMeterRegistry()));
+
+        // WHEN
+        filteredMockMvc.perform(MockMvcRequestBuilders.patch("/products:batch")
+                .content("[]")
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            )
+            .andExpect(status().isOk());
+
+        // THEN
+        filteredMockMvc.perform(MockMvcRequestBuilders.patch("/products:batch")
+                .content("[]")
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            )
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        verify(productService, times(1)).updateBatch(any());
+    }
+
+    @Test
+    void givenGzipBody_whenUpdateProducts_thenInflateBatch() throws Exception {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .price(price)
+            .build();
+        List<ProductUpdateRequest> updates = List.of(
+            ProductUpdateRequest.builder()
+                .id(id)
+                .product(productRequest)
+                .build()
+        );
+        when(productService.updateBatch(updates)).thenReturn(List.of(
+            ProductUpdateResult.builder()
+                .id(id)
+                .status(ProductUpdateResult.Status.UPDATED)
+                .product(productResponse)
+                .build()
+        ));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(objectMapper.writeValueAsBytes(updates));
+        }
+        MockMvc filteredMockMvc = mockMvcWithFilter(new RequestDecompressionFilter(1024, new SimpleMeterRegistry()));
+
+        // WHEN and THEN
+        filteredMockMvc.perform(MockMvcRequestBuilders.patch("/products:batch")
+                .content(outputStream.toByteArray())
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].status", equalTo("UPDATED")));
+    }
+
     @Test
     void givenProductService_whenDeleteProduct_thenReturnNoContent() throws Exception {
         // WHEN and THEN
@@ -154,4 +512,21 @@ class ProductControllerRouteTest {
             .andExpect(status().isNoContent());
         verify(productService, times(1)).delete(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * The filter is mapped like {@link WebConfiguration} maps it, so a route the patterns miss skips it here too.
+     */
+    private MockMvc mockMvcWithFilter(Filter filter) {
+        return MockMvcBuilders.standaloneSetup(productController)
+            .addFilter(filter, WebConfiguration.PRODUCT_URL_PATTERNS.toArray(String[]::new))
+            .build();
+    }
+
+    private byte[] encode(ProductRequestMessage productRequestMessage) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
+        new SpecificDatumWriter<>(ProductRequestMessage.class).write(productRequestMessage, encoder);
+        encoder.flush();
+        return outputStream.toByteArray();
+    }
+}
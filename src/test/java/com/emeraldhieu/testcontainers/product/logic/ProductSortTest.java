@@ -0,0 +1,35 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSortTest {
+
+    @Test
+    void givenSupplementaryCharacterAndHighBmpCharacter_whenSortByName_thenOrderByCodePoint() {
+        // GIVEN
+        // U+1F355 is the surrogate pair D83C DF55, which String#compareTo puts before U+FF21.
+        ProductView pizza = new ProductView("a", "\uD83C\uDF55", 1);
+        ProductView fullwidthA = new ProductView("b", "\uFF21", 1);
+
+        // WHEN
+        List<ProductView> products = List.of(pizza, fullwidthA).stream()
+            .sorted(ProductSort.NAME.comparator())
+            .toList();
+
+        // THEN
+        assertEquals(List.of(fullwidthA, pizza), products);
+    }
+
+    @Test
+    void givenPrefix_whenCompareCodePoints_thenPrefixComesFirst() {
+        // WHEN and THEN
+        assertTrue(ProductSort.compareCodePoints("pizza", "pizzas") < 0);
+        assertTrue(ProductSort.compareCodePoints("pizzas", "pizza") > 0);
+        assertEquals(0, ProductSort.compareCodePoints("pizza", "pizza"));
+    }
+}
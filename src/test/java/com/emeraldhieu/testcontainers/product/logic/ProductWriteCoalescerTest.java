@@ -0,0 +1,117 @@
+package com.emeraldhieu.testcontainers.product.logic;
+
+import com.emeraldhieu.testcontainers.product.config.WriteCoalescingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+class ProductWriteCoalescerTest {
+
+    private ProductService productService;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductWriteCoalescer productWriteCoalescer;
+
+    @BeforeEach
+    public void setUp() {
+        productService = mock(ProductService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        WriteCoalescingProperties properties = new WriteCoalescingProperties();
+        properties.setEnabled(true);
+        // Long enough that only the test flushes.
+        properties.setWindow(Duration.ofHours(1));
+        productWriteCoalescer = new ProductWriteCoalescer(productService, properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        productWriteCoalescer.destroy();
+    }
+
+    @Test
+    public void givenUpdatesOfSameProduct_whenFlush_thenWriteMergedUpdateOnce() {
+        // GIVEN
+        ProductResponse productResponse = ProductResponse.builder()
+            .id("pizza")
+            .name("Taco")
+            .price(43d)
+            .build();
+        List<ProductUpdateRequest> mergedUpdates = List.of(ProductUpdateRequest.builder()
+            .id("pizza")
+            .product(ProductRequest.builder()
+                .name("Taco")
+                .price(43d)
+                .build())
+            .build());
+        when(productService.updateBatch(mergedUpdates)).thenReturn(List.of(ProductUpdateResult.builder()
+            .id("pizza")
+            .status(ProductUpdateResult.Status.UPDATED)
+            .product(productResponse)
+            .build()));
+        CompletableFuture<ProductResponse> first = productWriteCoalescer.update("pizza",
+            ProductRequest.builder().name("Burger").price(42d).build());
+        CompletableFuture<ProductResponse> second = productWriteCoalescer.update("pizza",
+            ProductRequest.builder().price(43d).build());
+        CompletableFuture<ProductResponse> third = productWriteCoalescer.update("pizza",
+            ProductRequest.builder().name("Taco").build());
+
+        // WHEN
+        productWriteCoalescer.flush();
+
+        // THEN
+        verify(productService).updateBatch(mergedUpdates);
+        assertSame(productResponse, first.join());
+        assertSame(productResponse, second.join());
+        assertSame(productResponse, third.join());
+        assertEquals(2, meterRegistry.get("product.coalescing.merged").counter().count());
+    }
+
+    @Test
+    public void givenUnknownProduct_whenFlush_thenProductNotFound() {
+        // GIVEN
+        when(productService.updateBatch(List.of(ProductUpdateRequest.builder()
+            .id("unknown")
+            .product(ProductRequest.builder().price(42d).build())
+            .build())))
+            .thenReturn(List.of(ProductUpdateResult.builder()
+                .id("unknown")
+                .status(ProductUpdateResult.Status.NOT_FOUND)
+                .build()));
+        CompletableFuture<ProductResponse> future = productWriteCoalescer.update("unknown",
+            ProductRequest.builder().price(42d).build());
+
+        // WHEN
+        productWriteCoalescer.flush();
+
+        // THEN
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(ProductNotFoundException.class, exception.getCause());
+    }
+
+    @Test
+    public void givenNoUpdate_whenFlush_thenWriteNothing() {
+        // WHEN
+        productWriteCoalescer.flush();
+
+        // THEN
+        verify(productService, never()).updateBatch(any());
+    }
+}
@@ -0,0 +1,141 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.consumer.ProductMessageHandler;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A harness that measures the messages per second of the parallel consumer of the products topic.
+ * An embedded broker stands in for Kafka and a mock registry for the schema registry.
+ * Handling a message sleeps for a millisecond like a call to an index would.
+ * Run it with "-Dapplication.product-consumer.parallelism=1" to compare with one record at a time per partition.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        "application.kafka.partitions=2",
+        "application.product-consumer.enabled=true",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        // Serializers and deserializers of the same scope share an in-memory registry.
+        "spring.kafka.properties.schema.registry.url=mock://parallel-product-consumer"
+    }
+)
+@EmbeddedKafka(
+    partitions = 2,
+    topics = "products",
+    bootstrapServersProperty = "spring.kafka.bootstrap-servers"
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class ParallelProductConsumerIT {
+
+    private static final int KEYS = 1000;
+    private static final int MESSAGES = 20_000;
+
+    private static Logger logger = LoggerFactory.getLogger(ParallelProductConsumerIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    private static CountDownLatch consumed = new CountDownLatch(MESSAGES);
+    private static Map<String, List<Double>> pricesByKey = new ConcurrentHashMap<>();
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private KafkaTemplate<String, ProductMessage> kafkaTemplate;
+
+    /**
+     * Override with an empty bean so only the harness publishes.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @TestConfiguration
+    static class HandlerConfiguration {
+
+        @Bean
+        ProductMessageHandler productMessageHandler() {
+            return (id, productMessage) -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pricesByKey.computeIfAbsent(id, key -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(productMessage.getPrice());
+                consumed.countDown();
+            };
+        }
+    }
+
+    @Test
+    public void givenMessagesOfManyKeys_whenConsume_thenProcessEveryKeyInOrder() throws InterruptedException {
+        // GIVEN
+        long start = System.nanoTime();
+
+        // WHEN
+        for (int i = 0; i < MESSAGES; i++) {
+            String id = "product" + (i % KEYS);
+            kafkaTemplate.send("products", id, ProductMessage.newBuilder()
+                .setId(id)
+                .setName(id)
+                .setPrice(i)
+                .build());
+        }
+        kafkaTemplate.flush();
+        boolean allConsumed = consumed.await(5, TimeUnit.MINUTES);
+        long nanos = System.nanoTime() - start;
+        long consumedMessages = MESSAGES - consumed.getCount();
+
+        // THEN
+        logger.info("Consumed {} messages of {} keys in {} ms: {} messages/s",
+            consumedMessages, KEYS, nanos / 1_000_000, consumedMessages * 1_000_000_000L / nanos);
+        assertTrue(allConsumed, consumed.getCount() + " messages weren't consumed");
+        assertEquals(KEYS, pricesByKey.size());
+        pricesByKey.forEach((key, prices) -> {
+            List<Double> sortedPrices = new ArrayList<>(prices);
+            Collections.sort(sortedPrices);
+            assertEquals(sortedPrices, prices, key);
+        });
+    }
+}
@@ -10,6 +10,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -18,6 +19,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -33,6 +35,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 
 /**
  * A test that tests when event listener fails to send message, the database rollbacks the inserted record.
@@ -44,6 +47,8 @@ import static org.mockito.Mockito.doThrow;
         "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
     }
 )
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
 @Testcontainers
 @Slf4j
 public class PostgresAndFailedKafkaTemplateIT {
@@ -107,13 +112,15 @@ public class PostgresAndFailedKafkaTemplateIT {
 
         String errorMessage = "Failed to send message";
         doThrow(new IllegalArgumentException(errorMessage))
-            .when(kafkaTemplate).send(any(), any());
+            .when(kafkaTemplate).send(any(), any(), any());
 
         try {
-            mockMvc.perform(MockMvcRequestBuilders.post("/products")
+            MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/products")
                 .content(objectMapper.writeValueAsString(productRequest))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
-            );
+            ).andReturn();
+            // The product is created asynchronously, its failure surfaces on the dispatch.
+            mockMvc.perform(asyncDispatch(mvcResult));
         } catch (Exception e) {
             assertInstanceOf(IllegalArgumentException.class, e.getCause(), errorMessage);
         }
@@ -0,0 +1,158 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import com.emeraldhieu.testcontainers.product.logic.ProductUpdateRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductUpdateResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A test that tests "PATCH /products:batch" against a real database,
+ * and compares its throughput with updating the products one by one.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+        "application.batch-update.chunk-size=500"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class PostgresBatchUpdateIT {
+
+    private static final int PRODUCTS = 5000;
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresBatchUpdateIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @Test
+    public void givenUpdatesOfKnownAndUnknownProducts_whenUpdateBatch_thenReturnResultPerItem() {
+        // GIVEN
+        insertProducts("known", 2);
+        List<ProductUpdateRequest> updates = List.of(
+            update("known0", ProductRequest.builder().price(10d).build()),
+            update("unknown", ProductRequest.builder().price(20d).build()),
+            update("known1", ProductRequest.builder().name("first").build()),
+            // The last update of an ID wins.
+            update("known1", ProductRequest.builder().name("renamed").build())
+        );
+
+        // WHEN
+        List<ProductUpdateResult> results = productService.updateBatch(updates);
+
+        // THEN
+        assertEquals(4, results.size());
+        assertEquals(ProductUpdateResult.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(10d, results.get(0).getProduct().getPrice());
+        // Null fields are left unchanged.
+        assertEquals("known0", results.get(0).getProduct().getName());
+        assertEquals(ProductUpdateResult.Status.NOT_FOUND, results.get(1).getStatus());
+        assertNull(results.get(1).getProduct());
+        assertEquals("renamed", results.get(3).getProduct().getName());
+        assertEquals("renamed", jdbcTemplate.queryForObject(
+            "SELECT name FROM product WHERE external_id = ?", String.class, "known1"));
+    }
+
+    /**
+     * It logs the throughput of both paths. Timing isn't asserted because it depends on the machine.
+     */
+    @Test
+    public void givenManyProducts_whenUpdateOneByOneAndInBatch_thenLogThroughput() {
+        // GIVEN
+        insertProducts("item", PRODUCTS);
+        List<ProductUpdateRequest> updates = IntStream.range(0, PRODUCTS)
+            .mapToObj(i -> update("item" + i, ProductRequest.builder().price(100d + i).build()))
+            .toList();
+
+        // WHEN
+        long start = System.nanoTime();
+        updates.forEach(update -> productService.update(update.getId(), update.getProduct()));
+        long oneByOneNanos = System.nanoTime() - start;
+
+        List<ProductUpdateRequest> batchUpdates = updates.stream()
+            .map(update -> update(update.getId(), ProductRequest.builder().price(update.getProduct().getPrice() + 1).build()))
+            .toList();
+        start = System.nanoTime();
+        List<ProductUpdateResult> results = productService.updateBatch(batchUpdates);
+        long batchNanos = System.nanoTime() - start;
+
+        // THEN
+        logger.info("Updated {} products one by one at {} per second and in a batch at {} per second",
+            PRODUCTS, perSecond(oneByOneNanos), perSecond(batchNanos));
+        assertEquals(PRODUCTS, results.stream()
+            .filter(result -> result.getStatus() == ProductUpdateResult.Status.UPDATED)
+            .count());
+        assertEquals(101d + PRODUCTS - 1, jdbcTemplate.queryForObject(
+            "SELECT price FROM product WHERE external_id = ?", Double.class, "item" + (PRODUCTS - 1)));
+    }
+
+    private void insertProducts(String prefix, int count) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("""
+            INSERT INTO product (external_id, name, price)
+            SELECT ? || i, ? || i, i FROM generate_series(0, ? - 1) AS i""", prefix, prefix, count));
+    }
+
+    private static ProductUpdateRequest update(String id, ProductRequest productRequest) {
+        return ProductUpdateRequest.builder()
+            .id(id)
+            .product(productRequest)
+            .build();
+    }
+
+    private static long perSecond(long nanos) {
+        return PRODUCTS * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
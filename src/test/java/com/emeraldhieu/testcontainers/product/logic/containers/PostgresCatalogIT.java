@@ -0,0 +1,138 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.catalog.CatalogExporter;
+import com.emeraldhieu.testcontainers.product.catalog.CatalogFormat;
+import com.emeraldhieu.testcontainers.product.catalog.CatalogImportResult;
+import com.emeraldhieu.testcontainers.product.catalog.CatalogImporter;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that tests bulk catalog import and export with COPY.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class PostgresCatalogIT {
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresCatalogIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    /**
+     * NOTE: Static instance means there's only one database instance used for the whole test class.
+     * All tests methods can trample on each other's data.
+     */
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private CatalogImporter catalogImporter;
+
+    @Autowired
+    private CatalogExporter catalogExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @Test
+    public void givenCsvWithNewAndExistingProducts_whenImport_thenUpsertByExternalId() throws Exception {
+        // GIVEN
+        InputStream inputStream = getClass().getResourceAsStream("/catalog/products.csv");
+        assertNotNull(inputStream);
+
+        // WHEN
+        CatalogImportResult result = catalogImporter.importCatalog(inputStream, CatalogFormat.CSV, false);
+
+        // THEN
+        assertEquals(5, result.getCopiedRows());
+        // Duplicates of an external ID are merged into one row.
+        assertEquals(4, result.getMergedRows());
+        assertEquals(0, result.getPublishedEvents());
+        assertEquals(43d, jdbcTemplate.queryForObject(
+            "SELECT price FROM product WHERE external_id = ?", Double.class, "c611d780541541f69c1e1e80b966527a"));
+        assertEquals(2d, jdbcTemplate.queryForObject(
+            "SELECT price FROM product WHERE external_id = ?", Double.class, "ffffffffffffffffffffffffffffffff"));
+        String saladExternalId = jdbcTemplate.queryForObject(
+            "SELECT external_id FROM product WHERE name = ?", String.class, "salad");
+        assertTrue(saladExternalId.matches("[0-9a-f]{32}"));
+        // Temporary tables are dropped so the pooled connection can import again.
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM pg_class WHERE relname = 'product_staging'", Integer.class));
+    }
+
+    @Test
+    public void givenBinaryExport_whenImport_thenRoundTrip() {
+        // GIVEN
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long exportedRows = catalogExporter.exportCatalog(outputStream, CatalogFormat.BINARY);
+
+        // WHEN
+        CatalogImportResult result = catalogImporter.importCatalog(
+            new ByteArrayInputStream(outputStream.toByteArray()), CatalogFormat.BINARY, false);
+
+        // THEN
+        assertEquals(exportedRows, result.getCopiedRows());
+        assertEquals(exportedRows, result.getMergedRows());
+        assertEquals(exportedRows, jdbcTemplate.queryForObject("SELECT count(*) FROM product", Long.class));
+    }
+
+    @Test
+    public void givenProducts_whenExportCsv_thenWriteHeaderAndRows() {
+        // GIVEN
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        long exportedRows = catalogExporter.exportCatalog(outputStream, CatalogFormat.CSV);
+
+        // THEN
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("external_id,name,price", lines[0]);
+        assertEquals(exportedRows, lines.length - 1);
+    }
+}
@@ -0,0 +1,167 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.idempotency.IdempotencyKeyMismatchException;
+import com.emeraldhieu.testcontainers.product.logic.idempotency.IdempotentProductCreator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A test that tests "Idempotency-Key" of "POST /products" against a real database.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class PostgresIdempotencyIT {
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresIdempotencyIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private IdempotentProductCreator idempotentProductCreator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @Test
+    public void givenConcurrentDuplicates_whenCreate_thenCreateOneProduct() throws Exception {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .name("retried pizza")
+            .price(42d)
+            .build();
+        String idempotencyKey = "concurrentKey";
+        int duplicates = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(duplicates);
+        List<Future<ProductResponse>> futures = new ArrayList<>();
+
+        // WHEN
+        try {
+            for (int i = 0; i < duplicates; i++) {
+                futures.add(executorService.submit((Callable<ProductResponse>) () -> {
+                    start.await();
+                    return idempotentProductCreator.create(idempotencyKey, productRequest);
+                }));
+            }
+            start.countDown();
+            List<ProductResponse> productResponses = new ArrayList<>();
+            for (Future<ProductResponse> future : futures) {
+                productResponses.add(future.get());
+            }
+
+            // THEN
+            productResponses.forEach(productResponse -> assertEquals(productResponses.get(0), productResponse));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM product WHERE name = ?", Integer.class, "retried pizza"));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void givenStoredKey_whenCreateAgain_thenReturnStoredResponse() {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .name("stored pizza")
+            .price(42d)
+            .build();
+        String idempotencyKey = "storedKey";
+        ProductResponse firstResponse = idempotentProductCreator.create(idempotencyKey, productRequest);
+
+        // WHEN
+        ProductResponse replayedResponse = idempotentProductCreator.create(idempotencyKey, productRequest);
+
+        // THEN
+        assertEquals(firstResponse, replayedResponse);
+        assertEquals(firstResponse.getId(), jdbcTemplate.queryForObject(
+            "SELECT response::json ->> 'id' FROM idempotency_key WHERE idempotency_key = ?", String.class,
+            idempotencyKey));
+    }
+
+    @Test
+    public void givenKeyOfAnotherRequest_whenCreate_thenThrowMismatch() {
+        // GIVEN
+        String idempotencyKey = "reusedKey";
+        idempotentProductCreator.create(idempotencyKey, ProductRequest.builder()
+            .name("burger")
+            .price(1d)
+            .build());
+
+        // WHEN and THEN
+        assertThrows(IdempotencyKeyMismatchException.class, () -> idempotentProductCreator.create(idempotencyKey,
+            ProductRequest.builder()
+                .name("burger")
+                .price(2d)
+                .build()));
+    }
+
+    @Test
+    public void givenDifferentKeys_whenCreate_thenCreateDifferentProducts() {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .name("salad")
+            .price(3d)
+            .build();
+
+        // WHEN
+        ProductResponse firstResponse = idempotentProductCreator.create("firstKey", productRequest);
+        ProductResponse secondResponse = idempotentProductCreator.create("secondKey", productRequest);
+
+        // THEN
+        assertNotEquals(firstResponse.getId(), secondResponse.getId());
+    }
+}
@@ -0,0 +1,157 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.config.KafkaTestConfiguration;
+import com.emeraldhieu.testcontainers.product.config.KafkaTestProperties;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * A test that tests change data capture from a logical replication slot.
+ * Both a write of the app and a write made directly in the database should be published.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        "application.cdc.enabled=true"
+    }
+)
+@Testcontainers
+@Import({
+    KafkaTestConfiguration.class,
+})
+public class PostgresLogicalReplicationIT {
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresLogicalReplicationIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    /**
+     * Logical decoding needs "wal_level=logical". The default user of the container is a superuser
+     * so it's allowed to create publications and replication slots.
+     */
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withCommand("postgres", "-c", "wal_level=logical")
+            .withLogConsumer(logConsumer);
+
+    static Network network = Network.newNetwork();
+
+    // Cluster ID is created by "kafka-storage random-uuid"
+    private static String clusterId = "qYoMEZXcS_SKP2PzAl8-WA";
+
+    @Container
+    private static KafkaContainer kafka =
+        new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.4.0"))
+            .withNetwork(network)
+            .withKraft()
+            .withClusterId(clusterId)
+            .withLogConsumer(logConsumer);
+
+    @Container
+    private static GenericContainer schemaRegistry =
+        new GenericContainer(DockerImageName.parse("confluentinc/cp-schema-registry:7.4.0"))
+            .withNetwork(network)
+            .withExposedPorts(8081)
+            .withEnv("SCHEMA_REGISTRY_HOST_NAME", "schema-registry")
+            .withEnv("SCHEMA_REGISTRY_LISTENERS", "http://0.0.0.0:8081")
+            .withEnv("SCHEMA_REGISTRY_KAFKASTORE_BOOTSTRAP_SERVERS",
+                "PLAINTEXT://" + kafka.getNetworkAliases().get(0) + ":9092")
+            .dependsOn(kafka)
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        registry.add("spring.kafka.properties.schema.registry.url",
+            () -> "http://" + schemaRegistry.getHost() + ":" + schemaRegistry.getFirstMappedPort());
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private KafkaTemplate kafkaTemplate;
+
+    @Autowired
+    private KafkaTestProperties kafkaTestProperties;
+
+    @Autowired
+    private ConsumerFactory consumerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        kafkaTemplate.setConsumerFactory(consumerFactory);
+    }
+
+    @Test
+    public void givenWritesOfAppAndDatabase_whenCaptured_thenPublishBoth() {
+        // GIVEN
+        ProductRequest productRequest = ProductRequest.builder()
+            .name("pizza")
+            .price(42d)
+            .build();
+
+        // WHEN
+        ProductResponse productResponse = productService.create(productRequest);
+        String manualExternalId = "0123456789abcdef0123456789abcdef";
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+            "INSERT INTO product (external_id, name, price) VALUES (?, ?, ?)", manualExternalId, "burger", 666));
+
+        // THEN
+        ConsumerRecord<String, ProductMessage> appRecord = kafkaTemplate.receive(
+            kafkaTestProperties.getTopic(), 0, 0, Duration.ofSeconds(30));
+        assertNotNull(appRecord);
+        assertEquals(productResponse.getId(), appRecord.key());
+        assertEquals(ProductMessage.newBuilder()
+            .setId(productResponse.getId())
+            .setName("pizza")
+            .setPrice(42)
+            .build(), appRecord.value());
+
+        ConsumerRecord<String, ProductMessage> manualRecord = kafkaTemplate.receive(
+            kafkaTestProperties.getTopic(), 0, 1, Duration.ofSeconds(30));
+        assertNotNull(manualRecord);
+        assertEquals(manualExternalId, manualRecord.key());
+        assertEquals("burger", manualRecord.value().getName());
+    }
+}
@@ -0,0 +1,178 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.config.ProductCountProperties;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import com.emeraldhieu.testcontainers.product.logic.ProductCounter;
+import com.emeraldhieu.testcontainers.product.sharding.ShardDataSources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that tests every strategy of counting products against a real database.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class PostgresProductCountIT {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int DELETED_PRODUCTS = 1_000;
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresProductCountIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectProvider<ShardDataSources> shardDataSources;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM product");
+            jdbcTemplate.update("""
+                INSERT INTO product (external_id, name, price, deleted)
+                SELECT 'counted' || i, 'product' || i, i, i <= ?
+                FROM generate_series(1, ?) AS i""", DELETED_PRODUCTS, PRODUCTS);
+        });
+        // ANALYZE can run in a transaction but the planner reads the statistics of the last one committed.
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(),
+            postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE product");
+        }
+    }
+
+    @Test
+    public void givenExactStrategy_whenCount_thenCountProductsNotDeleted() {
+        // GIVEN
+        ProductCounter productCounter = counter(ProductCountProperties.Strategy.EXACT);
+
+        // WHEN
+        long count = productCounter.count();
+
+        // THEN
+        assertEquals(PRODUCTS - DELETED_PRODUCTS, count);
+    }
+
+    @Test
+    public void givenApproximateStrategy_whenCount_thenEstimateProductsNotDeleted() {
+        // GIVEN
+        ProductCounter productCounter = counter(ProductCountProperties.Strategy.APPROXIMATE);
+
+        // WHEN
+        long count = productCounter.count();
+
+        // THEN
+        long expected = PRODUCTS - DELETED_PRODUCTS;
+        assertTrue(Math.abs(count - expected) <= expected / 10, "Estimated " + count + " of " + expected);
+    }
+
+    @Test
+    public void givenCachedStrategy_whenCountAfterInsert_thenCountOfLastRefresh() {
+        // GIVEN
+        ProductCounter productCounter = counter(ProductCountProperties.Strategy.CACHED);
+        long countBeforeInsert = productCounter.count();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+            "INSERT INTO product (external_id, name, price) VALUES ('uncounted', 'pizza', 42)"));
+
+        // WHEN
+        long cachedCount = productCounter.count();
+        productCounter.refresh();
+        long refreshedCount = productCounter.count();
+
+        // THEN
+        assertEquals(PRODUCTS - DELETED_PRODUCTS, countBeforeInsert);
+        assertEquals(countBeforeInsert, cachedCount);
+        assertEquals(countBeforeInsert + 1, refreshedCount);
+    }
+
+    @Test
+    public void givenCachedStrategyNotRequested_whenRefresh_thenNextCountIsExact() {
+        // GIVEN
+        ProductCountProperties properties = new ProductCountProperties();
+        properties.setStrategy(ProductCountProperties.Strategy.CACHED);
+        properties.setIdleTimeout(Duration.ZERO);
+        ProductCounter productCounter = counter(properties);
+        long countBeforeInsert = productCounter.count();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+            "INSERT INTO product (external_id, name, price) VALUES ('uncounted', 'pizza', 42)"));
+
+        // WHEN
+        productCounter.refresh();
+        long count = productCounter.count();
+
+        // THEN
+        assertEquals(countBeforeInsert + 1, count);
+    }
+
+    private ProductCounter counter(ProductCountProperties.Strategy strategy) {
+        ProductCountProperties properties = new ProductCountProperties();
+        properties.setStrategy(strategy);
+        return counter(properties);
+    }
+
+    private ProductCounter counter(ProductCountProperties properties) {
+        return new ProductCounter(properties, dataSource, shardDataSources, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,210 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import com.emeraldhieu.testcontainers.product.logic.ProductConflictException;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import com.emeraldhieu.testcontainers.product.logic.ProductUpdateRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that tests Hibernate's second-level cache of products against a real database,
+ * and compares the round trips of updates and deletes with and without the cache.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+        "application.second-level-cache.enabled=true"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class PostgresSecondLevelCacheIT {
+
+    private static final int PRODUCTS = 500;
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresSecondLevelCacheIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    public void givenCachedProduct_whenUpdate_thenOnlyUpdateStatement() {
+        // GIVEN
+        ProductResponse product = productService.create(request("pizza", 42));
+        statistics.clear();
+
+        // WHEN
+        productService.update(product.getId(), ProductRequest.builder().price(43d).build());
+
+        // THEN
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    public void givenCachedProduct_whenUpdateBatch_thenNextUpdateSeesBatch() {
+        // GIVEN
+        ProductResponse product = productService.create(request("pizza", 42));
+        productService.update(product.getId(), ProductRequest.builder().name("burger").build());
+
+        // WHEN
+        productService.updateBatch(List.of(ProductUpdateRequest.builder()
+            .id(product.getId())
+            .product(ProductRequest.builder().price(666d).build())
+            .build()));
+        ProductResponse updatedProduct = productService.update(product.getId(),
+            ProductRequest.builder().name("taco").build());
+
+        // THEN
+        assertEquals("taco", updatedProduct.getName());
+        assertEquals(666d, updatedProduct.getPrice());
+    }
+
+    /**
+     * Another pod changing the row leaves this pod's cached product stale.
+     */
+    @Test
+    public void givenProductChangedByAnotherPod_whenUpdateCachedProduct_thenConflictThenRetrySeesChange() {
+        // GIVEN
+        ProductResponse product = productService.create(request("pizza", 42));
+        productService.update(product.getId(), ProductRequest.builder().name("burger").build());
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+            "UPDATE product SET price = 666, version = version + 1 WHERE external_id = ?", product.getId()));
+
+        // WHEN
+        assertThrows(ProductConflictException.class, () -> productService.update(product.getId(),
+            ProductRequest.builder().name("taco").build()));
+        ProductResponse retriedProduct = productService.update(product.getId(),
+            ProductRequest.builder().name("taco").build());
+
+        // THEN
+        assertEquals("taco", retriedProduct.getName());
+        assertEquals(666d, retriedProduct.getPrice());
+    }
+
+    /**
+     * Not a rigorous benchmark: it logs the statements and the time of the same round trips
+     * with a warm cache and with the cache emptied before every call.
+     */
+    @Test
+    public void givenProducts_whenUpdateAndDeleteWithAndWithoutCache_thenCacheSavesStatements() {
+        // GIVEN
+        List<String> cachedIds = createProducts("cached");
+        List<String> uncachedIds = createProducts("uncached");
+
+        // WHEN
+        statistics.clear();
+        long cachedNanos = updateAndDelete(cachedIds, false);
+        long cachedStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long uncachedNanos = updateAndDelete(uncachedIds, true);
+        long uncachedStatements = statistics.getPrepareStatementCount();
+
+        // THEN
+        logger.info("Updated and deleted {} products: {} statements in {} ms with the cache,"
+                + " {} statements in {} ms without",
+            PRODUCTS, cachedStatements, cachedNanos / 1_000_000, uncachedStatements, uncachedNanos / 1_000_000);
+        // One update and one soft delete per product.
+        assertEquals(2L * PRODUCTS, cachedStatements);
+        assertTrue(uncachedStatements > cachedStatements);
+    }
+
+    private List<String> createProducts(String prefix) {
+        return IntStream.range(0, PRODUCTS)
+            .mapToObj(i -> productService.create(request(prefix + i, i)).getId())
+            .toList();
+    }
+
+    private long updateAndDelete(List<String> ids, boolean evictFirst) {
+        long start = System.nanoTime();
+        for (String id : ids) {
+            if (evictFirst) {
+                sessionFactory.getCache().evictAllRegions();
+            }
+            productService.update(id, ProductRequest.builder().price(1d).build());
+            if (evictFirst) {
+                sessionFactory.getCache().evictAllRegions();
+            }
+            productService.delete(id);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static ProductRequest request(String name, double price) {
+        return ProductRequest.builder()
+            .name(name)
+            .price(price)
+            .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import com.emeraldhieu.testcontainers.product.logic.ProductKeysetPage;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import com.emeraldhieu.testcontainers.product.logic.ProductSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that tests the sorted "GET /products" against a real database.
+ * Every page of every sort should be answered by an index-only scan of its covering index.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class PostgresSortedListIT {
+
+    private static final int PRODUCTS = 10_000;
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresSortedListIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM product", Integer.class);
+        if (count != null && count >= PRODUCTS) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("""
+            INSERT INTO product (external_id, name, price)
+            SELECT 'sorted' || i, 'product' || (i % 997), (i % 101) * 1.5
+            FROM generate_series(1, ?) AS i""", PRODUCTS));
+        // An index-only scan skips the heap only for pages the visibility map marks all-visible.
+        // VACUUM can't run in a transaction and the pool doesn't auto-commit.
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(),
+            postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE product");
+        }
+    }
+
+    @Test
+    public void givenEverySort_whenExplainFirstPage_thenIndexOnlyScan() {
+        for (ProductSort sort : ProductSort.values()) {
+            // WHEN
+            String plan = explain(sort.firstPageQuery(), 11, 0);
+
+            // THEN
+            assertThat(sort.getParameter(), plan, containsString("Index Only Scan"));
+            assertThat(sort.getParameter(), plan, containsString(indexOf(sort)));
+        }
+    }
+
+    @Test
+    public void givenEverySort_whenExplainNextPage_thenIndexOnlyScan() {
+        // GIVEN
+        List<Object[]> keys = List.of(
+            new Object[] {"product500", "sorted500"},
+            new Object[] {75d, "sorted500"},
+            new Object[] {75d, "sorted500"}
+        );
+
+        for (ProductSort sort : ProductSort.values()) {
+            Object[] key = keys.get(sort.ordinal());
+
+            // WHEN
+            String plan = explain(sort.nextPageQuery(), key[0], key[1], 11);
+
+            // THEN
+            assertThat(sort.getParameter(), plan, containsString("Index Only Scan"));
+            assertThat(sort.getParameter(), plan, containsString(indexOf(sort)));
+        }
+    }
+
+    @Test
+    public void givenDescendingPrice_whenExplain_thenScanIndexBackward() {
+        // WHEN
+        String plan = explain(ProductSort.PRICE_DESC.firstPageQuery(), 11, 0);
+
+        // THEN
+        assertThat(plan, containsString("Index Only Scan Backward"));
+    }
+
+    @Test
+    public void givenEverySort_whenFollowCursors_thenReadAllProductsInOrderOnce() {
+        for (ProductSort sort : ProductSort.values()) {
+            // GIVEN
+            List<ProductResponse> products = new ArrayList<>();
+            String after = null;
+
+            // WHEN
+            do {
+                ProductKeysetPage page = productService.listSorted(sort.getParameter(), after, 0, 1000);
+                products.addAll(page.products());
+                after = page.nextCursor();
+            } while (after != null);
+
+            // THEN
+            Set<String> ids = new HashSet<>();
+            products.forEach(product -> assertTrue(ids.add(product.getId()), "Duplicate " + product.getId()));
+            assertEquals(PRODUCTS, products.size());
+            List<ProductResponse> sorted = new ArrayList<>(products);
+            sorted.sort(comparatorOf(sort));
+            assertEquals(sorted, products);
+        }
+    }
+
+    @Test
+    public void givenLastPage_whenListSorted_thenNoCursor() {
+        // WHEN
+        ProductKeysetPage page = productService.listSorted("price", null, PRODUCTS / 10 - 1, 10);
+
+        // THEN
+        assertEquals(10, page.products().size());
+        assertNull(page.nextCursor());
+    }
+
+    private String explain(String query, Object... args) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + query, String.class, args);
+        String plan = String.join("\n", lines);
+        logger.info("Plan:\n{}", plan);
+        return plan;
+    }
+
+    private static String indexOf(ProductSort sort) {
+        return sort == ProductSort.NAME ? "product_name_covering_idx" : "product_price_covering_idx";
+    }
+
+    /**
+     * Java's String order is the same as the "C" collation for ASCII names.
+     */
+    private static Comparator<ProductResponse> comparatorOf(ProductSort sort) {
+        Comparator<ProductResponse> comparator = switch (sort) {
+            case NAME -> Comparator.comparing(ProductResponse::getName);
+            case PRICE, PRICE_DESC -> Comparator.comparing(ProductResponse::getPrice);
+        };
+        comparator = comparator.thenComparing(ProductResponse::getId);
+        return sort == ProductSort.PRICE_DESC ? comparator.reversed() : comparator;
+    }
+}
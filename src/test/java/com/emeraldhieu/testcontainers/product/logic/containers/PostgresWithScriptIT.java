@@ -5,15 +5,22 @@ import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
 import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
 import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
 import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
@@ -24,6 +31,9 @@ import org.testcontainers.utility.DockerImageName;
 import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(
     classes = ProductApp.class,
@@ -32,6 +42,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
         "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
     }
 )
+// The statement budget filter is added to MockMvc like any servlet filter of the context.
+@AutoConfigureMockMvc
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
 @Testcontainers
 public class PostgresWithScriptIT {
 
@@ -73,6 +87,12 @@ public class PostgresWithScriptIT {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Override with an empty bean to disable the event listener.
      */
@@ -97,4 +117,51 @@ public class PostgresWithScriptIT {
         assertEquals(name, productResponse.getName());
         assertEquals(price, productResponse.getPrice());
     }
+
+    @Test
+    public void givenProduct_whenGetProduct_thenRunOneStatement() throws Exception {
+        // GIVEN
+        ProductResponse product = productService.create(ProductRequest.builder()
+            .name("pizza")
+            .price(42d)
+            .build());
+        double statementsBefore = statementsOf("GET", "/products/{id}");
+
+        // WHEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", product.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk());
+
+        // THEN
+        assertEquals(1, statementsOf("GET", "/products/{id}") - statementsBefore);
+    }
+
+    @Test
+    public void givenProducts_whenListProducts_thenRunOneStatement() throws Exception {
+        // GIVEN
+        productService.create(ProductRequest.builder()
+            .name("pizza")
+            .price(42d)
+            .build());
+        double statementsBefore = statementsOf("GET", "/products");
+
+        // WHEN
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/products"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk());
+
+        // THEN
+        assertEquals(1, statementsOf("GET", "/products") - statementsBefore);
+    }
+
+    private double statementsOf(String method, String route) {
+        DistributionSummary summary = meterRegistry.find("product.jdbc.statements")
+            .tags("method", method, "route", route)
+            .summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
 }
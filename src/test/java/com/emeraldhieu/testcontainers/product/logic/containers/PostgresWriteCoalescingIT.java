@@ -0,0 +1,213 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import com.emeraldhieu.testcontainers.product.logic.ProductWriteCoalescer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that tests coalescing of "PATCH /products/{id}" against a real database,
+ * and compares the throughput and the lock waits of a few hot products updated by many threads
+ * with and without coalescing.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+        "application.write-coalescing.enabled=true",
+        "application.write-coalescing.window=PT0.005S"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class PostgresWriteCoalescingIT {
+
+    private static final int HOT_PRODUCTS = 5;
+    private static final int THREADS = 32;
+    private static final int UPDATES_PER_THREAD = 200;
+    private static final long SAMPLE_MILLIS = 5;
+
+    private static Logger logger = LoggerFactory.getLogger(PostgresWriteCoalescingIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductWriteCoalescer productWriteCoalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @Test
+    public void givenUpdatesWithinWindow_whenUpdate_thenEveryCallerGetsMergedProduct() {
+        // GIVEN
+        ProductResponse product = productService.create(ProductRequest.builder()
+            .name("pizza")
+            .price(42d)
+            .build());
+
+        // WHEN
+        CompletableFuture<ProductResponse> nameUpdate = productWriteCoalescer.update(product.getId(),
+            ProductRequest.builder().name("burger").build());
+        CompletableFuture<ProductResponse> priceUpdate = productWriteCoalescer.update(product.getId(),
+            ProductRequest.builder().price(43d).build());
+
+        // THEN
+        ProductResponse expected = product.toBuilder()
+            .name("burger")
+            .price(43d)
+            .build();
+        assertEquals(expected, nameUpdate.join());
+        assertEquals(expected, priceUpdate.join());
+        assertEquals(expected, productService.get(product.getId()));
+    }
+
+    /**
+     * Not a rigorous benchmark: it logs the updates per second and the time backends spent waiting for a row lock,
+     * sampled from "pg_stat_activity", of the same storm with and without coalescing.
+     */
+    @Test
+    public void givenHotProducts_whenUpdateConcurrentlyWithAndWithoutCoalescing_thenCoalescingWritesLess()
+        throws Exception {
+        // GIVEN
+        List<String> ids = IntStream.range(0, HOT_PRODUCTS)
+            .mapToObj(i -> productService.create(ProductRequest.builder()
+                .name("hot" + i)
+                .price(0d)
+                .build()).getId())
+            .toList();
+        DistributionSummary flushedProducts = meterRegistry.get("product.coalescing.flushed").summary();
+        long flushesBefore = flushedProducts.count();
+
+        // WHEN
+        Storm direct = storm(ids, (id, productRequest) -> productService.update(id, productRequest));
+        Storm coalesced = storm(ids, (id, productRequest) -> productWriteCoalescer.update(id, productRequest).join());
+        long flushes = flushedProducts.count() - flushesBefore;
+
+        // THEN
+        int updates = THREADS * UPDATES_PER_THREAD;
+        logger.info("Updated {} hot products {} times from {} threads: {} updates/s and {} ms of lock waits directly,"
+                + " {} updates/s and {} ms of lock waits in {} flushes with coalescing",
+            HOT_PRODUCTS, updates, THREADS, direct.updatesPerSecond(updates), direct.lockWaitMillis(),
+            coalesced.updatesPerSecond(updates), coalesced.lockWaitMillis(), flushes);
+        assertTrue(flushes < updates, "Flushed " + flushes + " times for " + updates + " updates");
+        // Every thread writes its own index as the price, so the last writer is one of them.
+        ids.forEach(id -> {
+            double price = productService.get(id).getPrice();
+            assertTrue(price >= 0 && price < THREADS, "Price " + price);
+        });
+    }
+
+    private Storm storm(List<String> ids, BiConsumer<String, ProductRequest> update) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            Future<Long> lockWaitSamples = executorService.submit(() -> sampleLockWaits(running));
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                ProductRequest productRequest = ProductRequest.builder()
+                    .price((double) thread)
+                    .build();
+                int offset = thread;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        update.accept(ids.get((offset + i) % ids.size()), productRequest);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long nanos = System.nanoTime() - start;
+            running.set(false);
+            return new Storm(nanos, lockWaitSamples.get() * SAMPLE_MILLIS);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * @return how many backends were waiting for a lock, summed over the samples
+     */
+    private static long sampleLockWaits(AtomicBoolean running) throws SQLException, InterruptedException {
+        long samples = 0;
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(),
+            postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            while (running.get()) {
+                try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'")) {
+                    resultSet.next();
+                    samples += resultSet.getLong(1);
+                }
+                Thread.sleep(SAMPLE_MILLIS);
+            }
+        }
+        return samples;
+    }
+
+    private record Storm(long nanos, long lockWaitMillis) {
+
+        long updatesPerSecond(int updates) {
+            return updates * 1_000_000_000L / nanos;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.emeraldhieu.testcontainers.product.logic.containers;
+
+import com.emeraldhieu.testcontainers.product.ProductApp;
+import com.emeraldhieu.testcontainers.product.event.ProductEventListener;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.emeraldhieu.testcontainers.product.logic.ProductService;
+import com.emeraldhieu.testcontainers.product.sharding.RebalanceResult;
+import com.emeraldhieu.testcontainers.product.sharding.ShardDataSources;
+import com.emeraldhieu.testcontainers.product.sharding.ShardRebalancer;
+import com.emeraldhieu.testcontainers.product.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that tests sharding of products across two Postgres containers.
+ */
+@SpringBootTest(
+    classes = ProductApp.class,
+    properties = {
+        // Disable Kafka auto-configuration
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+        "application.sharding.enabled=true",
+        "application.product-count.strategy=EXACT"
+    }
+)
+// Mockito can't create mocks in a native image.
+@DisabledInNativeImage
+@Testcontainers
+public class ShardedPostgresIT {
+
+    private static Logger logger = LoggerFactory.getLogger(ShardedPostgresIT.class);
+    private static Slf4jLogConsumer logConsumer = new Slf4jLogConsumer(logger);
+
+    @Container
+    private static PostgreSQLContainer<?> shard0 =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @Container
+    private static PostgreSQLContainer<?> shard1 =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.3-alpine"))
+            .withLogConsumer(logConsumer);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        List<PostgreSQLContainer<?>> shards = List.of(shard0, shard1);
+        for (int i = 0; i < shards.size(); i++) {
+            PostgreSQLContainer<?> shard = shards.get(i);
+            String prefix = "application.sharding.shards[%d].".formatted(i);
+            String name = "shard" + i;
+            registry.add(prefix + "name", () -> name);
+            registry.add(prefix + "url", shard::getJdbcUrl);
+            registry.add(prefix + "username", shard::getUsername);
+            registry.add(prefix + "password", shard::getPassword);
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    /**
+     * Override with an empty bean to disable the event listener.
+     */
+    @MockBean
+    private ProductEventListener productEventListener;
+
+    @Test
+    public void givenProducts_whenCreate_thenStoreEachOnItsShardAndGetIt() {
+        // GIVEN
+        List<ProductResponse> createdProducts = new ArrayList<>();
+
+        // WHEN
+        IntStream.range(0, 20).forEach(i -> createdProducts.add(productService.create(ProductRequest.builder()
+            .name("product" + i)
+            .price(i)
+            .build())));
+
+        // THEN
+        for (ProductResponse createdProduct : createdProducts) {
+            String owner = shardRouter.shardOf(createdProduct.getId());
+            assertEquals(1, jdbcTemplate(owner).queryForObject(
+                "SELECT count(*) FROM product WHERE external_id = ?", Integer.class, createdProduct.getId()));
+            assertEquals(createdProduct, productService.get(createdProduct.getId()));
+        }
+    }
+
+    @Test
+    public void givenProductsOnBothShards_whenList_thenMergeInOrderOfExternalId() {
+        // GIVEN
+        IntStream.range(0, 20).forEach(i -> productService.create(ProductRequest.builder()
+            .name("product" + i)
+            .price(i)
+            .build()));
+        long total = shardDataSources.getNames().stream()
+            .mapToLong(shard -> jdbcTemplate(shard).queryForObject(
+                "SELECT count(*) FROM product WHERE NOT deleted", Long.class))
+            .sum();
+
+        // WHEN
+        Slice<ProductResponse> firstPage = productService.list(0, 7);
+        Slice<ProductResponse> secondPage = productService.list(1, 7);
+
+        // THEN
+        assertEquals(total, productService.count());
+        assertTrue(firstPage.hasNext());
+        List<ProductResponse> products = new ArrayList<>(firstPage.getContent());
+        products.addAll(secondPage.getContent());
+        assertEquals(14, products.size());
+        List<ProductResponse> sortedProducts = new ArrayList<>(products);
+        sortedProducts.sort(Comparator.comparing(ProductResponse::getId));
+        assertEquals(sortedProducts, products);
+    }
+
+    @Test
+    public void givenRowsOnWrongShard_whenRebalance_thenMoveThemToTheirOwner() {
+        // GIVEN
+        List<String> misplacedExternalIds = new ArrayList<>();
+        for (int i = 0; misplacedExternalIds.size() < 5; i++) {
+            String externalId = "%032x".formatted(i);
+            if (shardRouter.shardOf(externalId).equals("shard1")) {
+                misplacedExternalIds.add(externalId);
+                jdbcTemplate("shard0").update("INSERT INTO product (external_id, name, price) VALUES (?, ?, ?)",
+                    externalId, "misplaced", 1);
+            }
+        }
+
+        // WHEN
+        RebalanceResult result = shardRebalancer.rebalance();
+
+        // THEN
+        assertTrue(result.getMovedRows() >= misplacedExternalIds.size());
+        for (String externalId : misplacedExternalIds) {
+            assertEquals(0, jdbcTemplate("shard0").queryForObject(
+                "SELECT count(*) FROM product WHERE external_id = ?", Integer.class, externalId));
+            assertEquals(1, jdbcTemplate("shard1").queryForObject(
+                "SELECT count(*) FROM product WHERE external_id = ?", Integer.class, externalId));
+        }
+    }
+
+    /**
+     * Connections of the app's pools don't auto-commit so the shards are read and written without them.
+     */
+    private static JdbcTemplate jdbcTemplate(String shard) {
+        PostgreSQLContainer<?> container = shard.equals("shard0") ? shard0 : shard1;
+        return new JdbcTemplate(new DriverManagerDataSource(
+            container.getJdbcUrl(), container.getUsername(), container.getPassword()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.emeraldhieu.testcontainers.product.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void givenSameShards_whenShardOf_thenSameOwner() {
+        // GIVEN
+        ShardRing ring = new ShardRing(List.of("shard0", "shard1", "shard2"), 128);
+        ShardRing sameRing = new ShardRing(List.of("shard0", "shard1", "shard2"), 128);
+
+        // WHEN and THEN
+        for (int i = 0; i < 1000; i++) {
+            String key = "key" + i;
+            assertEquals(ring.shardOf(key), sameRing.shardOf(key));
+        }
+    }
+
+    @Test
+    void givenManyKeys_whenShardOf_thenSpreadEvenly() {
+        // GIVEN
+        ShardRing ring = new ShardRing(List.of("shard0", "shard1", "shard2", "shard3"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // WHEN
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.shardOf(externalId()), 1, Integer::sum);
+        }
+
+        // THEN
+        assertEquals(4, counts.size());
+        int expected = KEYS / 4;
+        counts.values().forEach(count ->
+            assertTrue(Math.abs(count - expected) < expected * 0.2, "Unbalanced shards " + counts));
+    }
+
+    @Test
+    void givenNewShard_whenShardOf_thenOnlyKeysOfNewShardMove() {
+        // GIVEN
+        ShardRing ring = new ShardRing(List.of("shard0", "shard1", "shard2"), 128);
+        ShardRing grownRing = new ShardRing(List.of("shard0", "shard1", "shard2", "shard3"), 128);
+        int movedKeys = 0;
+
+        // WHEN
+        for (int i = 0; i < KEYS; i++) {
+            String key = externalId();
+            String owner = ring.shardOf(key);
+            String newOwner = grownRing.shardOf(key);
+            if (!owner.equals(newOwner)) {
+                movedKeys++;
+                // THEN
+                assertEquals("shard3", newOwner);
+            }
+        }
+
+        // THEN
+        assertTrue(Math.abs(movedKeys - KEYS / 4) < KEYS / 4 * 0.2, "Moved " + movedKeys + " keys");
+    }
+
+    private static String externalId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,71 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void givenLimitReached_whenAcquire_thenReject() {
+        // GIVEN
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD, 5, 0.5, 10, () -> 0);
+
+        // WHEN and THEN
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(1);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void givenSlowWindow_whenRelease_thenDecreaseLimit() {
+        // GIVEN
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, THRESHOLD, 5, 0.5, 10, () -> 0);
+
+        // WHEN
+        completeWindow(limiter, THRESHOLD * 2);
+
+        // THEN
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void givenConnectionWaiters_whenRelease_thenDecreaseLimit() {
+        // GIVEN
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, THRESHOLD, 5, 0.5, 10, () -> 6);
+
+        // WHEN
+        completeWindow(limiter, 1);
+
+        // THEN
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void givenHealthyWindow_whenRelease_thenIncreaseLimitUpToMax() {
+        // GIVEN
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(9, 1, 10, THRESHOLD, 5, 0.5, 10, () -> 0);
+
+        // WHEN
+        completeWindow(limiter, 1);
+        completeWindow(limiter, 1);
+
+        // THEN
+        assertEquals(10, limiter.getLimit());
+    }
+
+    private void completeWindow(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(latencyNanos);
+        }
+    }
+}
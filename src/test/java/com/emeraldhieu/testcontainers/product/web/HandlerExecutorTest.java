@@ -0,0 +1,71 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.config.AsyncProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandlerExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HandlerExecutor handlerExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AsyncProperties asyncProperties = new AsyncProperties();
+        asyncProperties.setPoolSize(1);
+        asyncProperties.setQueueCapacity(1);
+        handlerExecutor = new HandlerExecutor(asyncProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        handlerExecutor.destroy();
+    }
+
+    @Test
+    void givenSupplier_whenSupply_thenCompleteWithItsValue() throws Exception {
+        // WHEN
+        CompletableFuture<String> future = handlerExecutor.supply(() -> "pizza");
+
+        // THEN
+        assertEquals("pizza", future.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void givenBusyThreadAndFullQueue_whenSupply_thenRejectAndCount() throws Exception {
+        // GIVEN
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = handlerExecutor.supply(() -> {
+            started.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        started.await(10, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = handlerExecutor.supply(() -> "queued");
+
+        // WHEN
+        assertThrows(HandlerExecutorBusyException.class, () -> handlerExecutor.supply(() -> "rejected"));
+
+        // THEN
+        assertEquals(1, meterRegistry.get("product.async.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("product.async.queued").gauge().value());
+        release.countDown();
+        running.get(10, TimeUnit.SECONDS);
+        assertEquals("queued", queued.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,112 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.ProductMessage;
+import com.emeraldhieu.testcontainers.product.ProductRequestMessage;
+import com.emeraldhieu.testcontainers.product.logic.ProductRequest;
+import com.emeraldhieu.testcontainers.product.logic.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductAvroHttpMessageConverterTest {
+
+    private final ProductAvroHttpMessageConverter converter = new ProductAvroHttpMessageConverter();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Type productResponseListType = new ParameterizedTypeReference<List<ProductResponse>>() {
+    }.getType();
+
+    @Test
+    void givenProductResponse_whenWrite_thenReadAsProductMessage() throws Exception {
+        // GIVEN
+        ProductResponse productResponse = ProductResponse.builder()
+            .id("c611d780541541f69c1e1e80b966527a")
+            .name("pizza")
+            .price(42d)
+            .build();
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // WHEN
+        converter.write(productResponse, ProductResponse.class,
+            ProductAvroHttpMessageConverter.APPLICATION_AVRO, outputMessage);
+
+        // THEN
+        ProductMessage productMessage = new SpecificDatumReader<>(ProductMessage.class)
+            .read(null, DecoderFactory.get().binaryDecoder(outputMessage.getBodyAsBytes(), null));
+        assertEquals(productResponse.getId(), productMessage.getId());
+        assertEquals(productResponse.getName(), productMessage.getName());
+        assertEquals(productResponse.getPrice(), productMessage.getPrice());
+        assertEquals(ProductAvroHttpMessageConverter.APPLICATION_AVRO, outputMessage.getHeaders().getContentType());
+    }
+
+    @Test
+    void givenProductRequestMessage_whenRead_thenReturnProductRequest() throws Exception {
+        // GIVEN
+        ProductRequestMessage productRequestMessage = ProductRequestMessage.newBuilder()
+            .setName("burger")
+            .setPrice(null)
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
+        new SpecificDatumWriter<>(ProductRequestMessage.class).write(productRequestMessage, encoder);
+        encoder.flush();
+
+        // WHEN
+        Object productRequest = converter.read(ProductRequest.class, null,
+            new MockHttpInputMessage(outputStream.toByteArray()));
+
+        // THEN
+        ProductRequest expectedProductRequest = ProductRequest.builder()
+            .name("burger")
+            .build();
+        assertEquals(expectedProductRequest, productRequest);
+    }
+
+    @Test
+    void givenProductResponses_whenWrite_thenPayloadIsSmallerThanJson() throws Exception {
+        // GIVEN
+        List<ProductResponse> productResponses = IntStream.range(0, 1000)
+            .mapToObj(i -> ProductResponse.builder()
+                .id("%032d".formatted(i))
+                .name("product" + i)
+                .price(i * 1.5)
+                .build())
+            .toList();
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // WHEN
+        assertTrue(converter.canWrite(productResponseListType, productResponses.getClass(),
+            ProductAvroHttpMessageConverter.APPLICATION_AVRO));
+        converter.write(productResponses, productResponseListType,
+            ProductAvroHttpMessageConverter.APPLICATION_AVRO, outputMessage);
+
+        // THEN
+        byte[] avroBytes = outputMessage.getBodyAsBytes();
+        List<ProductMessage> productMessages = new SpecificDatumReader<List<ProductMessage>>(
+            Schema.createArray(ProductMessage.getClassSchema()))
+            .read(null, DecoderFactory.get().binaryDecoder(avroBytes, null));
+        assertEquals(productResponses.size(), productMessages.size());
+        assertEquals(productResponses.get(999).getId(), productMessages.get(999).getId());
+
+        byte[] jsonBytes = objectMapper.writeValueAsBytes(productResponses);
+        assertTrue(avroBytes.length < jsonBytes.length,
+            "Avro payload has %d bytes, JSON payload has %d bytes".formatted(avroBytes.length, jsonBytes.length));
+    }
+}
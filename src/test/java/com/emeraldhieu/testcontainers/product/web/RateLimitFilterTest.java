@@ -0,0 +1,116 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    private static final String CLIENT_HEADER = "X-API-Key";
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setClientHeader(CLIENT_HEADER);
+        properties.setClientKeys(Set.of("knownKey"));
+        properties.getDefaultQuota().setCapacity(1);
+        properties.getDefaultQuota().setRefillPerSecond(0.001);
+        filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void givenUnknownKeys_whenRotateKeys_thenShareBucketOfAddress() throws Exception {
+        // WHEN
+        int firstStatus = send(request("unknownKey1"));
+        int secondStatus = send(request("unknownKey2"));
+
+        // THEN
+        assertEquals(HttpStatus.OK.value(), firstStatus);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), secondStatus);
+    }
+
+    @Test
+    void givenKnownKey_whenAddressRanOutOfTokens_thenUseBucketOfKey() throws Exception {
+        // GIVEN
+        send(request(null));
+
+        // WHEN
+        int status = send(request("knownKey"));
+
+        // THEN
+        assertEquals(HttpStatus.OK.value(), status);
+    }
+
+    @Test
+    void givenEveryBucketInUse_whenNewClientSends_thenRejectAndCount() throws Exception {
+        // GIVEN
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(1);
+        properties.getDefaultQuota().setCapacity(1);
+        properties.getDefaultQuota().setRefillPerSecond(0.001);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter fullFilter = new RateLimitFilter(properties, meterRegistry);
+        send(fullFilter, request(null));
+
+        // WHEN
+        MockHttpServletRequest newClientRequest = request(null);
+        newClientRequest.setRemoteAddr("10.0.0.2");
+        int status = send(fullFilter, newClientRequest);
+
+        // THEN
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), status);
+        assertEquals(1, meterRegistry.get("product.rate-limit.overflowed").counter().count());
+        assertEquals(1, meterRegistry.get("product.rate-limit.buckets").gauge().value());
+    }
+
+    @Test
+    void givenIdleBucket_whenNewClientSends_thenEvictIdleBucket() throws Exception {
+        // GIVEN
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(1);
+        properties.getDefaultQuota().setCapacity(1);
+        properties.getDefaultQuota().setRefillPerSecond(1_000_000);
+        RateLimitFilter fullFilter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+        send(fullFilter, request(null));
+        // Let the bucket refill.
+        Thread.sleep(1);
+
+        // WHEN
+        MockHttpServletRequest newClientRequest = request(null);
+        newClientRequest.setRemoteAddr("10.0.0.2");
+        int status = send(fullFilter, newClientRequest);
+
+        // THEN
+        assertEquals(HttpStatus.OK.value(), status);
+    }
+
+    private MockHttpServletRequest request(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.setRemoteAddr("10.0.0.1");
+        if (apiKey != null) {
+            request.addHeader(CLIENT_HEADER, apiKey);
+        }
+        return request;
+    }
+
+    private int send(MockHttpServletRequest request) throws Exception {
+        return send(filter, request);
+    }
+
+    private int send(RateLimitFilter rateLimitFilter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,273 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDecompressionFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void givenGzipBody_whenFilter_thenDownstreamReadsInflatedBody() throws Exception {
+        // GIVEN
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, meterRegistry);
+        String body = "{\"name\":\"pizza\",\"price\":42}";
+        MockHttpServletRequest request = gzipRequest(body);
+
+        AtomicReference<String> downstreamBody = new AtomicReference<>();
+        AtomicReference<String> downstreamEncoding = new AtomicReference<>();
+        MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req,
+                                   HttpServletResponse resp) throws IOException {
+                downstreamBody.set(StreamUtils.copyToString(req.getInputStream(), StandardCharsets.UTF_8));
+                downstreamEncoding.set(req.getHeader(HttpHeaders.CONTENT_ENCODING));
+            }
+        });
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // THEN
+        assertEquals(body, downstreamBody.get());
+        assertNull(downstreamEncoding.get());
+        assertEquals(body.length(), meterRegistry.get("product.compression.request.inflated.bytes").counter().count());
+        assertEquals(request.getContentAsByteArray().length,
+            meterRegistry.get("product.compression.request.compressed.bytes").counter().count());
+    }
+
+    @Test
+    void givenGzipBody_whenReadInSmallChunks_thenRecordInflateTimeOnce() throws Exception {
+        // GIVEN
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, meterRegistry);
+        MockHttpServletRequest request = gzipRequest("{\"name\":\"pizza\",\"price\":42}");
+
+        MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req,
+                                   HttpServletResponse resp) throws IOException {
+                ServletInputStream inputStream = req.getInputStream();
+                byte[] buffer = new byte[2];
+                while (inputStream.read(buffer) != -1) {
+                    // Read to the end
+                }
+                inputStream.close();
+            }
+        });
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // THEN
+        assertEquals(1, meterRegistry.get("product.compression.request.inflate").timer().count());
+    }
+
+    @Test
+    void givenUnsupportedEncoding_whenFilter_thenReturnUnsupportedMediaType() throws Exception {
+        // GIVEN
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "br");
+        request.setContent(new byte[]{1, 2, 3});
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(request, response, filterChain);
+
+        // THEN
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), response.getStatus());
+        assertEquals("gzip", response.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void givenIdentityEncoding_whenFilter_thenPassBodyThrough() throws Exception {
+        // GIVEN
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "identity");
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // THEN
+        assertEquals(request, filterChain.getRequest());
+    }
+
+    @Test
+    void givenBodyInflatingBeyondLimit_whenRead_thenThrowException() throws Exception {
+        // GIVEN
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(16, meterRegistry);
+        MockHttpServletRequest request = gzipRequest("a".repeat(1024));
+
+        MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req,
+                                   HttpServletResponse resp) throws IOException {
+                StreamUtils.copyToByteArray(req.getInputStream());
+            }
+        });
+
+        // WHEN and THEN
+        assertThrows(IOException.class, () -> filter.doFilter(request, new MockHttpServletResponse(), filterChain));
+    }
+
+    @Test
+    void givenGzipBody_whenFilter_thenDownstreamSeesNoCompressedBodyHeaders() throws Exception {
+        // GIVEN
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, meterRegistry);
+        MockHttpServletRequest request = gzipRequest("{}");
+        request.addHeader(HttpHeaders.CONTENT_LENGTH, request.getContentAsByteArray().length);
+
+        AtomicReference<List<String>> downstreamHeaderNames = new AtomicReference<>();
+        AtomicReference<List<String>> downstreamEncodings = new AtomicReference<>();
+        MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                downstreamHeaderNames.set(Collections.list(req.getHeaderNames()));
+                downstreamEncodings.set(Collections.list(req.getHeaders(HttpHeaders.CONTENT_ENCODING)));
+            }
+        });
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // THEN
+        assertFalse(downstreamHeaderNames.get().stream().anyMatch(HttpHeaders.CONTENT_ENCODING::equalsIgnoreCase));
+        assertFalse(downstreamHeaderNames.get().stream().anyMatch(HttpHeaders.CONTENT_LENGTH::equalsIgnoreCase));
+        assertTrue(downstreamEncodings.get().isEmpty());
+    }
+
+    @Test
+    void givenGzipBody_whenReadWithReadListener_thenDownstreamReadsInflatedBody() throws Exception {
+        // GIVEN
+        RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, meterRegistry);
+        String body = "{\"name\":\"pizza\",\"price\":42}";
+        MockHttpServletRequest gzipRequest = gzipRequest(body);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return new ImmediateServletInputStream(gzipRequest.getContentAsByteArray());
+            }
+        };
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        ByteArrayOutputStream downstreamBody = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+        MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServletInputStream inputStream = req.getInputStream();
+                inputStream.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        byte[] buffer = new byte[4];
+                        int count;
+                        while (inputStream.isReady() && (count = inputStream.read(buffer)) != -1) {
+                            downstreamBody.write(buffer, 0, count);
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allDataRead.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+                });
+            }
+        });
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // THEN
+        assertEquals(body, downstreamBody.toString(StandardCharsets.UTF_8));
+        assertTrue(allDataRead.get());
+    }
+
+    private MockHttpServletRequest gzipRequest(String body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(outputStream.toByteArray());
+        return request;
+    }
+
+    /**
+     * A stream whose whole content is available at once, like a container's when the body has arrived.
+     */
+    private static class ImmediateServletInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream content;
+
+        ImmediateServletInputStream(byte[] content) {
+            this.content = new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public int read() {
+            return content.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return content.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import com.emeraldhieu.testcontainers.product.jdbc.StatementStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StatementBudgetFilterTest {
+
+    private static final String ROUTE = "/products/{id}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatementBudgetFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new StatementBudgetFilter(Map.of("GET " + ROUTE, 1), meterRegistry);
+    }
+
+    @Test
+    void givenStatementsWithinBudget_whenFilter_thenRecordWithoutFlag() throws Exception {
+        // GIVEN
+        MockFilterChain filterChain = chainRunning(1);
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/pizza"), new MockHttpServletResponse(),
+            filterChain);
+
+        // THEN
+        assertEquals(1, meterRegistry.get("product.jdbc.statements").tag("route", ROUTE).summary().totalAmount());
+        assertNull(meterRegistry.find("product.jdbc.budget.exceeded").counter());
+        assertNull(StatementStats.current());
+    }
+
+    @Test
+    void givenStatementsOverBudget_whenFilter_thenFlag() throws Exception {
+        // GIVEN
+        MockFilterChain filterChain = chainRunning(3);
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/pizza"), new MockHttpServletResponse(),
+            filterChain);
+
+        // THEN
+        assertEquals(3, meterRegistry.get("product.jdbc.statements").tag("route", ROUTE).summary().totalAmount());
+        assertEquals(1, meterRegistry.get("product.jdbc.budget.exceeded").tag("route", ROUTE).counter().count());
+    }
+
+    @Test
+    void givenStatementsOnAnotherThread_whenPropagate_thenCountWithRequest() throws Exception {
+        // GIVEN
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+                CompletableFuture.runAsync(StatementStats.propagate(() -> StatementStats.current()
+                    .record(1_000, "SELECT 1", false)), executorService).join();
+            }
+        });
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/pizza"), new MockHttpServletResponse(),
+            filterChain);
+        executorService.shutdown();
+
+        // THEN
+        assertEquals(1, meterRegistry.get("product.jdbc.statements").tag("route", ROUTE).summary().totalAmount());
+    }
+
+    private static MockFilterChain chainRunning(int statements) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+                for (int i = 0; i < statements; i++) {
+                    StatementStats.current().record(1_000, "SELECT 1", false);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.emeraldhieu.testcontainers.product.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void givenFullBucket_whenBurst_thenAdmitCapacityAndRejectTheRest() {
+        // GIVEN
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(3, 1, now);
+
+        // WHEN and THEN
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND, bucket.tryAcquire(now));
+    }
+
+    @Test
+    void givenEmptyBucket_whenRefillIntervalPasses_thenAdmitAgain() {
+        // GIVEN
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(1, 10, now);
+        bucket.tryAcquire(now);
+
+        // WHEN and THEN
+        assertTrue(bucket.tryAcquire(now + SECOND / 20) > 0);
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 10));
+        assertTrue(bucket.isIdle(now + SECOND));
+    }
+
+    @Test
+    void givenConcurrentClients_whenBurst_thenNeverAdmitMoreThanCapacity() throws Exception {
+        // GIVEN
+        int capacity = 1000;
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(capacity, 0.001, now);
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+
+        // WHEN
+        for (int i = 0; i < threads; i++) {
+            executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < capacity; j++) {
+                    if (bucket.tryAcquire(now) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // THEN
+        assertEquals(capacity, admitted.get());
+    }
+}